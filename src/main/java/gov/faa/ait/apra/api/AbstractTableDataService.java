@@ -13,8 +13,11 @@
  */
 package gov.faa.ait.apra.api;
 
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.text.SimpleDateFormat;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +32,6 @@ import gov.faa.ait.apra.jaxb.ProductSet.Edition;
 import gov.faa.ait.apra.jaxb.ProductSet.Edition.Product;
 import gov.faa.ait.apra.jaxb.ProductSet.Status;
 import gov.faa.ait.apra.util.ChartInfoTable;
-import gov.faa.ait.apra.util.ChartInfoTableKey;
 import gov.faa.ait.apra.util.TableChartClient;
 
 
@@ -178,26 +180,37 @@ public abstract class AbstractTableDataService extends BaseService {
 	protected void buildChartResponse(ProductSet response, ChartInfoTable table, String chartType, OutputMode mode ) {
 		LOGGER.info("Building chart response using "+this.getCity());
 		if(this.getCity()==null || this.getCity().length()==0) {
-			// add all sectional with the edition
-			table.entrySet().stream().filter( entry -> entry.getKey().getChartType().equals(chartType)
-					&& entry.getKey().getPeriodCode().equals(this.getEdition()))
-				.sorted((entry1, entry2) -> entry1.getKey().getCityRegion().compareTo(entry2.getKey().getCityRegion()))
-				.forEach(entry -> {
-					Edition ed = this.createEdition(entry.getValue());
-					if(mode.equals(OutputMode.PRODUCT)) {
-						ed.setProduct(this.createProduct(entry.getValue()));
+			// add all sectional with the edition, the table holds them in city order
+			List <ChartCycleElementsJson> charts = table.getCharts(this.getEdition(), chartType);
+			
+			// The product URLs of all cities are checked at once, and each product then reads the result of its URL
+			if (mode.equals(OutputMode.PRODUCT) && (isProductURLChecked() || isCollectingURLs())) {
+				List <URL> urls = new ArrayList <> (charts.size());
+				
+				for (ChartCycleElementsJson element : charts) {
+					try {
+						urls.add(new URL(getProductURL(element)));
+					} catch (MalformedURLException emalformed) {
+						LOGGER.warn("The download URL is not valid", emalformed);
 					}
-					response.getEdition().add(ed);
-			});
+				}
+				verifyURLs(urls);
+			}
+			
+			for (ChartCycleElementsJson element : charts) {
+				Edition ed = this.createEdition(element);
+				if(mode.equals(OutputMode.PRODUCT)) {
+					ed.setProduct(this.createProduct(element));
+				}
+				response.getEdition().add(ed);
+			}
 		} else {
 			LOGGER.info("Building chart response using "+
-				this.getCity().toUpperCase(Locale.ENGLISH)+" "+this.getEdition().toUpperCase()+" "+chartType);
+				this.getCity()+" "+this.getEdition()+" "+chartType);
 			
-			ChartInfoTableKey key = new ChartInfoTableKey(
-				this.getCity().toUpperCase(Locale.ENGLISH), this.getEdition().toUpperCase(), chartType);
+			ChartCycleElementsJson element = table.get(this.getCity(), this.getEdition(), chartType);
 			
-			if(table.containsKey(key)) {
-				ChartCycleElementsJson element = table.get(key);
+			if(element != null) {
 				Edition ed = this.createEdition(element);
 				if(mode.equals(OutputMode.PRODUCT)) {
 					ed.setProduct(this.createProduct(element));
@@ -209,8 +222,8 @@ public abstract class AbstractTableDataService extends BaseService {
 				response.getEdition().add(ed);
 			}
 			else {
-				LOGGER.warn("Table data key not found for key "
-					+key.toString()+". Returning a 404 not found for this request.");
+				LOGGER.warn("Table data key not found for "+this.getCity()+"::"+this.getEdition()+"::"+chartType
+					+". Returning a 404 not found for this request.");
 				response.getStatus().setCode(NOT_FOUND);
 				response.getStatus().setMessage(ErrorCodes.ERROR_404);
 			}
@@ -254,6 +267,25 @@ public abstract class AbstractTableDataService extends BaseService {
 	protected abstract Product createProduct(
 			ChartCycleElementsJson element);
 	
+	/**
+	 * Build the download URL of the product for a chart without checking it
+	 * 
+	 * @param element the chart cycle information of the chart
+	 * @return the product URL
+	 */
+	protected abstract String getProductURL(
+			ChartCycleElementsJson element);
+	
+	/**
+	 * Determine whether createProduct makes a HEAD check of the product URL. The URLs of a 
+	 * service that only consults the link verifier results are not checked as a batch.
+	 * 
+	 * @return true if the product URLs are checked
+	 */
+	protected boolean isProductURLChecked() {
+		return true;
+	}
+	
 	protected enum OutputMode {
 		PRODUCT, EDITION;
 	}
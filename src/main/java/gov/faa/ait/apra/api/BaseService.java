@@ -14,15 +14,32 @@
 package gov.faa.ait.apra.api;
 
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
-import java.net.Proxy;
 import java.net.URL;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.text.WordUtils;
+import org.apache.logging.log4j.ThreadContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +53,11 @@ import gov.faa.ait.apra.jaxb.ProductSet.Edition;
 import gov.faa.ait.apra.jaxb.ProductSet.Edition.Product;
 import gov.faa.ait.apra.jaxb.ProductSet.Status;
 import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+import gov.faa.ait.apra.util.CircuitBreaker;
+import gov.faa.ait.apra.util.ExecutionMode;
+import gov.faa.ait.apra.util.LinkCheckClient;
+import gov.faa.ait.apra.util.StaleData;
+import gov.faa.ait.apra.util.URLHealthRegistry;
 
 import static gov.faa.ait.apra.bootstrap.ErrorCodes.DEPRECATED;
 
@@ -54,12 +76,19 @@ public abstract class BaseService {
 	public static final String PDF="pdf";
 	public static final String ZIP="zip";
 	public static final String TIFF="tiff";
+	static final String URL_CHECK_HEADER = "X-APRA-URL-Check";
 	protected static final String EMPTY_STRING = "";
 	private boolean changeFlag;
 	private String format = EMPTY_STRING;
 	private String edition = EMPTY_STRING;
 	private String geoname = EMPTY_STRING;
 	private static final Logger logger = LoggerFactory.getLogger(BaseService.class);
+	private static ExecutorService verifyExecutor;
+	private static ExecutorService requestExecutor;
+	private final Map <String, Boolean> verifiedURLs = new ConcurrentHashMap <> ();
+	private Map <String, URL> deferredURLs;
+	private volatile boolean failedURLCheck;
+	private Thread building;
 
 	/**
 	 * Verify edition and format parameters
@@ -182,42 +211,370 @@ public abstract class BaseService {
 	protected abstract ProductSet buildResponse (ChartCycleElementsJson cycle); 
 	
 	/**
-	 * Given a URL, this method attempts to execute an HTTP HEAD check against the URL. If a 200 response is returned, the URL is valid
+	 * Given a URL, this method attempts to execute an HTTP HEAD check against the URL. If a 200 response is returned, the URL is valid.
+	 * A URL already checked while building this response, for example as part of a batch, is not checked again, and a result
+	 * held by the URL health registry is used without a HEAD request.
 	 * @param url the url to be checked
 	 * @return true if the url response is 200 when issuing a HTTP HEAD check; false otherwise
 	 */
 	public boolean verifyURL (URL url) {
-		boolean ok = false; 
-		HttpURLConnection connection = null;
-		Proxy proxy = null;
+		String key = url.toExternalForm();
+		Boolean verified = verifiedURLs.get(key);
+		
+		if (verified != null) {
+			return recordURLCheck(verified);
+		}
+		
+		// While the URLs are being collected for a batch every check passes
+		if (deferredURLs != null) {
+			deferredURLs.putIfAbsent(key, url);
+			return true;
+		}
+		
+		boolean ok = checkURL(url);
+		verifiedURLs.put(key, ok);
+		return recordURLCheck(ok);
+	}
+	
+	/**
+	 * Verify a batch of URLs. The HEAD checks run concurrently on a shared, bounded pool so the time taken is that of the slowest 
+	 * check rather than the sum of all of them. A check that has not finished by the configured deadline counts as failed. 
+	 * The results are kept for the rest of this response so later calls to verifyURL for the same URLs return immediately. 
+	 * URLs with a result in the URL health registry are not checked again. While URLs are being collected every check passes.
+	 * @param urls the urls to be checked
+	 * @return the result of each check keyed by the external form of the url
+	 */
+	public Map <String, Boolean> verifyURLs (Collection <URL> urls) {
+		Map <String, URL> pending = new LinkedHashMap <> ();
+		
+		for (URL url : urls) {
+			if (deferredURLs != null) {
+				verifyURL(url);
+				continue;
+			}
+			
+			String key = url.toExternalForm();
+			
+			if (verifiedURLs.containsKey(key)) {
+				continue;
+			}
+			
+			Boolean known = URLHealthRegistry.getInstance().get(key);
+			if (known != null) {
+				verifiedURLs.put(key, known);
+			}
+			else {
+				pending.putIfAbsent(key, url);
+			}
+		}
+		
+		if (pending.size() == 1) {
+			URL url = pending.values().iterator().next();
+			verifiedURLs.put(url.toExternalForm(), checkURL(url));
+		}
+		else if (! pending.isEmpty()) {
+			checkURLs(pending);
+		}
+		
+		Map <String, Boolean> results = new LinkedHashMap <> ();
+		for (URL url : urls) {
+			String key = url.toExternalForm();
+			results.put(key, deferredURLs != null ? Boolean.TRUE : recordURLCheck(verifiedURLs.get(key)));
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Run a step with every URL check passing and return the URLs it would have checked. No HEAD request is made. 
+	 * The link verifier uses this to find the links of a service by running its chart method once.
+	 * @param step the step that calls verifyURL or verifyURLs for each URL it would check
+	 * @return the URLs the step checked
+	 */
+	Collection <URL> collectURLs (Runnable step) {
+		Map <String, URL> collected = new LinkedHashMap <> ();
+		deferredURLs = collected;
 		
-		logger.info("Verifying URL "+url.toExternalForm()+" before responding to call");
 		try {
-			if (Config.getFAADMZProxyHost() != null && (! EMPTY_STRING.equals(Config.getFAADMZProxyHost()))) {
-				int port = Integer.parseInt(Config.getFAADMZProxyPort());
-				InetSocketAddress proxyAddress = new InetSocketAddress(Config.getFAADMZProxyHost(), port);
-				proxy = new Proxy(Proxy.Type.HTTP, proxyAddress);			
+			step.run();
+		}
+		finally {
+			deferredURLs = null;
+		}
+		
+		return collected.values();
+	}
+	
+	/**
+	 * Determine whether the URL checks of this service are being collected rather than made. A service whose URL 
+	 * checks are turned off in the configuration still checks its URLs while they are collected, so the link
+	 * verifier can find them.
+	 * @return true if the URLs are being collected
+	 */
+	protected boolean isCollectingURLs () {
+		return deferredURLs != null;
+	}
+	
+	/**
+	 * Check a URL against the results of the link verifier without making a HEAD request. This is used where the 
+	 * HEAD check is turned off in the configuration, so a link the verifier found to be missing is not returned.
+	 * @param url the url to be checked
+	 * @return false if the url is known to be missing; true if it was found or has not been checked
+	 */
+	protected boolean verifyKnownURL (URL url) {
+		if (deferredURLs != null) {
+			return verifyURL(url);
+		}
+		
+		Boolean known = URLHealthRegistry.getInstance().get(url.toExternalForm());
+		return recordURLCheck(known == null || known);
+	}
+	
+	/**
+	 * Resolve the URLs of a chart listing as one batch. A listing whose editions are created as the response is written
+	 * resolves its URLs with this before the response is returned, so a failed check is recorded before the response 
+	 * headers are decided and the editions only read the results. With the HEAD check the URLs are verified as by 
+	 * verifyURLs, otherwise only the links the link verifier found to be missing fail, as by verifyKnownURL.
+	 * @param urls the urls of the listing
+	 * @param headCheck true to make the HEAD check
+	 * @return the result of each check keyed by the external form of the url
+	 */
+	protected Map <String, Boolean> verifyListingURLs (Collection <URL> urls, boolean headCheck) {
+		Map <String, Boolean> results = new LinkedHashMap <> ();
+		
+		if (headCheck) {
+			results.putAll(verifyURLs(urls));
+		}
+		else {
+			for (URL url : urls) {
+				results.put(url.toExternalForm(), verifyKnownURL(url));
 			}
+		}
+		
+		for (Map.Entry <String, Boolean> result : results.entrySet()) {
+			if (! result.getValue()) {
+				logger.warn(result.getKey()+(headCheck ? " returned a non 200 response code when completing a HTTP HEAD check." 
+						: " was not found by the link verifier."));
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Determine whether a URL check made for this response failed, so a product URL was left out of the response
+	 * or the response was answered as not found. Such a response may change as soon as the URL is checked again.
+	 * @return true if any URL check failed
+	 */
+	boolean hasFailedURLCheck () {
+		return failedURLCheck;
+	}
+	
+	private boolean recordURLCheck (boolean ok) {
+		if (! ok) {
+			failedURLCheck = true;
+		}
+		
+		return ok;
+	}
+	
+	/**
+	 * Get the values the link verifier passes for a query parameter of the chart method of this service. By default 
+	 * the verifier uses the values documented for the parameter, so a service only overrides this for a parameter 
+	 * whose values are not documented.
+	 * @param name the name of the query parameter
+	 * @return the values to pass, or null to use the documented values
+	 */
+	protected List <String> getLinkParameterValues (String name) {
+		return null;
+	}
+	
+	private void checkURLs (Map <String, URL> pending) {
+		List <String> keys = new ArrayList <> (pending.keySet());
+		List <Callable <Boolean>> checks = new ArrayList <> (pending.size());
+		List <Future <Boolean>> futures = new ArrayList <> ();
+		
+		for (URL url : pending.values()) {
+			checks.add(() -> checkURL(url));
+		}
+		
+		try {
+			futures = getVerifyExecutor().invokeAll(checks, Config.getURLCheckDeadline(), TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException eint) {
+			logger.warn("Interrupted while verifying "+pending.size()+" URLs.", eint);
+			Thread.currentThread().interrupt();
+		}
+		
+		for (int i = 0; i < keys.size(); i++) {
+			boolean ok = false;
 			
-			/*
-			 * Determine if we are going to use a proxy server to check the validity
-			 * of the URL we return
-			 */
-			if (proxy != null) {
-				logger.info("Using proxy server "+proxy.toString());
-				connection = (HttpURLConnection) url.openConnection(proxy);
+			if (i < futures.size() && ! futures.get(i).isCancelled()) {
+				try {
+					ok = futures.get(i).get();
+				}
+				catch (InterruptedException | ExecutionException eexec) {
+					logger.error("HEAD check failed for url: "+keys.get(i), eexec);
+				}
 			}
 			else {
-				logger.info("Direct connection. No proxy server defined.");
-				connection = (HttpURLConnection) url.openConnection();
+				logger.warn("HEAD check for url "+keys.get(i)+" did not complete within "+Config.getURLCheckDeadline()+" ms.");
 			}
 			
+			verifiedURLs.put(keys.get(i), ok);
+		}
+	}
+	
+	private static synchronized ExecutorService getVerifyExecutor () {
+		if (verifyExecutor == null) {
+			verifyExecutor = ExecutionMode.getConfigured().newExecutor("apra-url-check-", Config.getURLCheckThreads());
+		}
+		
+		return verifyExecutor;
+	}
+	
+	/**
+	 * Answer a request on the request threads, so the container thread is released while the response waits on
+	 * denodo and the HEAD checks. The request is answered with a 503 error if the response is not ready within the
+	 * request timeout, and the build is then cancelled: a build still queued is not run, and a running build is 
+	 * interrupted so it stops waiting on denodo loads and HEAD check batches. While the links of the service are 
+	 * collected the request is answered on the calling thread. A response with a failed URL check carries an 
+	 * X-APRA-URL-Check header so it is neither cached nor validated.
+	 * @param asyncResponse the suspended response of the request
+	 * @param request builds the response
+	 */
+	protected void respond (AsyncResponse asyncResponse, Supplier <Response> request) {
+		if (asyncResponse == null || isCollectingURLs()) {
+			request.get();
+			return;
+		}
+		
+		// The request number is logged from the request thread as well
+		Map <String, String> logContext = ThreadContext.getContext();
+		CompletableFuture <Response> response;
+		
+		asyncResponse.setTimeout(Config.getRequestTimeout(), TimeUnit.MILLISECONDS);
+		
+		try {
+			response = CompletableFuture.supplyAsync(() -> markFailedURLCheck(build(request, logContext)), getRequestExecutor());
+		}
+		catch (RejectedExecutionException ree) {
+			logger.warn("The request could not be queued. Error response being returned.", ree);
+			asyncResponse.resume(getUnavailableResponse());
+			return;
+		}
+		
+		asyncResponse.setTimeoutHandler(timedOut -> {
+			logger.warn("The response was not ready within "+Config.getRequestTimeout()+" ms. Error response being returned.");
+			response.cancel(true);
+			interruptBuild();
+			timedOut.resume(getUnavailableResponse());
+		});
+		
+		response.whenComplete((built, ex) -> {
+			if (ex == null) {
+				asyncResponse.resume(built);
+			}
+			else if (! (ex instanceof CancellationException)) {
+				asyncResponse.resume(ex instanceof CompletionException ? ex.getCause() : ex);
+			}
+		});
+	}
+	
+	private Response build (Supplier <Response> request, Map <String, String> logContext) {
+		synchronized (this) {
+			building = Thread.currentThread();
+		}
+		
+		ThreadContext.putAll(logContext);
+		StaleData.clear();
+		
+		try {
+			// The stale data marks are made on this thread, so the response is flagged here rather than by the filter
+			Response response = request.get();
+			long age = StaleData.getAge();
+			return age < 0 ? response : StaleDataFilter.markStale(response, age);
+		}
+		finally {
+			synchronized (this) {
+				building = null;
+			}
+			
+			// An interrupt sent as the build finished must not reach the next request on this thread
+			Thread.interrupted();
+			StaleData.clear();
+			ThreadContext.clearAll();
+		}
+	}
+	
+	/*
+	 * Interrupt the request thread building the response, if the build has started and not yet finished
+	 */
+	private synchronized void interruptBuild () {
+		if (building != null) {
+			building.interrupt();
+		}
+	}
+	
+	private Response markFailedURLCheck (Response response) {
+		if (! failedURLCheck || response.getStatus() != 200) {
+			return response;
+		}
+		
+		return Response.fromResponse(response).header(URL_CHECK_HEADER, "failed").build();
+	}
+	
+	private Response getUnavailableResponse () {
+		return Response.status(503).entity(getErrorResponse(503, ErrorCodes.ERROR_503)).build();
+	}
+	
+	private static synchronized ExecutorService getRequestExecutor () {
+		if (requestExecutor == null) {
+			requestExecutor = ExecutionMode.getConfigured().newExecutor("apra-request-", Config.getRequestThreads());
+		}
+		
+		return requestExecutor;
+	}
+	
+	/**
+	 * Stop the URL check and request threads. A later batch check or request starts a new pool.
+	 */
+	public static synchronized void shutdown () {
+		if (verifyExecutor != null) {
+			verifyExecutor.shutdownNow();
+			verifyExecutor = null;
+		}
+		
+		if (requestExecutor != null) {
+			requestExecutor.shutdownNow();
+			requestExecutor = null;
+		}
+	}
+	
+	/*
+	 * Check a URL through the URL health registry, so a URL with a recorded result is not checked again and 
+	 * concurrent checks of the same URL share one HEAD request
+	 */
+	private boolean checkURL (URL url) {
+		return URLHealthRegistry.getInstance().check(url.toExternalForm(), () -> headURL(url));
+	}
+	
+	/**
+	 * Make the HTTP HEAD check of a URL
+	 * @param url the url to be checked
+	 * @return true if the url response is 200 or 302
+	 * @throws CircuitBreaker.OpenException if the check was refused because the file server is failing
+	 */
+	static boolean headURL (URL url) throws CircuitBreaker.OpenException {
+		boolean ok = false; 
+		
+		logger.info("Verifying URL "+url.toExternalForm()+" before responding to call");
+		try {
 			/*
 			 * This is the actual HTTP HEAD check to determine if the URL is valid
-			 * and exists on the FAA web server
+			 * and exists on the FAA web server. The shared client reuses its connections.
 			 */
-			connection.setRequestMethod("HEAD");
-			int responseCode = connection.getResponseCode();
+			int responseCode = LinkCheckClient.getInstance().head(url);
 			if (responseCode == 200 || responseCode == 302) {
 				logger.info("URL HEAD check returned response code "+responseCode+" for url "+url.toExternalForm());
 			    ok = true;
@@ -230,17 +587,13 @@ public abstract class BaseService {
 			logger.error("HEAD heck failed for url: "+url.toExternalForm(), eillegal);
 			ok = false;
 		}
+		catch (CircuitBreaker.OpenException eopen) {
+			throw eopen;
+		}
 		catch (IOException eio) {
 			logger.error("HEAD heck failed for url: "+url.toExternalForm(), eio);
 			ok = false;
 		}
-		
-
-		/*
-		 * Close down the connection as cleanup action
-		 */
-		if (connection != null)
-			connection.disconnect();
 
 		return ok;
 	}
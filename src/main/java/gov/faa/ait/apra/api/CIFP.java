@@ -23,6 +23,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -78,8 +80,16 @@ public class CIFP extends BaseService {
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
     
-    public Response getCIFPRelease (
+    public void getCIFPRelease (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+    	respond(asyncResponse, () -> getCIFPRelease(ed));
+    }
+
+    /**
+     * Build the response of the getCIFPRelease request on the calling thread
+     * @return the response
+     */
+    public Response getCIFPRelease (String ed) {
     	ChartCycleElementsJson cycle;
     	
     	logger.info("Received call to retrieve current CIFP product release for edition '"+ed+"'.");
@@ -110,7 +120,15 @@ public class CIFP extends BaseService {
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-    public Response getCIFPEdition (@ApiParam(name="edition", value="Requested product edition. If omitted, current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+    public void getCIFPEdition (@Suspended AsyncResponse asyncResponse, @ApiParam(name="edition", value="Requested product edition. If omitted, current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+    	respond(asyncResponse, () -> getCIFPEdition(ed));
+    }
+
+    /**
+     * Build the response of the getCIFPEdition request on the calling thread
+     * @return the response
+     */
+    public Response getCIFPEdition (String ed) {
     	ChartCycleElementsJson cycle;
     	
     	cycle = initParameters(ed);
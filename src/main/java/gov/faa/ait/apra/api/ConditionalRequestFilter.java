@@ -0,0 +1,169 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.api;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import javax.annotation.Priority;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.cycle.CycleValidity;
+import gov.faa.ait.apra.util.StaleData;
+
+/**
+ * Adds an ETag, Last-Modified and Cache-Control header to the product responses and answers If-None-Match
+ * and If-Modified-Since requests with 304 Not Modified before the resource is called. The responses only
+ * change when the chart cycles or the reference data built into them change, so the validators are derived
+ * from the published data and the request rather than from the response. The ETag combines the digest of the
+ * cycles and reference data with the request path, query parameters and accepted media type, and the response
+ * may be cached until the next edition becomes effective. Services marked as a daily edition are also validated
+ * by the day. A gzip encoded response has its own tag. Responses built from stale data or with a failed URL 
+ * check get no validators, so the client asks again rather than keeping them.
+ *
+ * @author FAA
+ *
+ */
+@Priority(Priorities.HEADER_DECORATOR)
+public class ConditionalRequestFilter implements ContainerRequestFilter, ContainerResponseFilter {
+	@Context
+	private ResourceInfo resourceInfo;
+
+	@Override
+	public void filter(ContainerRequestContext request) {
+		if (! isConditional(request)) {
+			return;
+		}
+
+		CycleValidity validity = CycleCache.getValidity();
+
+		if (validity.getTag() == null) {
+			return;
+		}
+
+		EntityTag tag = getEntityTag(request, validity, GzipEncodingFilter.acceptsGzip(request));
+		Date lastModified = getLastModified(validity);
+		Response.ResponseBuilder notModified = lastModified == null ? request.getRequest().evaluatePreconditions(tag)
+				: request.getRequest().evaluatePreconditions(lastModified, tag);
+
+		if (notModified != null) {
+			request.abortWith(notModified.build());
+		}
+	}
+
+	@Override
+	public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+		int status = response.getStatus();
+
+		if ((status != 200 && status != 304) || ! isConditional(request)) {
+			return;
+		}
+
+		// A response built from stale data or with URLs left out by a failed check must not be kept by the client
+		MultivaluedMap <String, Object> headers = response.getHeaders();
+		if (StaleData.getAge() >= 0 || headers.containsKey(StaleDataFilter.STALE_AGE_HEADER) 
+				|| headers.containsKey(BaseService.URL_CHECK_HEADER)) {
+			return;
+		}
+
+		CycleValidity validity = CycleCache.getValidity();
+
+		if (validity.getTag() == null) {
+			return;
+		}
+
+		// A 304 has no body to encode, so it is tagged as the body the client holds would have been
+		boolean gzip = status == 304 ? GzipEncodingFilter.acceptsGzip(request) 
+				: GzipEncodingFilter.GZIP.equals(response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+		headers.putSingle(HttpHeaders.ETAG, getEntityTag(request, validity, gzip));
+
+		Date lastModified = getLastModified(validity);
+		if (lastModified != null) {
+			headers.putSingle(HttpHeaders.LAST_MODIFIED, lastModified);
+		}
+
+		CacheControl cacheControl = new CacheControl();
+		cacheControl.setMaxAge((int) Math.max(0, (getExpires(validity).getTime() - System.currentTimeMillis()) / 1000));
+		headers.putSingle(HttpHeaders.CACHE_CONTROL, cacheControl);
+		GzipEncodingFilter.addVary(headers, HttpHeaders.ACCEPT);
+	}
+
+	private boolean isConditional (ContainerRequestContext request) {
+		return HttpMethod.GET.equals(request.getMethod()) && resourceInfo != null && resourceInfo.getResourceClass() != null
+				&& BaseService.class.isAssignableFrom(resourceInfo.getResourceClass());
+	}
+
+	private EntityTag getEntityTag (ContainerRequestContext request, CycleValidity validity, boolean gzip) {
+		// The key of a daily edition holds the day, so its tag changes every day
+		String key = ResponseCacheFilter.getKey(request, resourceInfo);
+		StringBuilder tag = new StringBuilder(validity.getTag()).append('-').append(Integer.toHexString(key.hashCode()));
+
+		// The compressed response is a different representation and needs its own strong tag
+		if (gzip) {
+			tag.append('-').append(GzipEncodingFilter.GZIP);
+		}
+
+		return new EntityTag(tag.toString());
+	}
+
+	private Date getLastModified (CycleValidity validity) {
+		Date lastModified = validity.getLastModified();
+
+		if (isDaily(resourceInfo)) {
+			Date today = startOf(LocalDate.now());
+			return lastModified == null || today.after(lastModified) ? today : lastModified;
+		}
+
+		return lastModified;
+	}
+
+	private Date getExpires (CycleValidity validity) {
+		Date expires = validity.getExpires();
+
+		if (isDaily(resourceInfo)) {
+			Date tomorrow = startOf(LocalDate.now().plusDays(1));
+			return tomorrow.before(expires) ? tomorrow : expires;
+		}
+
+		return expires;
+	}
+
+	/**
+	 * Determine whether the matched resource is a daily edition
+	 * @param resourceInfo the matched resource
+	 * @return true if the resource class is marked as a daily edition
+	 */
+	static boolean isDaily (ResourceInfo resourceInfo) {
+		return resourceInfo != null && resourceInfo.getResourceClass() != null
+				&& resourceInfo.getResourceClass().isAnnotationPresent(DailyEdition.class);
+	}
+
+	private static Date startOf (LocalDate day) {
+		return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+}
@@ -26,6 +26,8 @@ import java.util.Date;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -48,6 +50,7 @@ import io.swagger.annotations.ApiResponses;
 
 @Path("/ddof")
 @Api(value="Daily Digital Obstacle File (DDOF)")
+@DailyEdition
 
 /**
  * This service provides the Daily Digital Obstacle File (DDOF) download link and edition information. There is only one release at any given time and it is the
@@ -74,6 +77,14 @@ public class DailyDigitalObstacleFile extends BaseService {
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
     
+    public void getDDOFRelease (@Suspended AsyncResponse asyncResponse) {
+    	respond(asyncResponse, () -> getDDOFRelease());
+    }
+
+    /**
+     * Build the response of the getDDOFRelease request on the calling thread
+     * @return the response
+     */
     public Response getDDOFRelease () {
     	
     	logger.info("Received call to retrieve current DDOF product release for edition.");
@@ -99,6 +110,14 @@ public class DailyDigitalObstacleFile extends BaseService {
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
     
+    public void getDDOFEdition (@Suspended AsyncResponse asyncResponse) {
+    	respond(asyncResponse, () -> getDDOFEdition());
+    }
+
+    /**
+     * Build the response of the getDDOFEdition request on the calling thread
+     * @return the response
+     */
     public Response getDDOFEdition () {
     	
     	logger.info("Received call to retrieve current DDOF edition information.");
@@ -140,7 +159,7 @@ public class DailyDigitalObstacleFile extends BaseService {
     	try {
     		product.setChartName(name);
     		URL url = new URL (downloadURL.toString());
-    		product.setUrl(url.toString());
+    		product.setUrl(verifyKnownURL(url) ? url.toString() : "");
         }
        	catch (MalformedURLException emalformed) {
     		logger.warn("The DDOF download URL is not valid", emalformed);
@@ -0,0 +1,31 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service whose edition changes every day rather than with the chart cycles. Its responses are only
+ * cached and validated until the end of the day.
+ * 
+ * @author FAA
+ *
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DailyEdition {
+}
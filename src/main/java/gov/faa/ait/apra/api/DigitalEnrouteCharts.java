@@ -25,6 +25,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -78,8 +80,16 @@ public class DigitalEnrouteCharts extends BaseService {
 			@ApiResponse(code = 500, message = ERROR_500)})
 	// http://aeronav.faa.gov/Upload_313-d/enroute/DDECUS_32.zip 
     
-    public Response getDECRelease (
+    public void getDECRelease (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+    	respond(asyncResponse, () -> getDECRelease(ed));
+    }
+
+    /**
+     * Build the response of the getDECRelease request on the calling thread
+     * @return the response
+     */
+    public Response getDECRelease (String ed) {
     	logger.info("Received call to retrieve current CIFP product release for edition '"+ed+"'.");
 
     	ChartCycleElementsJson cycle = initParameters (ed);
@@ -107,7 +117,15 @@ public class DigitalEnrouteCharts extends BaseService {
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-    public Response getDECEdition (@ApiParam(name="edition", value="Requested product edition. If omitted, current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+    public void getDECEdition (@Suspended AsyncResponse asyncResponse, @ApiParam(name="edition", value="Requested product edition. If omitted, current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+    	respond(asyncResponse, () -> getDECEdition(ed));
+    }
+
+    /**
+     * Build the response of the getDECEdition request on the calling thread
+     * @return the response
+     */
+    public Response getDECEdition (String ed) {
     	ChartCycleElementsJson cycle = initParameters(ed);
     	
     	if (! verifyEdition() ) {
@@ -20,6 +20,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -62,8 +64,16 @@ public class DigitalEnrouteSupplementCharts extends BaseService {
     	response=ProductSet.class)
 	@ApiResponses(value = {@ApiResponse(code = 404, message = DEPRECATED)})
     
-    public Response getDERSRelease (
+    public void getDERSRelease (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+    	respond(asyncResponse, () -> getDERSRelease(ed));
+    }
+
+    /**
+     * Build the response of the getDERSRelease request on the calling thread
+     * @return the response
+     */
+    public Response getDERSRelease (String ed) {
     	
     	logger.info("Received call to retrieve current DERS product release for edition.");
      	ProductSet ps = buildResponse(null);
@@ -83,8 +93,16 @@ public class DigitalEnrouteSupplementCharts extends BaseService {
     	response=ProductSet.class)
 	@ApiResponses(value = {@ApiResponse(code = 404, message = DEPRECATED)})
     
-    public Response getDERSEdition (
+    public void getDERSEdition (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+    	respond(asyncResponse, () -> getDERSEdition(ed));
+    }
+
+    /**
+     * Build the response of the getDERSEdition request on the calling thread
+     * @return the response
+     */
+    public Response getDERSEdition (String ed) {
     	
      	ProductSet ps = buildResponse(null);
     	return Response.status(ps.getStatus().getCode()).entity(ps).build();
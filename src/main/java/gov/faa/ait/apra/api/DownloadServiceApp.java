@@ -51,6 +51,10 @@ public class DownloadServiceApp extends Application {
 		Set<Class<?>> s = new HashSet <>();
 		s.add(gov.faa.ait.apra.api.CIFP.class);
 		s.add(gov.faa.ait.apra.api.ProductApiListener.class);
+		s.add(gov.faa.ait.apra.api.StaleDataFilter.class);
+		s.add(gov.faa.ait.apra.api.ConditionalRequestFilter.class);
+		s.add(gov.faa.ait.apra.api.ResponseCacheFilter.class);
+		s.add(gov.faa.ait.apra.api.GzipEncodingFilter.class);
 		s.add(io.swagger.jaxrs.listing.ApiListingResource.class);
 		s.add(io.swagger.jaxrs.listing.SwaggerSerializers.class);
 		
@@ -16,6 +16,8 @@ package gov.faa.ait.apra.api;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 import static gov.faa.ait.apra.bootstrap.ErrorCodes.ERROR_400;
@@ -27,6 +29,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -87,10 +91,18 @@ public class GulfOfMexicoEnrouteCharts extends BaseService {
      * @param geo the geographic name of the chart release either west or central
      * @return the XML or JSON representation of the chart download information
      */
-    public Response getGOMRelease (
+    public void getGOMRelease (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed,
 			@ApiParam (name="format", value="Format of the requested chart. TIFF is georeferenced and PDF is not georeferenced. If omitted, the default format of PDF is returned.", allowableValues="tiff, pdf", defaultValue="pdf", allowMultiple=false, required=false) @QueryParam("format") String fmt,
-    		@ApiParam(name="geoname", value="Requested Gulf of Mexico geographic area. If omitted, both west and central links are returned.", allowableValues="west, central", allowMultiple=false, required=false) @QueryParam("geoname") String geo) {	
+    		@ApiParam(name="geoname", value="Requested Gulf of Mexico geographic area. If omitted, both west and central links are returned.", allowableValues="west, central", allowMultiple=false, required=false) @QueryParam("geoname") String geo) {
+    	respond(asyncResponse, () -> getGOMRelease(ed, fmt, geo));
+    }
+
+    /**
+     * Build the response of the getGOMRelease request on the calling thread
+     * @return the response
+     */
+    public Response getGOMRelease (String ed, String fmt, String geo) {	
     	
     	ChartCycleElementsJson cycle;
     	
@@ -138,9 +150,17 @@ public class GulfOfMexicoEnrouteCharts extends BaseService {
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
 
-    public Response getGOMEdition (
+    public void getGOMEdition (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed,
     		@ApiParam(name="geoname", value="Requested Gulf of Mexico geographic area. If omitted, both west and central are returned.", allowableValues="west, central", allowMultiple=false, required=false) @QueryParam("geoname") String geo) {
+    	respond(asyncResponse, () -> getGOMEdition(ed, geo));
+    }
+
+    /**
+     * Build the response of the getGOMEdition request on the calling thread
+     * @return the response
+     */
+    public Response getGOMEdition (String ed, String geo) {
     	
     	ChartCycleElementsJson cycle;
     	setGeoname(geo != null ? geo : ALL);
@@ -181,12 +201,7 @@ public class GulfOfMexicoEnrouteCharts extends BaseService {
 			gomPathWest.append("/").append(dateFolder).append("/").append(getWestFileName());
     		
     		try {
-    			// Verify the web gulf URL first
     			westUrl = new URL (Config.getAeronavHost()+gomPathWest.toString());
-    			if (! verifyURL(westUrl)) {
-    				logger.warn(westUrl.toExternalForm()+" returned a non 200 response code when completing a HTTP HEAD check.");
-    				westUrl = null;
-    			}
     		}
     		catch (MalformedURLException exWest) {
     			logger.warn("Unable to build a valid URL for the Gulf of Mexico west chart.", exWest);
@@ -201,15 +216,29 @@ public class GulfOfMexicoEnrouteCharts extends BaseService {
          	
     		try {
     			centralUrl = new URL (Config.getAeronavHost()+gomPathCentral.toString());
-    			if (! verifyURL(centralUrl)) {
-    				logger.warn(centralUrl.toExternalForm()+" returned a non 200 response code when completing a HTTP HEAD check.");
-    				centralUrl = null;
-    			}
     		}
     		catch (MalformedURLException exCentral) {
     			logger.warn("Unable to build a valid URL for the Gulf of Mexico central chart.", exCentral);
     		}
     	}
+    	
+    	// Verify the west and central charts together
+    	List <URL> urls = new ArrayList <> ();
+    	if (westUrl != null) 
+    		urls.add(westUrl);
+    	if (centralUrl != null) 
+    		urls.add(centralUrl);
+    	verifyURLs(urls);
+    	
+    	if (westUrl != null && ! verifyURL(westUrl)) {
+    		logger.warn(westUrl.toExternalForm()+" returned a non 200 response code when completing a HTTP HEAD check.");
+    		westUrl = null;
+    	}
+    	
+    	if (centralUrl != null && ! verifyURL(centralUrl)) {
+    		logger.warn(centralUrl.toExternalForm()+" returned a non 200 response code when completing a HTTP HEAD check.");
+    		centralUrl = null;
+    	}
         
         if (westUrl == null && centralUrl == null) {
         	return getErrorResponse (404, ErrorCodes.ERROR_404);
@@ -295,10 +324,10 @@ public class GulfOfMexicoEnrouteCharts extends BaseService {
     	setEdition(ed != null ? ed : CURRENT);
     	
     	if ("current".equalsIgnoreCase(this.getEdition())) {   		
-    		cycle = new VFRChartCycleClient("IFR_PGOM").getCurrentCycle();
+    		cycle = new VFRChartCycleClient(VFRChartCycleClient.GULF_OF_MEXICO).getCurrentCycle();
     	}
     	else {
-    		cycle = new VFRChartCycleClient("IFR_PGOM").getNextCycle();
+    		cycle = new VFRChartCycleClient(VFRChartCycleClient.GULF_OF_MEXICO).getNextCycle();
     	}    	
     	
     	return cycle;
@@ -0,0 +1,145 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import gov.faa.ait.apra.bootstrap.Config;
+
+/**
+ * Compresses responses with gzip when the client accepts it. A response that already carries a content
+ * encoding, such as a compressed body served from the response cache, is sent as it is. The response
+ * cache copies the body before it is compressed, and keeps its own compressed copy so that compression
+ * is paid once per cached response rather than on every request.
+ *
+ * @author FAA
+ *
+ */
+@Priority(Priorities.ENTITY_CODER)
+public class GzipEncodingFilter implements ContainerResponseFilter, WriterInterceptor {
+	static final String GZIP = "gzip";
+	private static final String GZIP_PROPERTY = "gov.faa.ait.apra.response.gzip";
+
+	@Override
+	public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+		if (! response.hasEntity() || ! Config.getResponseGzipFlag()) {
+			return;
+		}
+
+		MultivaluedMap <String, Object> headers = response.getHeaders();
+		addVary(headers, HttpHeaders.ACCEPT_ENCODING);
+
+		if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || ! acceptsGzip(request)) {
+			return;
+		}
+
+		headers.putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+		headers.remove(HttpHeaders.CONTENT_LENGTH);
+		request.setProperty(GZIP_PROPERTY, Boolean.TRUE);
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+		if (! Boolean.TRUE.equals(context.getProperty(GZIP_PROPERTY))) {
+			context.proceed();
+			return;
+		}
+
+		GZIPOutputStream gzip = new GZIPOutputStream(context.getOutputStream());
+		context.setOutputStream(gzip);
+		context.proceed();
+		gzip.finish();
+	}
+
+	/**
+	 * Determine whether a request accepts a gzip encoded response. An encoding given a quality of zero is
+	 * not accepted.
+	 * @param request the request
+	 * @return true if the Accept-Encoding header allows gzip
+	 */
+	static boolean acceptsGzip (ContainerRequestContext request) {
+		String accept = request.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+
+		if (accept == null || ! Config.getResponseGzipFlag()) {
+			return false;
+		}
+
+		boolean any = false;
+
+		// An explicit gzip entry takes precedence over the wildcard
+		for (String token : accept.split(",")) {
+			String [] parts = token.split(";");
+			String coding = parts[0].trim();
+			boolean accepted = parts.length < 2 || ! isZeroQuality(parts[1]);
+
+			if (GZIP.equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding)) {
+				return accepted;
+			}
+
+			if ("*".equals(coding)) {
+				any = accepted;
+			}
+		}
+
+		return any;
+	}
+
+	/**
+	 * Add a request header name to the Vary header of a response without removing the names already present
+	 * @param headers the response headers
+	 * @param name the request header the response varies by
+	 */
+	static void addVary (MultivaluedMap <String, Object> headers, String name) {
+		List <Object> vary = headers.get(HttpHeaders.VARY);
+
+		if (vary != null) {
+			for (Object value : vary) {
+				for (String present : String.valueOf(value).split(",")) {
+					if (name.equalsIgnoreCase(present.trim())) {
+						return;
+					}
+				}
+			}
+		}
+
+		headers.add(HttpHeaders.VARY, name);
+	}
+
+	private static boolean isZeroQuality (String parameter) {
+		String [] pair = parameter.split("=");
+
+		if (pair.length != 2 || ! "q".equalsIgnoreCase(pair[0].trim())) {
+			return false;
+		}
+
+		try {
+			return Double.parseDouble(pair[1].trim()) == 0;
+		}
+		catch (NumberFormatException nfe) {
+			return false;
+		}
+	}
+}
@@ -42,6 +42,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -112,12 +114,20 @@ public class HelicopterCharts extends AbstractTableDataService {
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-	public Response getHelicopterRelease(
+	public void getHelicopterRelease(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name = "edition", value = "Requested product edition. If omitted, the default current edition is returned.", allowableValues = "current, next", defaultValue = "current", allowMultiple = false, required = false) @QueryParam("edition") String ed,
     		@ApiParam (name="format", value="Format of the requested chart. TIFF is georeferenced and PDF is not georeferenced. If omitted, the default format of PDF is returned.", allowableValues="tiff, pdf", defaultValue="pdf", allowMultiple=false, required=false) @QueryParam("format") String fmt, 
 			@ApiParam(name = "geoname", value = "Geoname which is a city for which the chart is requested. If omitted, charts for all cities are returned.", 
 			allowableValues="Baltimore Washington Heli, Boston Heli, Chicago Heli, Dallas Ft. Worth Heli, Detroit Heli, Houston Heli, Los Angeles Heli, New York Heli, U.S Gulf Coast",
 			allowMultiple = false, required = false) @QueryParam("geoname") String cityRegion) {
+		respond(asyncResponse, () -> getHelicopterRelease(ed, fmt, cityRegion));
+	}
+
+	/**
+	 * Build the response of the getHelicopterRelease request on the calling thread
+	 * @return the response
+	 */
+	public Response getHelicopterRelease(String ed, String fmt, String cityRegion) {
 
 		logger.info("Received call to retrieve current VFR Helicopter Route Chart product release for edition '"
 				+ ed + " City '" + cityRegion + "'.");
@@ -149,11 +159,19 @@ public class HelicopterCharts extends AbstractTableDataService {
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-	public Response getHelicopterEdition(
+	public void getHelicopterEdition(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name = "edition", value = "Requested product edition. If omitted, the default current edition is returned.", allowableValues = "current, next", defaultValue = "current", allowMultiple = false, required = false) @QueryParam("edition") String ed,
 			@ApiParam(name = "geoname", value = "Geoname which is a city for which the chart is requested. If omitted, charts for all cities are returned.", 
 			allowableValues="Baltimore Washington Heli, Boston Heli, Chicago Heli, Dallas Ft. Worth Heli, Detroit Heli, Houston Heli, Los Angeles Heli, New York Heli, U.S Gulf Coast",
 			allowMultiple = false, required = false) @QueryParam("geoname") String cityRegion) {
+		respond(asyncResponse, () -> getHelicopterEdition(ed, cityRegion));
+	}
+
+	/**
+	 * Build the response of the getHelicopterEdition request on the calling thread
+	 * @return the response
+	 */
+	public Response getHelicopterEdition(String ed, String cityRegion) {
 
 		logger.info("Received call to retrieve current VVFR Helicopter Route Chart product edition for edition '"
 				+ ed + "'.");
@@ -183,9 +201,17 @@ public class HelicopterCharts extends AbstractTableDataService {
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-	public Response getGulfCoastRelease(
+	public void getGulfCoastRelease(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name = "edition", value = "Requested product edition. If omitted, the default current edition is returned.", allowableValues = "current, next", defaultValue = "current", allowMultiple = false, required = false) @QueryParam("edition") String ed,
-    		@ApiParam (name="format", value="Format of the requested chart. TIFF is georeferenced and PDF is not georeferenced. If omitted, the default format of PDF is returned.", allowableValues="tiff, pdf", defaultValue="pdf", allowMultiple=false, required=false) @QueryParam("format") String fmt) { 
+    		@ApiParam (name="format", value="Format of the requested chart. TIFF is georeferenced and PDF is not georeferenced. If omitted, the default format of PDF is returned.", allowableValues="tiff, pdf", defaultValue="pdf", allowMultiple=false, required=false) @QueryParam("format") String fmt) {
+		respond(asyncResponse, () -> getGulfCoastRelease(ed, fmt));
+	}
+
+	/**
+	 * Build the response of the getGulfCoastRelease request on the calling thread
+	 * @return the response
+	 */
+	public Response getGulfCoastRelease(String ed, String fmt) { 
 
 		logger.info("Received call to retrieve current VFR GulfCoast Route Chart product release for edition '"
 				+ ed + "'.");
@@ -213,8 +239,16 @@ public class HelicopterCharts extends AbstractTableDataService {
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-	public Response getGulfCoastEdition(
+	public void getGulfCoastEdition(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name = "edition", value = "Requested product edition. If omitted, the default current edition is returned.", allowableValues = "current, next", defaultValue = "current", allowMultiple = false, required = false) @QueryParam("edition") String ed) {
+		respond(asyncResponse, () -> getGulfCoastEdition(ed));
+	}
+
+	/**
+	 * Build the response of the getGulfCoastEdition request on the calling thread
+	 * @return the response
+	 */
+	public Response getGulfCoastEdition(String ed) {
 
 		logger.info("Received call to retrieve current VVFR GulfCoast Route Chart product edition for edition '"
 				+ ed + "'.");
@@ -235,6 +269,20 @@ public class HelicopterCharts extends AbstractTableDataService {
 		gov.faa.ait.apra.jaxb.ObjectFactory of = new gov.faa.ait.apra.jaxb.ObjectFactory();
 		Product prod = of.createProductSetEditionProduct();
 		prod.setProductName(ProductCodeList.VFR_HELICOPTER);
+		String productUrl = getProductURL(element);
+
+		try {
+			if (this.verifyURL(new URL(productUrl))) {
+				prod.setUrl(productUrl);
+			}
+		} catch (MalformedURLException emalformed) {
+			logger.warn("The download URL is not valid", emalformed);
+		}
+		return prod;
+	}
+
+	@Override
+	protected String getProductURL(ChartCycleElementsJson element) {
 		StringBuilder productUrl = new StringBuilder();
 		productUrl.append(Config.getAeronavHost());
 		
@@ -254,15 +302,7 @@ public class HelicopterCharts extends AbstractTableDataService {
 			productUrl.append(Config.getHelicopterPDFPath()).append("/").append(cityFileName).append("_");			
 			productUrl.append(element.getChart_cycle_number()).append("_P").append(".pdf");
 		}
-
-		try {
-			if (this.verifyURL(new URL(productUrl.toString()))) {
-				prod.setUrl(productUrl.toString());
-			}
-		} catch (MalformedURLException emalformed) {
-			logger.warn("The download URL is not valid", emalformed);
-		}
-		return prod;
+		return productUrl.toString();
 	}
 
 	@Override
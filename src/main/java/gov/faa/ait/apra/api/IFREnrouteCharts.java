@@ -40,11 +40,16 @@ import static gov.faa.ait.apra.bootstrap.ErrorCodes.RESPONSE_200;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -121,12 +126,20 @@ public class IFREnrouteCharts extends BaseService {
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-	public Response getIFREnrouteRelease(
+	public void getIFREnrouteRelease(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name = "edition", value = "Requested product edition. If omitted, the default current edition is returned.", allowableValues = "current, next", defaultValue = "current", allowMultiple = false, required = false) @QueryParam("edition") String ed,
 			@ApiParam(name = "format", value = "Format of the requested chart. TIFF is georeferenced and PDF is not georeferenced"
 					+ "If omitted, the default format of PDF is returned.", allowableValues = "tiff, pdf", defaultValue = "pdf", allowMultiple = false, required = false) @QueryParam("format") String fmt,
 			@ApiParam(name = "geoname", value = "Geographic region for requested chart", allowableValues="US, Alaska, Pacific, Caribbean", required = true) @QueryParam("geoname") String geo,
 			@ApiParam(name = "seriesType", value = "The series type", allowableValues="low, high, area", required = true) @QueryParam("seriesType") String seriesType) {
+		respond(asyncResponse, () -> getIFREnrouteRelease(ed, fmt, geo, seriesType));
+	}
+
+	/**
+	 * Build the response of the getIFREnrouteRelease request on the calling thread
+	 * @return the response
+	 */
+	public Response getIFREnrouteRelease(String ed, String fmt, String geo, String seriesType) {
 
 		logger.info("Received call to retrieve current IFR Enroute Charts product release for '"
 				+ ed + "', '" + fmt + "', '" + geo + "', '" + seriesType + "'");
@@ -162,9 +175,17 @@ public class IFREnrouteCharts extends BaseService {
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-	public Response getIFREnrouteEdition(
+	public void getIFREnrouteEdition(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name = "edition", value = "Requested product edition", allowableValues = "current, next", defaultValue = "current", 
 				allowMultiple = false, required = false) @QueryParam("edition") String ed) {
+		respond(asyncResponse, () -> getIFREnrouteEdition(ed));
+	}
+
+	/**
+	 * Build the response of the getIFREnrouteEdition request on the calling thread
+	 * @return the response
+	 */
+	public Response getIFREnrouteEdition(String ed) {
 
 		logger.info("Received call to retrieve current IFR Enroute Charts edition release for '"
 				+ ed);
@@ -203,9 +224,19 @@ public class IFREnrouteCharts extends BaseService {
 		
 		int step = PDF.equalsIgnoreCase(this.getFormat()) ? 2 : 1;
 		boolean anyUrlSet = false;
+		
+		// Check every chart in the set at once rather than one after another
+		List <URL> urls = new ArrayList <> ();
+		for (int i = 1; i <= setCount; i += step) {
+			try {
+				urls.add(getDownloadURL(cycle, i));
+			} catch (MalformedURLException emalformed) {
+				logger.debug("getRelease", emalformed);
+			}
+		}
+		Map <String, Boolean> checked = verifyURLs(urls);
+		
 		for(int i=1; i<=setCount; i+=step) {
-			ProductPath vfrPath = new ProductPath();
-			vfrPath.addPathElement(new PathElement(Config.getEnrouteFolder()));
 			ProductSet.Edition ed = of.createProductSetEdition();
 
 			Edition.Product product = new Edition.Product();
@@ -218,19 +249,8 @@ public class IFREnrouteCharts extends BaseService {
 			ed.setGeoname(this.getGeoname());
 			ed.setFormat(gov.faa.ait.apra.jaxb.FormatCodeList.valueOf(this.getFormat()));
 			try {
-				SimpleDateFormat sdfUSDash = new SimpleDateFormat(MM_DD_YYYY2);
-				PathElement peDir = new PathElement(sdfUSDash.format(cycle
-						.getChart_effective_date()));
-				vfrPath.addPathElement(peDir);
-				
-				String fileName = this.buildFileName(this.getGeoname(), this.getFormat(), this.seriesType, i);
-				PathElement pe = new PathElement(fileName);
-				pe.setFile();
-				vfrPath.addPathElement(pe);
-	
-				downloadURL = new URL(Config.getAeronavHost()
-						+ vfrPath.getPathAsString());
-				if (!verifyURL(downloadURL)) {
+				downloadURL = getDownloadURL(cycle, i);
+				if (!checked.getOrDefault(downloadURL.toExternalForm(), Boolean.FALSE)) {
 					logger.warn(downloadURL.toExternalForm()
 							+ " returned a non 200 response code when completing a HTTP HEAD check.");
 					downloadURL = null;
@@ -254,6 +274,24 @@ public class IFREnrouteCharts extends BaseService {
 		return response;
 
 	}
+	private URL getDownloadURL(ChartCycleElementsJson cycle, int i) throws MalformedURLException {
+		ProductPath vfrPath = new ProductPath();
+		vfrPath.addPathElement(new PathElement(Config.getEnrouteFolder()));
+		
+		SimpleDateFormat sdfUSDash = new SimpleDateFormat(MM_DD_YYYY2);
+		PathElement peDir = new PathElement(sdfUSDash.format(cycle
+				.getChart_effective_date()));
+		vfrPath.addPathElement(peDir);
+		
+		String fileName = this.buildFileName(this.getGeoname(), this.getFormat(), this.seriesType, i);
+		PathElement pe = new PathElement(fileName);
+		pe.setFile();
+		vfrPath.addPathElement(pe);
+
+		return new URL(Config.getAeronavHost()
+				+ vfrPath.getPathAsString());
+	}
+	
 	/**
 	 * builds filename (not directory)
 	 * @param area
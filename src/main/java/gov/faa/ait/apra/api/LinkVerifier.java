@@ -0,0 +1,366 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.api;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.util.CircuitBreaker;
+import gov.faa.ait.apra.util.ExecutionMode;
+import gov.faa.ait.apra.util.LinkCheckClient;
+import gov.faa.ait.apra.util.URLHealthRegistry;
+import io.swagger.annotations.ApiParam;
+
+/**
+ * Verifies every product link APRA can return for the current and next editions in the background, so
+ * that requests answer from the URL health registry instead of making HEAD requests. A run starts when
+ * a new cycle snapshot is published and is repeated at the configured interval so the results do not
+ * expire. The links are found by calling the chart method of each service with every documented value
+ * of its query parameters while the service collects its URL checks instead of making them. The links
+ * are then checked in parallel at no more than the configured rate.
+ *
+ * @author FAA
+ *
+ */
+public final class LinkVerifier {
+	private static final Logger logger = LoggerFactory.getLogger(LinkVerifier.class);
+	private static final List <Class <? extends BaseService>> services = Arrays.asList(
+			CIFP.class, DailyDigitalObstacleFile.class, DigitalEnrouteCharts.class, GulfOfMexicoEnrouteCharts.class,
+			HelicopterCharts.class, IFREnrouteCharts.class, NASRSubscription.class, OceanicRouteCharts.class,
+			SectionalCharts.class, SupplementCharts.class, TerminalAreaCharts.class, TerminalProcedureCharts.class,
+			UsIfrVfrPlanning.class, VFRCharts.class, WallPlanningCharts.class);
+	private static final List <String> editions = Collections.unmodifiableList(Arrays.asList(BaseService.CURRENT, BaseService.NEXT));
+	private static ScheduledExecutorService scheduler;
+	private static volatile String state = "Not started";
+	private static volatile long verifiedVersion = -1;
+	private static volatile long started;
+	private static volatile long finished;
+	private static volatile int checked;
+	private static volatile List <String> missing = Collections.emptyList();
+	private static long nextSlot;
+
+	private LinkVerifier () { }
+
+	/**
+	 * Start watching for new cycle snapshots. Does nothing if the verifier is disabled in the configuration
+	 * or has already been started.
+	 */
+	public static synchronized void start () {
+		if (! Config.getLinkVerifierFlag()) {
+			logger.info("Background link verification is disabled.");
+			state = "Disabled";
+			return;
+		}
+
+		if (scheduler != null) {
+			return;
+		}
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "apra-link-verifier");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(LinkVerifier::poll, 0, 1, TimeUnit.MINUTES);
+		state = "Waiting";
+		logger.info("Background link verification started.");
+	}
+
+	/**
+	 * Stop the verifier. A run in progress is interrupted.
+	 */
+	public static synchronized void stop () {
+		if (scheduler == null) {
+			return;
+		}
+
+		scheduler.shutdownNow();
+		scheduler = null;
+		state = "Stopped";
+		logger.info("Background link verification stopped.");
+	}
+
+	/**
+	 * Get a report of the last verification run
+	 * @return the state of the verifier followed by each link found to be missing
+	 */
+	public static String getStatus () {
+		StringBuilder status = new StringBuilder(state);
+		List <String> urls = missing;
+
+		if (finished > 0) {
+			status.append(". Cycle version ").append(verifiedVersion).append(" verified ").append(new Date(finished))
+				.append(" in ").append((finished - started) / 1000).append(" s: ").append(checked).append(" links checked, ")
+				.append(urls.size()).append(" missing.");
+		}
+
+		for (String url : urls) {
+			status.append("\n").append(url);
+		}
+
+		return status.toString();
+	}
+
+	private static void poll () {
+		long version = CycleCache.getVersion();
+		boolean due = System.currentTimeMillis() - finished >= TimeUnit.MINUTES.toMillis(Config.getLinkVerifierInterval());
+
+		if (version == verifiedVersion && ! due) {
+			return;
+		}
+
+		try {
+			run(version);
+		}
+		catch (Exception ex) {
+			logger.warn("Background link verification failed. The previous results remain in use until they expire.", ex);
+			state = "Failed";
+		}
+	}
+
+	private static void run (long version) {
+		long now = System.currentTimeMillis();
+		state = "Collecting links for cycle version "+version;
+		Map <String, URL> urls = new LinkedHashMap <> ();
+
+		for (Class <? extends BaseService> service : services) {
+			collect(service, urls);
+		}
+
+		if (CycleCache.getVersion() != version) {
+			logger.info("The chart cycles changed while the links were collected. The links are collected again.");
+			return;
+		}
+
+		state = "Verifying "+urls.size()+" links for cycle version "+version;
+		logger.info(state);
+		List <String> notFound = verify(urls);
+
+		if (notFound == null) {
+			return;
+		}
+
+		started = now;
+		checked = urls.size();
+		missing = Collections.unmodifiableList(notFound);
+		finished = System.currentTimeMillis();
+		verifiedVersion = version;
+		state = "Complete";
+		logger.info("Verified "+checked+" links in "+(finished - now)+" ms. "+notFound.size()+" links were not found.");
+	}
+
+	/*
+	 * Call each chart method of a service with every combination of its parameter values and keep the URLs it checks
+	 */
+	private static void collect (Class <? extends BaseService> type, Map <String, URL> urls) {
+		for (Method method : type.getMethods()) {
+			Path path = method.getAnnotation(Path.class);
+
+			if (! method.isAnnotationPresent(GET.class) || path == null || ! path.value().endsWith("chart")) {
+				continue;
+			}
+
+			for (Object [] args : getArguments(type, method)) {
+				try {
+					BaseService service = type.newInstance();
+					service.collectURLs(() -> invoke(method, service, args))
+						.forEach(url -> urls.putIfAbsent(url.toExternalForm(), url));
+				}
+				catch (InstantiationException | IllegalAccessException | RuntimeException ex) {
+					logger.warn("Unable to collect the links of "+type.getSimpleName()+"."+method.getName()+" for "+Arrays.toString(args), ex);
+				}
+			}
+		}
+	}
+
+	private static void invoke (Method method, BaseService service, Object [] args) {
+		try {
+			method.invoke(service, args);
+		}
+		catch (IllegalAccessException | InvocationTargetException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/*
+	 * Build every combination of the query parameter values. An edition is current or next, and a parameter
+	 * without documented values is left to its default.
+	 */
+	private static List <Object []> getArguments (Class <? extends BaseService> type, Method method) {
+		List <Object []> combinations = new ArrayList <> ();
+		combinations.add(new Object [method.getParameterCount()]);
+		BaseService prototype;
+
+		try {
+			prototype = type.newInstance();
+		}
+		catch (InstantiationException | IllegalAccessException ex) {
+			logger.warn("Unable to create "+type.getSimpleName(), ex);
+			return Collections.emptyList();
+		}
+
+		Annotation [][] annotations = method.getParameterAnnotations();
+		for (int i = 0; i < annotations.length; i++) {
+			List <String> values = getValues(prototype, annotations[i]);
+			List <Object []> expanded = new ArrayList <> ();
+
+			for (Object [] combination : combinations) {
+				for (String value : values) {
+					Object [] args = combination.clone();
+					args[i] = value;
+					expanded.add(args);
+				}
+			}
+
+			combinations = expanded;
+		}
+
+		return combinations;
+	}
+
+	private static List <String> getValues (BaseService prototype, Annotation [] annotations) {
+		String name = null;
+		String allowable = null;
+
+		for (Annotation annotation : annotations) {
+			if (annotation instanceof QueryParam) {
+				name = ((QueryParam) annotation).value();
+			}
+			else if (annotation instanceof ApiParam) {
+				allowable = ((ApiParam) annotation).allowableValues();
+			}
+		}
+
+		List <String> values = name == null ? null : prototype.getLinkParameterValues(name);
+
+		if (values != null) {
+			return values;
+		}
+
+		if ("edition".equals(name)) {
+			return editions;
+		}
+
+		if (name == null || allowable == null || allowable.trim().isEmpty()) {
+			return Collections.singletonList(null);
+		}
+
+		values = new ArrayList <> ();
+		for (String value : allowable.split(",")) {
+			values.add(value.trim());
+		}
+
+		return values;
+	}
+
+	/*
+	 * Check every link on the verifier threads and record the results. Returns the links that were not found,
+	 * or null if the run was interrupted.
+	 */
+	private static List <String> verify (Map <String, URL> urls) {
+		ExecutorService pool = ExecutionMode.getConfigured().newExecutor("apra-link-check-", Config.getLinkVerifierThreads());
+		List <Callable <Boolean>> checks = new ArrayList <> ();
+		List <String> notFound = new ArrayList <> ();
+		// A result is kept until the next run has replaced it, even if that run is late, rather than for the request TTLs
+		int ttl = 2 * Config.getLinkVerifierInterval();
+
+		for (URL url : urls.values()) {
+			checks.add(() -> {
+				// While the file server is failing the remaining checks end at once and the run is retried later
+				if (LinkCheckClient.getInstance().getBreaker().getState() == CircuitBreaker.State.OPEN) {
+					throw new CircuitBreaker.OpenException("aeronav HEAD check");
+				}
+
+				acquire();
+				boolean ok = BaseService.headURL(url);
+				URLHealthRegistry.getInstance().record(url.toExternalForm(), ok, ttl);
+				return ok;
+			});
+		}
+
+		try {
+			List <Future <Boolean>> results = pool.invokeAll(checks);
+			List <String> keys = new ArrayList <> (urls.keySet());
+
+			for (int i = 0; i < keys.size(); i++) {
+				if (! results.get(i).get()) {
+					notFound.add(keys.get(i));
+				}
+			}
+
+			return notFound;
+		}
+		catch (InterruptedException eint) {
+			logger.info("Background link verification was interrupted.");
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		catch (ExecutionException eexec) {
+			if (eexec.getCause() instanceof CircuitBreaker.OpenException) {
+				state = "Waiting for the aeronav HEAD check circuit breaker to close";
+				logger.info("Background link verification stopped because the HEAD check circuit breaker is open. It is retried later.");
+			}
+			else {
+				logger.warn("Background link verification failed.", eexec);
+			}
+			return null;
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/*
+	 * Wait for the next slot so that the checks do not exceed the configured number per second
+	 */
+	private static void acquire () throws InterruptedException {
+		long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, Config.getLinkVerifierRate());
+		long wait;
+
+		synchronized (LinkVerifier.class) {
+			long now = System.nanoTime();
+			nextSlot = Math.max(nextSlot, now) + interval;
+			wait = nextSlot - interval - now;
+		}
+
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+}
@@ -26,6 +26,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -80,9 +82,17 @@ public class NASRSubscription extends BaseService {
      * @param geo the geographic name of the chart that is requested
      * @return The Oceanic Chart release in a serialized JSON or XML format
      */
-	public Response getNASRSubscription (
+	public void getNASRSubscription (@Suspended AsyncResponse asyncResponse,
     	@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false)
     	@QueryParam("edition") String ed) {
+		respond(asyncResponse, () -> getNASRSubscription(ed));
+	}
+
+	/**
+	 * Build the response of the getNASRSubscription request on the calling thread
+	 * @return the response
+	 */
+	public Response getNASRSubscription (String ed) {
 	    logger.info("Received call to retrieve current NFDC NASR subscription release for "+ed);
 	    
     	setEdition(ed != null ? ed : CURRENT);
@@ -115,9 +125,17 @@ public class NASRSubscription extends BaseService {
      * @param ed the edition of the release that is requested
      * @return The NASR subscription edition information in a serialized JSON or XML format
      */
-	public Response getNASREdition (
+	public void getNASREdition (@Suspended AsyncResponse asyncResponse,
     	@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false)
     	@QueryParam("edition") String ed) {
+		respond(asyncResponse, () -> getNASREdition(ed));
+	}
+
+	/**
+	 * Build the response of the getNASREdition request on the calling thread
+	 * @return the response
+	 */
+	public Response getNASREdition (String ed) {
 	    logger.info("Received call to retrieve current NASR subscription Chart release for "+ed);
 	    
     	setEdition(ed != null ? ed : CURRENT);
@@ -168,7 +186,13 @@ public class NASRSubscription extends BaseService {
     		if (Config.getNASRCheckFlag())
     			verifyURL(url);
     		
-        	product.setUrl(path.toString());
+    		if (verifyKnownURL(url)) {
+    			product.setUrl(path.toString());
+    		}
+    		else {
+    			logger.warn("The link verifier found no NASR subscription file at "+path.toString());
+    			product.setUrl("");
+    		}
 
         }
     	catch (Exception exurl) {
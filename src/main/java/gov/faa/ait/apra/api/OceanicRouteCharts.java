@@ -26,6 +26,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -80,10 +82,18 @@ public class OceanicRouteCharts extends BaseService {
      * @param geo the geographic name of the chart that is requested
      * @return The Oceanic Chart release in a serialized JSON or XML format
      */
-	public Response getOceanicRouteChart (
+	public void getOceanicRouteChart (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed, 
     		@ApiParam (name="format", value="Format of the requested chart. TIFF is georeferenced and PDF is not georeferenced. If omitted, the default format of PDF is returned.", allowableValues="tiff, pdf", defaultValue="pdf", allowMultiple=false, required=false) @QueryParam("format") String fmt, 
     		@ApiParam (name="geoname", value="A geographic area for which the chart is requested", allowableValues="NARC, PORC, WATRS", defaultValue="PORC", required=true) @QueryParam ("geoname") String geo) {
+		respond(asyncResponse, () -> getOceanicRouteChart(ed, fmt, geo));
+	}
+
+	/**
+	 * Build the response of the getOceanicRouteChart request on the calling thread
+	 * @return the response
+	 */
+	public Response getOceanicRouteChart (String ed, String fmt, String geo) {
 
 	    	logger.info("Received call to retrieve current Oceanic Route Chart release for '"+ed+"', '"+fmt+"', '"+geo+"'");
 			
@@ -131,8 +141,16 @@ public class OceanicRouteCharts extends BaseService {
      * @param ed the edition of the release that is requested
      * @return The Oceanic Chart edition in a serialized JSON or XML format
      */
-	public Response getOceanicRouteEdition (
+	public void getOceanicRouteEdition (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition information is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+		respond(asyncResponse, () -> getOceanicRouteEdition(ed));
+	}
+
+	/**
+	 * Build the response of the getOceanicRouteEdition request on the calling thread
+	 * @return the response
+	 */
+	public Response getOceanicRouteEdition (String ed) {
 
     	setEdition(ed != null ? ed : CURRENT);    	
     	setGeoname("ALL");
@@ -21,6 +21,13 @@ import org.apache.logging.log4j.ThreadContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import gov.faa.ait.apra.bootstrap.CacheRefreshScheduler;
+import gov.faa.ait.apra.bootstrap.CacheSnapshotStore;
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.util.DenodoGateway;
+import gov.faa.ait.apra.util.LinkCheckClient;
+import gov.faa.ait.apra.util.Revalidator;
+
 /**
  * A product api listener class for all JAX-RS events
  * @author FAA
@@ -32,9 +39,27 @@ public class ProductApiListener implements ApplicationEventListener {
 	@Override
 	public void onEvent (ApplicationEvent appEvent) {
 		switch (appEvent.getType()) {
+			case INITIALIZATION_START:
+				// Serve the caches saved by the previous run until they are refreshed
+				CacheSnapshotStore.restore();
+				break;
 			case INITIALIZATION_FINISHED:
+				CacheRefreshScheduler.start();
+				LinkVerifier.start();
 				logger.info("FAA aeronautical product release API (APRA) started. Ready to service requests.");
 				break;
+			case DESTROY_FINISHED:
+				CacheRefreshScheduler.stop();
+				LinkVerifier.stop();
+				CacheSnapshotStore.save();
+				// Release the pooled denodo connections so they do not outlive the application
+				DenodoGateway.shutdown();
+				LinkCheckClient.shutdown();
+				Revalidator.shutdown();
+				CycleCache.shutdown();
+				BaseService.shutdown();
+				logger.info("FAA aeronautical product release API (APRA) stopped.");
+				break;
 			default:
 				break;
 		}
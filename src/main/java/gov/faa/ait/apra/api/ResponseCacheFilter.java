@@ -0,0 +1,230 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.util.ResponseCache;
+import gov.faa.ait.apra.util.StaleData;
+
+/**
+ * Answers repeated GET requests from the response cache. On a miss the request goes on to the resource
+ * and a successful response is copied into the cache as it is written, so the client still receives the
+ * response as it is produced. The body is copied before it is compressed and a cache hit is answered
+ * with the plain or the stored gzip body according to the Accept-Encoding header. Management and 
+ * swagger requests are never cached, nor are responses built from stale data or with a failed URL check,
+ * which would otherwise outlive the short time a missing file is remembered for.
+ *
+ * @author FAA
+ *
+ */
+public class ResponseCacheFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+	private static final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+	private static final String KEY_PROPERTY = "gov.faa.ait.apra.response.cache.key";
+	private static final String VERSION_PROPERTY = "gov.faa.ait.apra.response.cache.version";
+	private static final String ENTRY_PROPERTY = "gov.faa.ait.apra.response.cache.entry";
+	private static final String HEADER_PREFIX = "X-APRA-";
+	
+	@Context
+	private ResourceInfo resourceInfo;
+
+	@Override
+	public void filter(ContainerRequestContext request) {
+		if (! Config.getResponseCacheFlag() || ! HttpMethod.GET.equals(request.getMethod())) {
+			return;
+		}
+
+		String path = request.getUriInfo().getPath();
+		if (path.startsWith("management") || path.startsWith("swagger")) {
+			return;
+		}
+
+		long version = CycleCache.getDataVersion();
+		String key = getKey(request, resourceInfo);
+		ResponseCache.Entry entry = ResponseCache.getInstance().get(key, version);
+
+		if (entry != null) {
+			Response.ResponseBuilder response;
+			
+			if (GzipEncodingFilter.acceptsGzip(request)) {
+				response = Response.ok(entry.getGzipBody(), entry.getMediaType()).header(HttpHeaders.CONTENT_ENCODING, GzipEncodingFilter.GZIP);
+			}
+			else {
+				response = Response.ok(entry.getBody(), entry.getMediaType());
+			}
+			
+			entry.getHeaders().forEach(response::header);
+			request.abortWith(response.build());
+			return;
+		}
+
+		request.setProperty(KEY_PROPERTY, key);
+		request.setProperty(VERSION_PROPERTY, version);
+	}
+
+	@Override
+	public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+		Object key = request.getProperty(KEY_PROPERTY);
+
+		if (key == null || response.getStatus() != 200 || ! response.hasEntity() || response.getMediaType() == null) {
+			return;
+		}
+
+		// A response built from stale data is not kept, so the next request is answered from the revalidated data
+		if (StaleData.getAge() >= 0 || response.getHeaders().containsKey(StaleDataFilter.STALE_AGE_HEADER)) {
+			return;
+		}
+		
+		// Neither is a response whose URLs were left out by a failed check, so the URLs are checked again soon
+		if (response.getHeaders().containsKey(BaseService.URL_CHECK_HEADER)) {
+			return;
+		}
+
+		// Only the APRA headers, such as the next page cursor, are replayed with a cached response
+		Map <String, String> headers = new HashMap <> ();
+		for (Map.Entry <String, List <String>> header : response.getStringHeaders().entrySet()) {
+			if (header.getKey().regionMatches(true, 0, HEADER_PREFIX, 0, HEADER_PREFIX.length()) && ! header.getValue().isEmpty()) {
+				headers.put(header.getKey(), header.getValue().get(0));
+			}
+		}
+
+		request.setProperty(ENTRY_PROPERTY, new CapturedResponse(response.getMediaType().toString(), headers));
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+		Object captured = context.getProperty(ENTRY_PROPERTY);
+
+		if (! (captured instanceof CapturedResponse)) {
+			context.proceed();
+			return;
+		}
+
+		CapturedResponse response = (CapturedResponse) captured;
+		CopyingOutputStream copy = new CopyingOutputStream(context.getOutputStream(), ResponseCache.getMaxEntrySize());
+		context.setOutputStream(copy);
+
+		// A response that fails while it is written is not cached
+		context.proceed();
+
+		if (copy.isOverflow()) {
+			logger.debug("The response for "+context.getProperty(KEY_PROPERTY)+" is too large to cache.");
+			return;
+		}
+
+		String key = (String) context.getProperty(KEY_PROPERTY);
+		long version = (Long) context.getProperty(VERSION_PROPERTY);
+		ResponseCache.getInstance().put(key, version, new ResponseCache.Entry(copy.toByteArray(), response.mediaType, response.headers));
+	}
+
+	/**
+	 * Get the key a response is cached under
+	 * @param request the request
+	 * @param resourceInfo the matched resource
+	 * @return the key of the request in the response cache
+	 */
+	static String getKey (ContainerRequestContext request, ResourceInfo resourceInfo) {
+		String key = ResponseCache.getKey(request.getUriInfo().getPath(), request.getUriInfo().getQueryParameters(), 
+				request.getHeaderString(HttpHeaders.ACCEPT));
+		
+		// A daily edition is only held for the day it was built
+		if (ConditionalRequestFilter.isDaily(resourceInfo)) {
+			key = key + "|" + LocalDate.now();
+		}
+		
+		return key;
+	}
+
+	private static final class CapturedResponse {
+		private final String mediaType;
+		private final Map <String, String> headers;
+
+		private CapturedResponse (String mediaType, Map <String, String> headers) {
+			this.mediaType = mediaType;
+			this.headers = headers;
+		}
+	}
+
+	/**
+	 * Writes through to the response while keeping a copy of the bytes written. The copy is dropped once 
+	 * it passes the limit.
+	 */
+	private static final class CopyingOutputStream extends FilterOutputStream {
+		private final long limit;
+		private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+		private CopyingOutputStream (OutputStream out, long limit) {
+			super(out);
+			this.limit = limit;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			
+			if (reserve(1)) {
+				copy.write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			
+			if (reserve(len)) {
+				copy.write(b, off, len);
+			}
+		}
+		
+		private boolean reserve (int len) {
+			if (copy != null && copy.size() + (long) len > limit) {
+				copy = null;
+			}
+			
+			return copy != null;
+		}
+		
+		private boolean isOverflow () {
+			return copy == null;
+		}
+
+		private byte [] toByteArray () {
+			return copy.toByteArray();
+		}
+	}
+}
@@ -26,6 +26,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -97,7 +99,7 @@ public class SectionalCharts extends AbstractTableDataService {
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-	public Response getSectionalChart(@ApiParam (name="geoname", value="Geoname which is a city for which the chart is requested. Valid cities can be found on the FAA public web site.", 
+	public void getSectionalChart(@Suspended AsyncResponse asyncResponse, @ApiParam (name="geoname", value="Geoname which is a city for which the chart is requested. Valid cities can be found on the FAA public web site.", 
 				allowableValues="Albuquerque, Anchorage, Atlanta, Bethel, Billings, Brownsville, Cape Lisburne, Charlotte, Cheyenne, Chicago, Cincinnati, Cold Bay, "
 				+"Dallas-Ft Worth, Dawson, Denver, Detroit, Dutch Harbor, El Paso, Fairbanks, Great Falls, Green Bay, Halifax, Hawaiian Islands, Houston, "
 				+"Jacksonville, Juneau, Kansas City, Ketchikan, Klamath Falls, Kodiak, Lake Huron, Las Vegas, Los Angeles, McGrath, Memphis, Miami, Montreal, "
@@ -105,6 +107,14 @@ public class SectionalCharts extends AbstractTableDataService {
 				+"Washington, Western Aleutian Islands, Whitehorse, Wichita", required=true) @QueryParam("geoname") String cityRegion,
 			@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false)  @QueryParam("edition") String edition, 
 			@ApiParam (name="format", value="Format of the requested chart. TIFF is georeferenced and PDF is not georeferenced. If omitted, the default format of PDF is returned.", allowableValues="tiff, pdf", defaultValue="pdf", allowMultiple=false, required=false) @QueryParam("format") String format) {
+		respond(asyncResponse, () -> getSectionalChart(cityRegion, edition, format));
+	}
+
+	/**
+	 * Build the response of the getSectionalChart request on the calling thread
+	 * @return the response
+	 */
+	public Response getSectionalChart(String cityRegion, String edition, String format) {
 
 		this.setCity(cityRegion);
 		ProductSet ps = super.buildChart(format, edition, CHART_TYPE_SECTIONAL);
@@ -134,13 +144,21 @@ public class SectionalCharts extends AbstractTableDataService {
 			@ApiResponse(code = 500, message = ERROR_500)})
 
 	
-	public Response getSectionalInfo(@ApiParam (name="geoname", value="Geoname which is a city for which the chart is requested. Valid cities can be found on the FAA public web site.", 
+	public void getSectionalInfo(@Suspended AsyncResponse asyncResponse, @ApiParam (name="geoname", value="Geoname which is a city for which the chart is requested. Valid cities can be found on the FAA public web site.", 
 			allowableValues="Albuquerque, Anchorage, Atlanta, Bethel, Billings, Brownsville, Cape Lisburne, Charlotte, Cheyenne, Chicago, Cincinnati, Cold Bay, "
 			+"Dallas-Ft Worth, Dawson, Denver, Detroit, Dutch Harbor, El Paso, Fairbanks, Great Falls, Green Bay, Halifax, Hawaiian Islands, Houston, "
 			+"Jacksonville, Juneau, Kansas City, Ketchikan, Klamath Falls, Kodiak, Lake Huron, Las Vegas, Los Angeles, McGrath, Memphis, Miami, Montreal, "
 			+"New Orleans, New York, Nome, Omaha, Phoenix, Point Barrow, Salt Lake City, San Antonio, San Francisco, Seattle, Seward, St Louis, Twin Cities, "
 			+"Washington, Western Aleutian Islands, Whitehorse, Wichita", required=true) @QueryParam("geoname") String cityRegion,
 			@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition information is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String edition) {
+		respond(asyncResponse, () -> getSectionalInfo(cityRegion, edition));
+	}
+
+	/**
+	 * Build the response of the getSectionalInfo request on the calling thread
+	 * @return the response
+	 */
+	public Response getSectionalInfo(String cityRegion, String edition) {
 		this.setCity(cityRegion);
 		ProductSet ps = super.buildInfo(edition, CHART_TYPE_SECTIONAL);
     	return Response.status(ps.getStatus().getCode()).entity(ps).build();
@@ -151,47 +169,40 @@ public class SectionalCharts extends AbstractTableDataService {
 		gov.faa.ait.apra.jaxb.ObjectFactory of = new gov.faa.ait.apra.jaxb.ObjectFactory();
 		Product prod = of.createProductSetEditionProduct();
 		prod.setProductName(ProductCodeList.SECTIONAL);
-		StringBuilder productUrl = new StringBuilder();
-		productUrl.append(Config.getAeronavHost()).append(Config.getAeronavSectionalFolder());
 		
 		logger.info("Starting call to create sectional product.");
 		
-		if("PDF".equalsIgnoreCase(this.getFormat())) {
-			productUrl.append("/PDFs");
-		}
-		String cityFileName = element.getChart_city_name().replace(" ", "_");
-		productUrl.append("/").append(cityFileName).append("_").append(element.getChart_cycle_number());
-		if("PDF".equalsIgnoreCase(this.getFormat())) {
-			productUrl.append("_P.pdf");
-		} else if ("TIFF".equalsIgnoreCase(this.getFormat()) || "ZIP".equalsIgnoreCase(this.getFormat())) {
-			productUrl.append(".zip");
-		}
+		String productUrl = getProductURL(element);
 		try {
 			logger.info("HEAD check flag is "+Config.getTPPCheckFlag());
 			
 			if (Config.getSectioanlCheckFlag()) {
-				if (this.verifyURL(new URL(productUrl.toString()))) {
+				if (this.verifyURL(new URL(productUrl))) {
 					
 					if (logger.isInfoEnabled()) {
-						logger.info("HEAD check succeeeded for Sectional product URL: "+productUrl.toString());
+						logger.info("HEAD check succeeeded for Sectional product URL: "+productUrl);
 					}
-					prod.setUrl(productUrl.toString());
+					prod.setUrl(productUrl);
 				}
 				else {
 					if (logger.isWarnEnabled()) {
-						logger.warn("HEAD check failed for Sectional product URL: "+productUrl.toString());
+						logger.warn("HEAD check failed for Sectional product URL: "+productUrl);
 					}
 					prod.setUrl("");
 				}
 			}
-			else {
+			else if (this.verifyKnownURL(new URL(productUrl))) {
 				if (logger.isDebugEnabled()) {
-					logger.debug("HEAD check not executed for Sectional product URL: "+productUrl.toString());
+					logger.debug("HEAD check not executed for Sectional product URL: "+productUrl);
 				}
-				prod.setUrl(productUrl.toString());
+				prod.setUrl(productUrl);
+			}
+			else {
+				logger.warn("The link verifier found no Sectional product at URL: "+productUrl);
+				prod.setUrl("");
 			}
 		} catch (MalformedURLException emalformed) {
-    		logger.warn("The download URL "+productUrl.toString()+" is not valid", emalformed);
+    		logger.warn("The download URL "+productUrl+" is not valid", emalformed);
 		}	
 		
 		logger.info("Ending call to create sectional product.");
@@ -199,6 +210,29 @@ public class SectionalCharts extends AbstractTableDataService {
 		return prod;
 	}
 
+	@Override
+	protected String getProductURL(ChartCycleElementsJson element) {
+		StringBuilder productUrl = new StringBuilder();
+		productUrl.append(Config.getAeronavHost()).append(Config.getAeronavSectionalFolder());
+		
+		if("PDF".equalsIgnoreCase(this.getFormat())) {
+			productUrl.append("/PDFs");
+		}
+		String cityFileName = element.getChart_city_name().replace(" ", "_");
+		productUrl.append("/").append(cityFileName).append("_").append(element.getChart_cycle_number());
+		if("PDF".equalsIgnoreCase(this.getFormat())) {
+			productUrl.append("_P.pdf");
+		} else if ("TIFF".equalsIgnoreCase(this.getFormat()) || "ZIP".equalsIgnoreCase(this.getFormat())) {
+			productUrl.append(".zip");
+		}
+		return productUrl.toString();
+	}
+	
+	@Override
+	protected boolean isProductURLChecked() {
+		return Config.getSectioanlCheckFlag();
+	}
+
 	@Override
 	protected boolean verifyGeoName() {
 		String[] validCities = {"Albuquerque",
@@ -0,0 +1,72 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.api;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.Response;
+
+import gov.faa.ait.apra.util.StaleData;
+
+/**
+ * Flags the responses built from cached data that has passed its freshness window while denodo could
+ * not be reached. Such a response carries an X-APRA-Stale-Age header with the age of the stale data in
+ * seconds and a 110 Warning header. A response built on a request thread is flagged when it is built. The filter runs before the other request filters so that the marks
+ * of a previous request on the same thread are never carried over.
+ *
+ * @author FAA
+ *
+ */
+@Priority(Priorities.AUTHENTICATION)
+public class StaleDataFilter implements ContainerRequestFilter, ContainerResponseFilter {
+	static final String STALE_AGE_HEADER = "X-APRA-Stale-Age";
+	private static final String WARNING_HEADER = "Warning";
+	private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+	@Override
+	public void filter(ContainerRequestContext request) {
+		StaleData.clear();
+	}
+
+	@Override
+	public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+		long age = StaleData.getAge();
+		StaleData.clear();
+
+		if (age < 0 || response.getStatus() != 200) {
+			return;
+		}
+
+		response.getHeaders().putSingle(STALE_AGE_HEADER, String.valueOf(age));
+		response.getHeaders().add(WARNING_HEADER, STALE_WARNING);
+	}
+
+	/**
+	 * Flag a response built on a request thread rather than the container thread
+	 * @param response the response
+	 * @param age the age of the stale data in seconds
+	 * @return the flagged response, or the response as it is if it is not successful
+	 */
+	static Response markStale(Response response, long age) {
+		if (response.getStatus() != 200) {
+			return response;
+		}
+
+		return Response.fromResponse(response).header(STALE_AGE_HEADER, String.valueOf(age)).header(WARNING_HEADER, STALE_WARNING).build();
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.api;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.ws.rs.core.GenericEntity;
+import javax.xml.bind.annotation.XmlTransient;
+
+import gov.faa.ait.apra.bootstrap.Config;
+import gov.faa.ait.apra.jaxb.ProductSet;
+import gov.faa.ait.apra.jaxb.ProductSet.Edition;
+
+/**
+ * A product set that supplies the editions of a large chart listing to the response writer one at a 
+ * time. Rather than building an edition for every chart before the response is written, the product 
+ * set holds a list view over the chart rows and each edition is created as the MOXy writer reaches it 
+ * and released once written. The view is set through the protected edition list of the generated 
+ * class, so a change to that class breaks the build rather than the response. The class is transient 
+ * to JAXB and is written as a ProductSet, so the wire format is unchanged, while the memory held per 
+ * request is the rows already cached plus one edition. Anything that decides the response status or
+ * headers, such as a URL check, is resolved before the response is returned, so creating an edition 
+ * only reads results already made.
+ * 
+ * @author FAA
+ *
+ */
+@XmlTransient
+public final class StreamingProductSet extends ProductSet {
+	
+	private StreamingProductSet () { }
+	
+	/**
+	 * Create the product set of a chart listing
+	 * @param template the initialized product set whose status is used
+	 * @return a streaming product set, or the template if streaming is disabled
+	 */
+	public static ProductSet create (ProductSet template) {
+		if (! Config.getResponseStreamingFlag()) {
+			return template;
+		}
+		
+		StreamingProductSet ps = new StreamingProductSet();
+		ps.setStatus(template.getStatus());
+		return ps;
+	}
+	
+	/**
+	 * Set the editions of a product set from a list of chart rows. The editions of a streaming product
+	 * set are created as the response is written, those of any other product set are created now.
+	 * @param ps the product set of the response
+	 * @param rows the chart rows, one edition is created for each row
+	 * @param factory creates the edition of a row
+	 */
+	public static <T> void setEditions (ProductSet ps, List <T> rows, Function <T, Edition> factory) {
+		List <Edition> editions = new EditionList <> (rows, factory);
+		
+		if (ps instanceof StreamingProductSet) {
+			((StreamingProductSet) ps).edition = editions;
+			return;
+		}
+		
+		ps.getEdition().addAll(editions);
+	}
+	
+	/**
+	 * Get the response entity of a product set. A streaming product set is declared as a ProductSet so 
+	 * the providers write it with the ProductSet mapping.
+	 * @param ps the product set of the response
+	 * @return the entity to set on the response
+	 */
+	public static Object toEntity (ProductSet ps) {
+		return ps instanceof StreamingProductSet ? new GenericEntity <ProductSet> (ps, ProductSet.class) : ps;
+	}
+	
+	/**
+	 * A read only list that creates the edition for a row each time it is read
+	 */
+	private static final class EditionList <T> extends AbstractList <Edition> {
+		private final List <T> rows;
+		private final Function <T, Edition> factory;
+		
+		private EditionList (List <T> rows, Function <T, Edition> factory) {
+			this.rows = rows;
+			this.factory = factory;
+		}
+		
+		@Override
+		public Edition get (int index) {
+			return factory.apply(rows.get(index));
+		}
+		
+		@Override
+		public int size () {
+			return rows.size();
+		}
+	}
+}
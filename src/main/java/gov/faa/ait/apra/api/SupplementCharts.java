@@ -26,6 +26,7 @@ import gov.faa.ait.apra.json.SupplementMetadata;
 import gov.faa.ait.apra.cycle.ChartCycleClient;
 import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
 
+import gov.faa.ait.apra.util.ChartPager;
 import gov.faa.ait.apra.util.SupplementMetadataClient;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -38,15 +39,24 @@ import static gov.faa.ait.apra.bootstrap.ErrorCodes.ERROR_404;
 import static gov.faa.ait.apra.bootstrap.ErrorCodes.ERROR_500;
 import static gov.faa.ait.apra.bootstrap.ErrorCodes.RESPONSE_200;
 
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,6 +81,8 @@ public class SupplementCharts extends BaseService {
  * Get Supplement chart download information
  * @param ed - edition	
  * @param vol - volume
+ * @param limit - number of charts per page of a volume listing
+ * @param cursor - cursor returned with the previous page of a volume listing
  * @return
  */
 
@@ -80,15 +92,27 @@ public class SupplementCharts extends BaseService {
 	@ApiOperation(value = "Get Supplement chart download information by requesting an edition with a valid US volume.", 
 			notes="The Supplement chart is distributed in two formats - zip and pdf. The US complete set is returned as a ZIP file while all other volumes consist of individual PDF files."			
 			+ "Requests for charts by volume other than US complete set returns a list of download URLs which can be quite extensive."
+			+ " Volume listings can be requested in pages with the limit parameter. When more charts remain, the response carries a cursor in the "
+			+ ChartPager.NEXT_CURSOR_HEADER + " header that is passed back to get the next page of the same edition."
 			, response = ProductSet.class)
 	@ApiResponses(value = {
 			@ApiResponse(code = 200, message = RESPONSE_200),
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-	public Response getSupplementRelease(
+	public void getSupplementRelease(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name = "edition", value = "Requested product edition. If omitted, the default current edition is returned.", allowableValues = "current, next", defaultValue = "current", allowMultiple = false, required = false) @QueryParam("edition") String ed,
-			@ApiParam(name = "volume", value = "Requested volume of Supplement chart set. If omitted, the complete US set is returned.", allowableValues = "NORTHWEST, SOUTHWEST, NORTH CENTRAL, SOUTH CENTRAL, EAST CENTRAL, SOUTHEAST, NORTHEAST, PACIFIC, ALASKA", allowMultiple = false, required = false) @QueryParam("volume") String vol) {
+			@ApiParam(name = "volume", value = "Requested volume of Supplement chart set. If omitted, the complete US set is returned.", allowableValues = "NORTHWEST, SOUTHWEST, NORTH CENTRAL, SOUTH CENTRAL, EAST CENTRAL, SOUTHEAST, NORTHEAST, PACIFIC, ALASKA", allowMultiple = false, required = false) @QueryParam("volume") String vol,
+			@ApiParam(name = "limit", value = "Maximum number of charts returned in one page of a volume listing. If omitted, all charts are returned.", allowMultiple = false, required = false) @QueryParam("limit") String limit,
+			@ApiParam(name = "cursor", value = "Cursor returned in the " + ChartPager.NEXT_CURSOR_HEADER + " header of the previous page of a volume listing.", allowMultiple = false, required = false) @QueryParam("cursor") String cursor) {
+		respond(asyncResponse, () -> getSupplementRelease(ed, vol, limit, cursor));
+	}
+
+	/**
+	 * Build the response of the getSupplementRelease request on the calling thread
+	 * @return the response
+	 */
+	public Response getSupplementRelease(String ed, String vol, String limit, String cursor) {
 		ChartCycleElementsJson cycle;
 
 		logger.info("Received call to retrieve current Supplement release for edition '"
@@ -119,8 +143,25 @@ public class SupplementCharts extends BaseService {
 		if ( !isUnitedStates()) {
 			logger.info("Retrieving individual Supplement charts rather than full US set. User asked for a volume or US changes.");
 			setFormat(PDF);
-			ProductSet ps = getChartProductSet(cycle);
-	    	return Response.status(ps.getStatus().getCode()).entity(ps).build();
+			ChartPager pager;
+
+			try {
+				ChartCycleClient client = new ChartCycleClient();
+				pager = ChartPager.create("SUP|" + getVolume().toUpperCase(), limit, cursor,
+						ChartPager.getPublishedCycles(client.getCurrent56DayCycle(), client.getNext56DayCycle(), 56));
+			} catch (IllegalArgumentException iae) {
+				logger.error("Invalid paging parameters limit '" + limit + "' and cursor '" + cursor + "'. " + iae.getMessage());
+				return Response.status(400).entity(getErrorResponse(400, iae.getMessage())).build();
+			}
+
+			ProductSet ps = getChartProductSet(pager.getCycle(cycle), pager);
+			ResponseBuilder response = Response.status(ps.getStatus().getCode()).entity(StreamingProductSet.toEntity(ps));
+
+			if (pager.getNextCursor() != null) {
+				response.header(ChartPager.NEXT_CURSOR_HEADER, pager.getNextCursor());
+			}
+
+			return response.build();
 
 		}
 		// By default, we return the zippped US product set
@@ -145,9 +186,17 @@ public class SupplementCharts extends BaseService {
 			@ApiResponse(code = 400, message = ERROR_400),
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
-	public Response getSupplementEdition(
+	public void getSupplementEdition(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name = "edition", value = "Requested product edition. If omitted, the default current edition is returned.", allowableValues = "current, next", defaultValue = "current", allowMultiple = false, required = false) @QueryParam("edition") String ed,
 			@ApiParam(name = "volume", value = "Requested volume of Supplement chart set. If omitted, the edition information for the complete US set is returned.", allowableValues = "NORTHWEST, SOUTHWEST, NORTH CENTRAL, SOUTH CENTRAL, EAST CENTRAL, SOUTHEAST, NORTHEAST, PACIFIC, ALASKA", allowMultiple = false, required = false) @QueryParam("volume") String vol) {
+		respond(asyncResponse, () -> getSupplementEdition(ed, vol));
+	}
+
+	/**
+	 * Build the response of the getSupplementEdition request on the calling thread
+	 * @return the response
+	 */
+	public Response getSupplementEdition(String ed, String vol) {
 		ChartCycleElementsJson cycle;
 
 		logger.info("Received call to retrieve current SUPPLEMENT product release for edition '"
@@ -220,11 +269,10 @@ public class SupplementCharts extends BaseService {
 		return true;
 	}
 	
-	private ProductSet getChartProductSet(ChartCycleElementsJson cycle) {
+	private ProductSet getChartProductSet(ChartCycleElementsJson cycle, ChartPager pager) {
 		String wcf = " with change flag = ";
 		logger.info("Getting the chart product set for " + getEdition() + " "
 				+ capitalizeGeoname() + wcf + isChangeFlag());
-		ObjectFactory of = new ObjectFactory();
 		SupplementMetadataClient supplementClient = new SupplementMetadataClient(
 				cycle);
 		SupplementMetadata[] elements = supplementClient
@@ -236,38 +284,68 @@ public class SupplementCharts extends BaseService {
 		logger.info(elements.length + " total charts found for " + getEdition()
 				+ " " + capitalizeGeoname() + wcf + isChangeFlag());
 
-		ProductSet ps = initPositiveResponse();
+		// A page is taken in file name order with the airport and navaid to tell apart charts sharing a file
+		List<SupplementMetadata> charts = pager.page(Arrays.asList(elements), 
+				element -> element.getPdf() + "|" + element.getAptid() + "|" + element.getNavidname() + "|" + element.getState(), cycle);
 
-		for (int i = 0; i < elements.length; i++) {
-			StringBuilder path = new StringBuilder(Config.getSUPChartPath());
-			Edition ed = initEdition(cycle);
-			ed.setFormat(FormatCodeList.PDF);
-			ed.setGeoname(elements[i].getState());
-			ed.setVolume(elements[i].getVolumeName());
-
-			Product product = of.createProductSetEditionProduct();
-			product.setProductName(ProductCodeList.SUPPLEMENT);
-			SimpleDateFormat formatter = new SimpleDateFormat("ddMMMyyyy");
-			path.append("/").append(
-					formatter.format(cycle.getChart_effective_date()));
-			path.append("/").append(elements[i].getPdf());
-
-			product.setUrl(Config.getAeronavHost() + path.toString());
-
-			if (Config.getSUPCheckFlag()) {
-				logger.warn("URL validation check is enabled for the Supplement product set. This can cause serious performance issues for the Supplement product responses."
-						+ " Consider changing the configuration parameter gov.faa.ait.sup.check.flag = false and re-deploy.");
-				validateAndSetUrl(Config.getAeronavHost() + path.toString(),
-						ps, product);
+		ProductSet ps = StreamingProductSet.create(initPositiveResponse());
+		List<URL> urls = new ArrayList<>(charts.size());
+
+		for (SupplementMetadata element : charts) {
+			try {
+				urls.add(new URL(getChartURL(cycle, element)));
+			} catch (MalformedURLException emalformed) {
+				logger.warn("The download URL is not valid", emalformed);
 			}
+		}
 
-			ed.setProduct(product);
-			ps.getEdition().add(ed);
+		if (Config.getSUPCheckFlag()) {
+			logger.warn("URL validation check is enabled for the Supplement product set. This can cause serious performance issues for the Supplement product responses."
+					+ " Consider changing the configuration parameter gov.faa.ait.sup.check.flag = false and re-deploy.");
 		}
 
+		// The URLs are resolved before the response is returned, so a failed HEAD check sets the status now 
+		// and the editions created as the response is written only read the results
+		Map<String, Boolean> checked = verifyListingURLs(urls, Config.getSUPCheckFlag());
+
+		if (Config.getSUPCheckFlag() && checked.containsValue(Boolean.FALSE)) {
+			ps.getStatus().setCode(404);
+			ps.getStatus().setMessage(ErrorCodes.ERROR_404);
+		}
+
+		StreamingProductSet.setEditions(ps, charts, element -> createChartEdition(cycle, element, checked));
+
 		return ps;
 	}
 
+	private Edition createChartEdition(ChartCycleElementsJson cycle, SupplementMetadata element, Map<String, Boolean> checked) {
+		ObjectFactory of = new ObjectFactory();
+		Edition ed = initEdition(cycle);
+		ed.setFormat(FormatCodeList.PDF);
+		ed.setGeoname(element.getState());
+		ed.setVolume(element.getVolumeName());
+
+		Product product = of.createProductSetEditionProduct();
+		product.setProductName(ProductCodeList.SUPPLEMENT);
+
+		// A URL that is not valid or was found to be missing is left blank
+		String url = getChartURL(cycle, element);
+		product.setUrl(Boolean.TRUE.equals(checked.get(url)) ? url : "");
+
+		ed.setProduct(product);
+		return ed;
+	}
+
+	private String getChartURL(ChartCycleElementsJson cycle, SupplementMetadata element) {
+		StringBuilder path = new StringBuilder(Config.getSUPChartPath());
+		SimpleDateFormat formatter = new SimpleDateFormat("ddMMMyyyy");
+		path.append("/").append(
+				formatter.format(cycle.getChart_effective_date()));
+		path.append("/").append(element.getPdf());
+
+		return Config.getAeronavHost() + path.toString();
+	}
+
 	private ChartCycleElementsJson initParameters() {
 		ChartCycleElementsJson cycle;
 
@@ -25,6 +25,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -86,7 +88,7 @@ public class TerminalAreaCharts extends BaseService {
      * @param geo the geographic name of the chart that is requested
      * @return The TAC release in a serialized JSON or XML format
      */
-    public Response getTACRelease (
+    public void getTACRelease (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed, 
     		@ApiParam (name="format", value="Format of the requested chart. TIFF is georeferenced and PDF is not georeferenced. If omitted, the default format of PDF is returned.", allowableValues="tiff, pdf", defaultValue="pdf", allowMultiple=false, required=false) @QueryParam("format") String fmt, 
     		@ApiParam (name="geoname", value="A US city for which the chart is requested.", 
@@ -94,6 +96,14 @@ public class TerminalAreaCharts extends BaseService {
     				+"Detroit, Houston, Kansas City, Las Vegas, Los Angeles, Memphis, Miami, Minneapolis-St Paul, New Orleans, New York, Philadelphia, Phoenix, "
     				+"Pittsburgh, Puerto Rico-VI, St Louis, Salt Lake City, San Diego, San Francisco, Seattle, Tampa-Orlando",    		
     				required=true) @QueryParam ("geoname") String geo) {
+    	respond(asyncResponse, () -> getTACRelease(ed, fmt, geo));
+    }
+
+    /**
+     * Build the response of the getTACRelease request on the calling thread
+     * @return the response
+     */
+    public Response getTACRelease (String ed, String fmt, String geo) {
     	ChartCycleElementsJson cycle;
     	
     	logger.info("Received call to retrieve current TAC product release for '"+ed+"', '"+fmt+"', '"+geo+"'");
@@ -141,13 +151,21 @@ public class TerminalAreaCharts extends BaseService {
      * @param geo the geographic name of the chart that is requested
      * @return the edition information in a serialized JSON or XML format
      */    
-    public Response getTACEdition (
+    public void getTACEdition (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition information is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed, 
     		@ApiParam (name="geoname", value="A US city for which the chart is requested.", 
 			allowableValues="Anchorage-Fairbanks, Atlanta, Baltimore-Washington, Boston, Charlotte, Chicago, Cincinnati, Cleveland, Dallas-Ft Worth, Denver-Colorado Springs, "
 				+"Detroit, Houston, Kansas City, Las Vegas, Los Angeles, Memphis, Miami, Minneapolis-St Paul, New Orleans, New York, Philadelphia, Phoenix, "
 				+"Pittsburgh, Puerto Rico-VI, St Louis, Salt Lake City, San Diego, San Francisco, Seattle, Tampa-Orlando",    		
 				required=true) @QueryParam ("geoname") String geo) {
+    	respond(asyncResponse, () -> getTACEdition(ed, geo));
+    }
+
+    /**
+     * Build the response of the getTACEdition request on the calling thread
+     * @return the response
+     */
+    public Response getTACEdition (String ed, String geo) {
     	ChartCycleElementsJson cycle;
     	
     	setEdition(ed != null ? ed : CURRENT);
@@ -20,16 +20,23 @@ import static gov.faa.ait.apra.bootstrap.ErrorCodes.RESPONSE_200;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,12 +51,16 @@ import gov.faa.ait.apra.jaxb.ProductCodeList;
 import gov.faa.ait.apra.jaxb.ProductSet;
 import gov.faa.ait.apra.jaxb.ProductSet.Edition;
 import gov.faa.ait.apra.jaxb.ProductSet.Edition.Product;
+import gov.faa.ait.apra.json.TPPChartMetadata;
 import gov.faa.ait.apra.json.TPPMetadata;
 
 import gov.faa.ait.apra.cycle.ChartCycleClient;
 import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
 
+import gov.faa.ait.apra.util.ChartPager;
 import gov.faa.ait.apra.util.TPPMetadataClient;
+import gov.faa.ait.apra.util.TPPMetadataIndex;
+import gov.faa.ait.apra.util.TPPMetadataStore;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -75,7 +86,9 @@ public class TerminalProcedureCharts extends BaseService {
     	notes="The complete United States Terminal Procedure Publication (TPP) release is distributed as a set of zip files containing charts and verification software. "
     			+ "Requests for charts by state returns a list of download URLs which can be quite extensive. "
     			+" All 50 US states are valid for requesting chart publication download URLs. The special 'changeset' edition operates against "
-    			+ "the current release and returns the charts that were changed since the previous release. ",
+    			+ "the current release and returns the charts that were changed since the previous release. "
+    			+ "State and changeset listings can be requested in pages with the limit parameter. When more charts remain, the response "
+    			+ "carries a cursor in the "+ChartPager.NEXT_CURSOR_HEADER+" header that is passed back to get the next page of the same edition.",
     	response=ProductSet.class)
 	@ApiResponses(value = {
 			@ApiResponse(code = 200, message = RESPONSE_200),
@@ -88,11 +101,23 @@ public class TerminalProcedureCharts extends BaseService {
 	 * 
 	 * @param ed the edition for which you want a URL
 	 * @param geo the geographic name for which a download URL is requested
+	 * @param limit the number of charts per page of a chart listing
+	 * @param cursor the cursor returned with the previous page of a chart listing
 	 * @return the product set
 	 */
-    public Response getTPPRelease (
+    public void getTPPRelease (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition is returned.", allowableValues="current, next, changeset", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed,
-    		@ApiParam(name="geoname", value="Requested geographic region of Terminal Procedures Publication chart set. Specify either US or a valid full state name such as Alaska. If omitted, the default US complete set is returned.", defaultValue="US", allowMultiple=false, required=false) @QueryParam("geoname") String geo) {
+    		@ApiParam(name="geoname", value="Requested geographic region of Terminal Procedures Publication chart set. Specify either US or a valid full state name such as Alaska. If omitted, the default US complete set is returned.", defaultValue="US", allowMultiple=false, required=false) @QueryParam("geoname") String geo,
+    		@ApiParam(name="limit", value="Maximum number of charts returned in one page of a state or changeset listing. If omitted, all charts are returned.", allowMultiple=false, required=false) @QueryParam("limit") String limit,
+    		@ApiParam(name="cursor", value="Cursor returned in the "+ChartPager.NEXT_CURSOR_HEADER+" header of the previous page of a state or changeset listing.", allowMultiple=false, required=false) @QueryParam("cursor") String cursor) {
+    	respond(asyncResponse, () -> getTPPRelease(ed, geo, limit, cursor));
+    }
+
+    /**
+     * Build the response of the getTPPRelease request on the calling thread
+     * @return the response
+     */
+    public Response getTPPRelease (String ed, String geo, String limit, String cursor) {
     	ChartCycleElementsJson cycle;
     	
     	logger.info("Received call to retrieve current TPP product release for edition '"+ed+"'.");
@@ -121,8 +146,26 @@ public class TerminalProcedureCharts extends BaseService {
     	if ( (isChangeFlag() && isUnitedStates()) || (! isUnitedStates())) {
     		logger.info("Retrieving individual TPP charts rather than full US set. User asked for a state, volume, or US changes.");
     		setFormat(PDF);
-    		ProductSet ps = getChartProductSet(cycle);
-        	return Response.status(ps.getStatus().getCode()).entity(ps).build();
+    		ChartPager pager;
+    		
+    		try {
+    			ChartCycleClient client = new ChartCycleClient();
+    			pager = ChartPager.create("TPP|"+getGeoname().toUpperCase()+"|"+isChangeFlag(), limit, cursor, 
+    					ChartPager.getPublishedCycles(client.getCurrent28DayCycle(), client.getNext28DayCycle(), 28));
+    		}
+    		catch (IllegalArgumentException iae) {
+    			logger.error("Invalid paging parameters limit '"+limit+"' and cursor '"+cursor+"'. "+iae.getMessage());
+    			return Response.status(400).entity(getErrorResponse (400, iae.getMessage())).build();
+    		}
+    		
+    		ProductSet ps = getChartProductSet(pager.getCycle(cycle), pager);
+    		ResponseBuilder response = Response.status(ps.getStatus().getCode()).entity(StreamingProductSet.toEntity(ps));
+    		
+    		if (pager.getNextCursor() != null) {
+    			response.header(ChartPager.NEXT_CURSOR_HEADER, pager.getNextCursor());
+    		}
+    		
+        	return response.build();
 
     	}
     	
@@ -152,9 +195,17 @@ public class TerminalProcedureCharts extends BaseService {
 	 * @param geo the geographic name for which edition information is requested
 	 * @return
 	 */    
-    public Response getTPPEdition (
+    public void getTPPEdition (@Suspended AsyncResponse asyncResponse,
     		@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition information is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed,
     		@ApiParam(name="geoname", value="Requested geographic region of Terminal Procedures Publication chart set. Specify US or a valid full US state name such as Alaska. If omitted, edition information for the complete US set is returned.", defaultValue="US", allowMultiple=false, required=false) @QueryParam("geoname") String geo) {
+    	respond(asyncResponse, () -> getTPPEdition(ed, geo));
+    }
+
+    /**
+     * Build the response of the getTPPEdition request on the calling thread
+     * @return the response
+     */
+    public Response getTPPEdition (String ed, String geo) {
     	ChartCycleElementsJson cycle;
     	
     	logger.info("Received call to retrieve current TPP product release for edition '"+ed+"'.");
@@ -193,7 +244,7 @@ public class TerminalProcedureCharts extends BaseService {
     	} 
     	
     	else {
-    		return getChartProductSet(cycle);
+    		return getChartProductSet(cycle, null);
     	}
 	}
     
@@ -201,6 +252,18 @@ public class TerminalProcedureCharts extends BaseService {
     	ObjectFactory of = new ObjectFactory();
     	String [] pathSet = getUSFilePaths(cycle);
     	ProductSet ps = initPositiveResponse();
+    	List <URL> urls = new ArrayList <> ();
+    	
+    	// The five parts of the set are checked at once
+    	for (String path : pathSet) {
+    		try {
+    			urls.add(new URL(Config.getAeronavHost()+path));
+    		}
+    		catch (MalformedURLException emalformed) {
+    			logger.warn("The download URL is not valid", emalformed);
+    		}
+    	}
+    	verifyURLs(urls);
     	
     	for (int i = 0; i < pathSet.length; i++) {
     		Edition ed = initEdition(cycle);
@@ -216,81 +279,121 @@ public class TerminalProcedureCharts extends BaseService {
     
     // Chart paths follow this convention http://aeronav.faa.gov/d-tpp/1607/akto.pdf   
     
-    private ProductSet getChartProductSet (ChartCycleElementsJson cycle) {
+    private ProductSet getChartProductSet (ChartCycleElementsJson cycle, ChartPager pager) {
     	logger.info("Getting the chart product set for "+getEdition()+" "+capitalizeGeoname()+" with change flag = "+isChangeFlag());
-    	ObjectFactory of = new ObjectFactory();
-    	TPPMetadataClient tppClient = new TPPMetadataClient (cycle, isChangeFlag()); 
-    	TPPMetadata [] elements = tppClient.getChartMetadataByState(capitalizeGeoname()).getElements();
+    	List <TPPMetadata> elements = getChartMetadata(cycle);
     	HashSet <String> processedFiles = new HashSet <> ();
-    	int processTotal = 0;
+    	List <TPPMetadata> charts = new ArrayList <> ();
     	
-    	if (elements == null || elements.length == 0) 
+    	if (elements == null || elements.isEmpty()) 
     		return getErrorResponse(404, ErrorCodes.ERROR_404);
     	
-    	logger.info(elements.length+" total charts found for "+getEdition()+" "+capitalizeGeoname()+" with change flag = "+isChangeFlag());
+    	logger.info(elements.size()+" total charts found for "+getEdition()+" "+capitalizeGeoname()+" with change flag = "+isChangeFlag());
     	
-    	String edition = tppClient.getEdition();
-    	ProductSet ps = initPositiveResponse();
-    	
-    	for (int i = 0; i < elements.length; i++) {
-    		if (processedFiles.contains(elements[i].getChart_name())) {
-    			//skip the chart if we've already processed it
-    			continue;
-    		}
-    		else {
-    			// add the chart to our processed list and we build the response
-    			processedFiles.add(elements[i].getChart_name());
-    			processTotal++;
-    		}
-    		
-    		StringBuilder path = new StringBuilder(Config.getTPPChartPath());
-    		Edition ed = initEdition(cycle);
-    		ed.setFormat(FormatCodeList.PDF);
-    		ed.setGeoname(elements[i].getState_fullname());
-    		ed.setVolume(elements[i].getVolume());
-
-        	Product product = of.createProductSetEditionProduct();      	
-        	product.setProductName(ProductCodeList.TPP);
-        	product.setChartName(elements[i].getChart_name());   
-        	
-        	if (! isNullValue(elements[i].getAirport_icao_identifier()))
-        		product.setIcao(elements[i].getAirport_icao_identifier());
-        	
-        	if (! isNullValue(elements[i].getAirport_identifier()))
-        		product.setAirportId(elements[i].getAirport_identifier());
-        	
-        	if (! isNullValue(elements[i].getCity_name()))
-        		product.setCityName(elements[i].getCity_name());
-        	
-        	if (! isNullValue(elements[i].getAirport_name())) 
-        		product.setAirportName(elements[i].getAirport_name());
-        	
-    		path.append("/").append(edition);
-    		path.append("/").append(elements[i].getPdf_name());
-    		
-    		product.setUrl(Config.getAeronavHost()+path.toString());
-    		
-        	setChangeType(product, elements[i].getUseraction());
-    		
-    		// The HEAD check for TPP files can introduce a significant performance penalty. This is controlled by a flag in the Configuration. 
-    		// Recommendation is to enable the flag in DEV only and leave disabled in TEST and PROD unless someone wants to check and verify in TEST
-    		
-    		if (Config.getTPPCheckFlag()) {
-    			logger.warn("URL validation check is enabled for the DTPP product set. This can cause serious performance issues for the DTTP product responses."
-    					+ " Consider changing the configuration parameter gov.faa.ait.tpp.check.flag = false and re-deploy.");
-    			validateAndSetUrl(Config.getAeronavHost()+path.toString(), ps, product);
+    	for (TPPMetadata element : elements) {
+    		// skip the chart if we've already processed it
+    		if (processedFiles.add(element.getChart_name())) {
+    			charts.add(element);
     		}
-   		
-           	ed.setProduct(product);
-        	ps.getEdition().add(ed);
     	}
     	
+    	// A page is taken in chart sequence order. The chart name is unique once the duplicates are dropped.
+    	if (pager != null) {
+    		charts = pager.page(charts, element -> element.getChartseq()+"|"+element.getPdf_name()+"|"+element.getChart_name(), cycle);
+    	}
+    	
+    	String edition = TPPMetadataClient.getEdition(cycle);
+    	ProductSet ps = StreamingProductSet.create(initPositiveResponse());
+    	Map <String, Boolean> checked = checkChartURLs(edition, charts);
+    	
+    	// The URLs are resolved before the response is returned. The editions are created as it is written and only read the results.
+    	// The TPP URL check does not change the response status.
+    	StreamingProductSet.setEditions(ps, charts, element -> createChartEdition(cycle, edition, element, checked));
+    	
     	processedFiles.clear();
-    	logger.info("Processed a total of "+processTotal+" charts for "+this.getGeoname());
+    	logger.info("Processed a total of "+charts.size()+" charts for "+this.getGeoname());
     	
        	return ps;
     }   
     
+    /*
+     * The HEAD check for TPP files can introduce a significant performance penalty. This is controlled by a flag in the Configuration. 
+     * Recommendation is to enable the flag in DEV only and leave disabled in TEST and PROD unless someone wants to check and verify in TEST.
+     */
+    private Map <String, Boolean> checkChartURLs (String edition, List <TPPMetadata> charts) {
+    	List <URL> urls = new ArrayList <> (charts.size());
+		
+		for (TPPMetadata element : charts) {
+			try {
+				urls.add(new URL(getChartURL(edition, element)));
+			}
+			catch (MalformedURLException emalformed) {
+				logger.warn("The download URL is not valid", emalformed);
+			}
+		}
+		
+		if (Config.getTPPCheckFlag()) {
+			logger.warn("URL validation check is enabled for the DTPP product set. This can cause serious performance issues for the DTTP product responses."
+					+ " Consider changing the configuration parameter gov.faa.ait.tpp.check.flag = false and re-deploy.");
+		}
+		
+		return verifyListingURLs(urls, Config.getTPPCheckFlag());
+    }
+    
+    private Edition createChartEdition (ChartCycleElementsJson cycle, String edition, TPPMetadata element, Map <String, Boolean> checked) {
+    	ObjectFactory of = new ObjectFactory();
+		Edition ed = initEdition(cycle);
+		ed.setFormat(FormatCodeList.PDF);
+		ed.setGeoname(element.getState_fullname());
+		ed.setVolume(element.getVolume());
+
+    	Product product = of.createProductSetEditionProduct();      	
+    	product.setProductName(ProductCodeList.TPP);
+    	product.setChartName(element.getChart_name());   
+    	
+    	if (! isNullValue(element.getAirport_icao_identifier()))
+    		product.setIcao(element.getAirport_icao_identifier());
+    	
+    	if (! isNullValue(element.getAirport_identifier()))
+    		product.setAirportId(element.getAirport_identifier());
+    	
+    	if (! isNullValue(element.getCity_name()))
+    		product.setCityName(element.getCity_name());
+    	
+    	if (! isNullValue(element.getAirport_name())) 
+    		product.setAirportName(element.getAirport_name());
+    	
+		// A URL that is not valid or was found to be missing is left blank
+		String url = getChartURL(edition, element);
+		product.setUrl(Boolean.TRUE.equals(checked.get(url)) ? url : "");
+		
+    	setChangeType(product, element.getUseraction());
+		
+       	ed.setProduct(product);
+       	return ed;
+    }
+    
+    private String getChartURL (String edition, TPPMetadata element) {
+		StringBuilder path = new StringBuilder(Config.getTPPChartPath());
+		path.append("/").append(edition);
+		path.append("/").append(element.getPdf_name());
+		
+		return Config.getAeronavHost()+path.toString();
+    }
+    
+    // The edition metadata is held in memory. If it cannot be loaded we fall back to querying denodo for the state directly
+    private List <TPPMetadata> getChartMetadata (ChartCycleElementsJson cycle) {
+    	TPPMetadataIndex metadata = TPPMetadataStore.getMetadata(cycle, isChangeFlag());
+    	
+    	if (metadata != null) {
+    		return isUnitedStates() ? metadata.getElements() : metadata.getByState(capitalizeGeoname());
+    	}
+    	
+    	logger.warn("TPP metadata for "+getEdition()+" is not available in memory. Querying denodo for "+capitalizeGeoname());
+    	TPPChartMetadata response = new TPPMetadataClient (cycle, isChangeFlag()).getChartMetadataByState(capitalizeGeoname());
+    	return response == null ? null : Arrays.asList(response.getElements());
+    }
+    
     // This is where we get the full US product set file path that is divided into 5 separate ZIP files for download. The files are named A through E
     private String [] getUSFilePaths (ChartCycleElementsJson cycle) {
     	String [] usPathSet = new String [5];
@@ -358,6 +461,21 @@ public class TerminalProcedureCharts extends BaseService {
     	return US.equalsIgnoreCase(getGeoname());
     }
     
+    /*
+     * The link verifier requests the US set and every state, since the valid states come from the reference data
+     */
+    @Override
+    protected List <String> getLinkParameterValues (String name) {
+    	if (! "geoname".equals(name)) {
+    		return null;
+    	}
+    	
+    	List <String> geonames = new ArrayList <> ();
+    	geonames.add(US);
+    	geonames.addAll(USStateReferenceData.getStateNames());
+    	return geonames;
+    }
+    
     private boolean verifyGeoname () {   	
     	if ("US".equalsIgnoreCase(getGeoname())) {
     		return true;
@@ -26,6 +26,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -98,9 +100,17 @@ public class UsIfrVfrPlanning extends AbstractTableDataService {
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
 
-	public Response getIfrPlanningChart(
+	public void getIfrPlanningChart(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false)  @QueryParam("edition") String edition, 
 			@ApiParam (name="format", value="Format of the requested chart. TIFF is georeferenced and PDF is not georeferenced. If omitted, the default PDF format is returned.", allowableValues="tiff, pdf", defaultValue="pdf", allowMultiple=false, required=false) @QueryParam("format") String format) {
+		respond(asyncResponse, () -> getIfrPlanningChart(edition, format));
+	}
+
+	/**
+	 * Build the response of the getIfrPlanningChart request on the calling thread
+	 * @return the response
+	 */
+	public Response getIfrPlanningChart(String edition, String format) {
 
 		ProductSet ps = super.buildChart(format, edition, CHART_TYPE_IFR_PLANNING);
     	return Response.status(ps.getStatus().getCode()).entity(ps).build();
@@ -123,9 +133,17 @@ public class UsIfrVfrPlanning extends AbstractTableDataService {
 			@ApiResponse(code = 500, message = ERROR_500)})
 
 	
-	public Response getIfrPlanningInfo(
+	public void getIfrPlanningInfo(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition information is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) 
 			@QueryParam("edition") String edition) {
+		respond(asyncResponse, () -> getIfrPlanningInfo(edition));
+	}
+
+	/**
+	 * Build the response of the getIfrPlanningInfo request on the calling thread
+	 * @return the response
+	 */
+	public Response getIfrPlanningInfo(String edition) {
 
 		ProductSet ps = super.buildInfo(edition, CHART_TYPE_IFR_PLANNING);
     	return Response.status(ps.getStatus().getCode()).entity(ps).build();
@@ -133,10 +151,23 @@ public class UsIfrVfrPlanning extends AbstractTableDataService {
 
 	@Override
 	protected Product createProduct(ChartCycleElementsJson element) {
-		SimpleDateFormat sdfUSA = new SimpleDateFormat("MM-dd-yyyy");
 		gov.faa.ait.apra.jaxb.ObjectFactory of = new gov.faa.ait.apra.jaxb.ObjectFactory();
 		Product prod = of.createProductSetEditionProduct();
 		prod.setProductName(ProductCodeList.IFR_PLANNING);
+		String productUrl = getProductURL(element);
+		try {
+			if(this.verifyURL(new URL(productUrl))) {
+				prod.setUrl(productUrl);
+			}
+		} catch (MalformedURLException emalformed) {
+    		logger.warn("The download URL is not valid", emalformed);
+		}	
+		return prod;
+	}
+
+	@Override
+	protected String getProductURL(ChartCycleElementsJson element) {
+		SimpleDateFormat sdfUSA = new SimpleDateFormat("MM-dd-yyyy");
 		StringBuilder productUrl = new StringBuilder();
 		productUrl.append(Config.getAeronavHost())
 			.append("/")
@@ -149,14 +180,7 @@ public class UsIfrVfrPlanning extends AbstractTableDataService {
 		} else if ("TIFF".equalsIgnoreCase(this.getFormat()) || "ZIP".equalsIgnoreCase(this.getFormat())) {
 			productUrl.append("_tif.zip");
 		}
-		try {
-			if(this.verifyURL(new URL(productUrl.toString()))) {
-				prod.setUrl(productUrl.toString());
-			}
-		} catch (MalformedURLException emalformed) {
-    		logger.warn("The download URL is not valid", emalformed);
-		}	
-		return prod;
+		return productUrl.toString();
 	}
 
 	@Override
@@ -42,6 +42,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -85,8 +87,16 @@ public class VFRCharts extends BaseService {
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
 	
-	public Response getGrandCanyonRelease(
+	public void getGrandCanyonRelease(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+		respond(asyncResponse, () -> getGrandCanyonRelease(ed));
+	}
+
+	/**
+	 * Build the response of the getGrandCanyonRelease request on the calling thread
+	 * @return the response
+	 */
+	public Response getGrandCanyonRelease(String ed) {
 
 		logger.info("Received call to retrieve current VFR product release for edition '"
 				+ ed + "'.");
@@ -122,8 +132,16 @@ public class VFRCharts extends BaseService {
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
 
-	public Response getGrandCanyonEdition(
+	public void getGrandCanyonEdition(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition information is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed) {
+		respond(asyncResponse, () -> getGrandCanyonEdition(ed));
+	}
+
+	/**
+	 * Build the response of the getGrandCanyonEdition request on the calling thread
+	 * @return the response
+	 */
+	public Response getGrandCanyonEdition(String ed) {
 
 		logger.info("Received call to retrieve current VFR product edition for edition '"
 				+ ed + "'.");
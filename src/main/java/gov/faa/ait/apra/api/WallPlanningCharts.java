@@ -39,6 +39,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -82,9 +84,17 @@ public class WallPlanningCharts extends BaseService {
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
 	
-	public Response getProductRelease(
+	public void getProductRelease(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed, 
 			@ApiParam (name="format", value="Format of the requested chart. TIFF format contains georeferenced charts contained within a zip archive and PDF is non-georeferenced charts. If omitted, the default PDF format is returned.", allowableValues="tiff, pdf", defaultValue="pdf", allowMultiple=false, required=false) @QueryParam("format") String fmt) {
+		respond(asyncResponse, () -> getProductRelease(ed, fmt));
+	}
+
+	/**
+	 * Build the response of the getProductRelease request on the calling thread
+	 * @return the response
+	 */
+	public Response getProductRelease(String ed, String fmt) {
 
 
 		logger.info("Received call to retrieve current WallPlan product release for edition '"
@@ -125,9 +135,17 @@ public class WallPlanningCharts extends BaseService {
 			@ApiResponse(code = 404, message = ERROR_404),
 			@ApiResponse(code = 500, message = ERROR_500)})
 
-	public Response getProductEdition(
+	public void getProductEdition(@Suspended AsyncResponse asyncResponse,
 			@ApiParam(name="edition", value="Requested product edition. If omitted, the default current edition information is returned.", allowableValues="current, next", defaultValue="current", allowMultiple=false, required=false) @QueryParam("edition") String ed,
 			@ApiParam (name="format", value="Format of the requested chart. TIFF format contains georeferenced charts in a zip archive file and PDF is non-georeferenced charts. If omitted, the default PDF format is used.", allowableValues="tiff, pdf", defaultValue="pdf", allowMultiple=false, required=false)  @QueryParam("format") String fmt) {
+		respond(asyncResponse, () -> getProductEdition(ed, fmt));
+	}
+
+	/**
+	 * Build the response of the getProductEdition request on the calling thread
+	 * @return the response
+	 */
+	public Response getProductEdition(String ed, String fmt) {
 
 		logger.info("Received call to retrieve current WallPlan product release for edition '"
 				+ ed + " format'" + fmt + "'.");
@@ -13,15 +13,23 @@
  */
 package gov.faa.ait.apra.api.management;
 
+import java.util.Date;
+
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 
+import gov.faa.ait.apra.api.LinkVerifier;
 import gov.faa.ait.apra.bootstrap.Config;
 import gov.faa.ait.apra.cycle.ChartCycleClient;
+import gov.faa.ait.apra.cycle.HelicopterChartCycleClient;
 import gov.faa.ait.apra.cycle.TACCycleClient;
-import gov.faa.ait.apra.util.URLCache;
+import gov.faa.ait.apra.util.DenodoGateway;
+import gov.faa.ait.apra.util.LinkCheckClient;
+import gov.faa.ait.apra.util.ResponseCache;
+import gov.faa.ait.apra.util.TPPMetadataStore;
+import gov.faa.ait.apra.util.URLHealthRegistry;
 import gov.faa.ait.apra.cycle.VFRChartCycleClient;
 import gov.faa.ait.apra.cycle.WallPlanningChartCycleClient;
 
@@ -77,7 +85,8 @@ public class ManagementControl {
     @GET
     @Produces(MediaType.TEXT_PLAIN)
 	/**
-	 * This method flushes the cache for the ChartCycleClient, TAC cycle, VFR cycle, and Wall Planning cycle
+	 * This method flushes the cache for the ChartCycleClient, TAC cycle, VFR and Gulf of Mexico cycles, Wall Planning cycle, and a loaded Helicopter cycle,
+	 * along with the URL, TPP metadata and rendered response caches
 	 * @return the string "Cycle reload complete"
 	 */
 	public String refresh() {
@@ -87,14 +96,44 @@ public class ManagementControl {
 		tacCycleClient.forceUpdate();
 		VFRChartCycleClient vfrClient = new VFRChartCycleClient();
 		vfrClient.forceUpdate();
+		VFRChartCycleClient gomClient = new VFRChartCycleClient(VFRChartCycleClient.GULF_OF_MEXICO);
+		gomClient.forceUpdate();
 		WallPlanningChartCycleClient wpClient = new WallPlanningChartCycleClient();
 		wpClient.forceUpdate();
 		
-		URLCache.getInstance().flush();
+		if (HelicopterChartCycleClient.getCache().peek() != null) {
+			HelicopterChartCycleClient.getCache().refresh(new Date(System.currentTimeMillis()));
+		}
+		
+		URLHealthRegistry.getInstance().flush();
+		TPPMetadataStore.flush();
+		ResponseCache.getInstance().flush();
 		
 		return "Cycle Reload Complete";
 	}
 
+	@Path("/links")
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+	/**
+	 * Report the use of the URL check client and the last run of the background link verifier
+	 * @return the connection reuse of the client, the verifier state, the number of links checked, and each link that was not found
+	 */
+	public String getLinkStatus() {
+		return LinkCheckClient.getInstance().getStatus()+"\n"+LinkVerifier.getStatus();
+	}
+
+	@Path("/breakers")
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+	/**
+	 * Report the state of the circuit breakers guarding denodo and the HEAD checks
+	 * @return one line per breaker with its state, recent failures and refused calls
+	 */
+	public String getBreakerStatus() {
+		return DenodoGateway.getInstance().getBreaker().getStatus()+"\n"+LinkCheckClient.getInstance().getBreaker().getStatus();
+	}
+
 	@Path("/config")
     @GET
     @Produces(MediaType.TEXT_PLAIN)
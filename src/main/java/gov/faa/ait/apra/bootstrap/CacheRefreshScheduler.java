@@ -0,0 +1,165 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.bootstrap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.cycle.ChartCycleClient;
+import gov.faa.ait.apra.cycle.HelicopterChartCycleClient;
+import gov.faa.ait.apra.cycle.TACCycleClient;
+import gov.faa.ait.apra.cycle.VFRChartCycleClient;
+import gov.faa.ait.apra.cycle.WallPlanningChartCycleClient;
+import gov.faa.ait.apra.util.TPPMetadataStore;
+import gov.faa.ait.apra.util.TableChartClient;
+
+/**
+ * Refreshes the cycle and reference data caches in the background ahead of their expiry so that 
+ * request threads only read from memory. Each cache is loaded once at startup and then checked 
+ * when a configured percentage of the cycle age limit has passed. The cycle caches are only 
+ * reloaded when they expire within the age limit, and stage the next edition ahead of its 
+ * effective date. The caches are checked one after another in a single round, and a random jitter 
+ * is subtracted from the delay between rounds so the servers do not all reach denodo at the same 
+ * moment. The snapshot file is saved once at the end of a round in which any cache published new data.
+ * 
+ * @author FAA
+ *
+ */
+public class CacheRefreshScheduler {
+	private static final Logger logger = LoggerFactory.getLogger(CacheRefreshScheduler.class);
+	private static final Map <String, BooleanSupplier> tasks = new LinkedHashMap <> ();
+	private static ScheduledExecutorService scheduler;
+	
+	static {
+		tasks.put("28/56 day chart cycle", () -> ChartCycleClient.getCache().refreshAhead());
+		tasks.put("VFR chart cycle", () -> VFRChartCycleClient.getCache(VFRChartCycleClient.GRAND_CANYON).refreshAhead());
+		tasks.put("Gulf of Mexico chart cycle", () -> VFRChartCycleClient.getCache(VFRChartCycleClient.GULF_OF_MEXICO).refreshAhead());
+		tasks.put("TAC chart cycle", () -> TACCycleClient.getCache().refreshAhead());
+		tasks.put("Helicopter chart cycle", CacheRefreshScheduler::refreshHelicopterCycle);
+		tasks.put("wall planning chart cycle", () -> WallPlanningChartCycleClient.getCache().refreshAhead());
+		tasks.put("sectional chart table", TableChartClient::refreshAhead);
+		tasks.put("US state reference data", USStateReferenceData::refresh);
+		tasks.put("TPP metadata", TPPMetadataStore::refresh);
+	}
+	
+	private CacheRefreshScheduler () { }
+	
+	private static boolean refreshHelicopterCycle () {
+		// The helicopter services are served from the sectional table, so only keep this cache fresh once a client has loaded it
+		return HelicopterChartCycleClient.getCache().peek() != null && HelicopterChartCycleClient.getCache().refreshAhead();
+	}
+	
+	/**
+	 * Start the background refresh of all caches. Does nothing if the refresh is disabled in the 
+	 * configuration or has already been started.
+	 */
+	public static synchronized void start () {
+		if (! Config.getCacheRefreshFlag()) {
+			logger.info("Background cache refresh is disabled. Caches are refreshed on the request thread.");
+			return;
+		}
+		
+		if (scheduler != null) {
+			return;
+		}
+		
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "apra-cache-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		schedule(0);
+		
+		logger.info("Background cache refresh started for "+tasks.size()+" caches.");
+	}
+	
+	/**
+	 * Stop the background refresh. Any refresh that is running is interrupted.
+	 */
+	public static synchronized void stop () {
+		if (scheduler == null) {
+			return;
+		}
+		
+		scheduler.shutdownNow();
+		scheduler = null;
+		logger.info("Background cache refresh stopped.");
+	}
+	
+	private static synchronized void schedule (long delay) {
+		if (scheduler == null) {
+			return;
+		}
+		
+		scheduler.schedule(() -> {
+			runRound();
+			schedule(getNextDelay());
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Check every cache once and save the snapshot file if any of them published new data
+	 */
+	private static void runRound () {
+		boolean published = false;
+		
+		for (Map.Entry <String, BooleanSupplier> task : tasks.entrySet()) {
+			published |= run(task.getKey(), task.getValue());
+		}
+		
+		if (published) {
+			CacheSnapshotStore.save();
+		}
+	}
+	
+	private static boolean run (String name, BooleanSupplier task) {
+		long now = System.currentTimeMillis();
+		
+		try {
+			boolean published = task.getAsBoolean();
+			logger.info("Background refresh of the "+name+" cache took "+(System.currentTimeMillis() - now)+" ms"
+					+(published ? " and published new data" : ""));
+			return published;
+		}
+		catch (Exception ex) {
+			logger.warn("Background refresh of the "+name+" cache failed. The previous data remains in use.", ex);
+			return false;
+		}
+	}
+	
+	/**
+	 * Calculate the delay until the next refresh as a percentage of the cycle age limit less a random jitter
+	 * @return the delay in milliseconds
+	 */
+	private static long getNextDelay () {
+		long ageLimit = TimeUnit.HOURS.toMillis(Config.getCycleAgeLimit());
+		long delay = ageLimit * Config.getCacheRefreshAheadPercent() / 100;
+		long jitter = delay * Config.getCacheRefreshJitterPercent() / 100;
+		
+		if (jitter > 0) {
+			delay -= ThreadLocalRandom.current().nextLong(jitter);
+		}
+		
+		return Math.max(delay, TimeUnit.MINUTES.toMillis(1));
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.bootstrap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import gov.faa.ait.apra.cycle.ChartCycleData;
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.cycle.CycleSnapshot;
+import gov.faa.ait.apra.util.TPPMetadataStore;
+import gov.faa.ait.apra.util.TableChartClient;
+import gov.faa.ait.apra.util.URLHealthRegistry;
+
+/**
+ * Saves the chart cycle snapshots, the sectional table, the state reference data, the TPP metadata and the
+ * URL health results to a local gzip compressed json file, and restores them when the application starts
+ * so a restarted server answers from warm caches even if denodo cannot be reached. The file is replaced
+ * after each background refresh and on shutdown. Restored data keeps the time it was loaded from denodo,
+ * so data that has expired since is served as stale data while it is reloaded. A file older than the
+ * configured maximum age is ignored.
+ *
+ * @author FAA
+ *
+ */
+public final class CacheSnapshotStore {
+	private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotStore.class);
+	private static final ObjectMapper mapper = createMapper();
+
+	private CacheSnapshotStore () { }
+
+	/**
+	 * Restore the caches from the snapshot file. Does nothing if snapshots are disabled or there is no usable file.
+	 */
+	public static void restore () {
+		if (! Config.getCacheSnapshotFlag()) {
+			return;
+		}
+
+		Path file = getFile();
+
+		if (! Files.isRegularFile(file)) {
+			logger.info("No cache snapshot found at "+file+". The caches are loaded from denodo.");
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		SnapshotFile snapshot;
+
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+			snapshot = mapper.readValue(in, SnapshotFile.class);
+		}
+		catch (IOException | RuntimeException ex) {
+			logger.warn("Unable to read the cache snapshot "+file+". The caches are loaded from denodo.", ex);
+			return;
+		}
+
+		if (now - snapshot.savedAt > TimeUnit.HOURS.toMillis(Config.getCacheSnapshotMaxAge())) {
+			logger.info("The cache snapshot "+file+" saved "+new Date(snapshot.savedAt)+" is too old to restore. The caches are loaded from denodo.");
+			return;
+		}
+
+		try {
+			apply(snapshot);
+			logger.info("Restored "+snapshot.cycles.size()+" chart cycles, "+snapshot.states.size()+" states, "+snapshot.tppEditions.size()
+					+" TPP editions and "+(snapshot.found.size() + snapshot.missing.size())+" URL checks saved "+new Date(snapshot.savedAt)
+					+" in "+(System.currentTimeMillis() - now)+" ms");
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Unable to restore the cache snapshot "+file+". The remaining caches are loaded from denodo.", ex);
+		}
+	}
+
+	private static void apply (SnapshotFile snapshot) {
+		for (Map.Entry <String, SavedCycle> cycle : snapshot.cycles.entrySet()) {
+			CycleSnapshot saved = cycle.getValue().toSnapshot();
+
+			if (saved != null) {
+				CycleCache.restore(cycle.getKey(), saved);
+			}
+		}
+
+		CycleSnapshot sectional = snapshot.sectionalTable == null ? null : snapshot.sectionalTable.toSnapshot();
+		if (sectional != null) {
+			TableChartClient.restore(sectional);
+		}
+
+		USStateReferenceData.restore(snapshot.states);
+		snapshot.tppEditions.forEach(TPPMetadataStore::restore);
+
+		// The URL results are restored last so they are kept for the restored cycle version
+		URLHealthRegistry registry = URLHealthRegistry.getInstance();
+		snapshot.found.forEach((url, checkedAt) -> registry.restore(url, true, checkedAt));
+		snapshot.missing.forEach((url, checkedAt) -> registry.restore(url, false, checkedAt));
+	}
+
+	/**
+	 * Write the current content of the caches to the snapshot file. The file is written to a temporary
+	 * file first and then moved into place, so a reader never sees a partly written snapshot.
+	 */
+	public static synchronized void save () {
+		if (! Config.getCacheSnapshotFlag()) {
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		SnapshotFile snapshot = new SnapshotFile();
+		snapshot.savedAt = now;
+
+		for (Map.Entry <String, CycleSnapshot> cycle : CycleCache.getSnapshots().entrySet()) {
+			snapshot.cycles.put(cycle.getKey(), new SavedCycle(cycle.getValue()));
+		}
+
+		CycleSnapshot sectional = TableChartClient.getSnapshot();
+		snapshot.sectionalTable = sectional == null ? null : new SavedCycle(sectional);
+		snapshot.states = USStateReferenceData.getStates();
+		snapshot.tppEditions = TPPMetadataStore.getEditions();
+		snapshot.found = URLHealthRegistry.getInstance().getResults(true);
+		snapshot.missing = URLHealthRegistry.getInstance().getResults(false);
+
+		Path file = getFile();
+		Path temp = file.resolveSibling(file.getFileName()+".tmp");
+
+		try {
+			try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+				mapper.writeValue(out, snapshot);
+			}
+
+			try {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException eatomic) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			logger.info("Saved the caches to "+file+" in "+(System.currentTimeMillis() - now)+" ms");
+		}
+		catch (IOException | RuntimeException ex) {
+			logger.warn("Unable to save the cache snapshot to "+file, ex);
+
+			try {
+				Files.deleteIfExists(temp);
+			}
+			catch (IOException eio) {
+				logger.debug("Unable to remove "+temp, eio);
+			}
+		}
+	}
+
+	/*
+	 * A relative file name is placed in the temporary directory of the server
+	 */
+	private static Path getFile () {
+		return Paths.get(System.getProperty("java.io.tmpdir")).resolve(Config.getCacheSnapshotFile());
+	}
+
+	private static ObjectMapper createMapper () {
+		// The cached classes are written field by field, as some getters substitute values for missing data
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+		objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+		objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		return objectMapper;
+	}
+
+	/**
+	 * The content of the snapshot file
+	 */
+	private static final class SnapshotFile {
+		private long savedAt;
+		private Map <String, SavedCycle> cycles = new HashMap <> ();
+		private SavedCycle sectionalTable;
+		private Map <String, String> states = new HashMap <> ();
+		private Map <String, TPPMetadataStore.SavedEdition> tppEditions = new HashMap <> ();
+		private Map <String, Long> found = new HashMap <> ();
+		private Map <String, Long> missing = new HashMap <> ();
+	}
+
+	/**
+	 * A chart cycle response with the query date and the time it was loaded
+	 */
+	private static final class SavedCycle {
+		private ChartCycleData data;
+		private long queryDate;
+		private long loadedAt;
+
+		private SavedCycle () { }
+
+		private SavedCycle (CycleSnapshot snapshot) {
+			this.data = snapshot.getData();
+			this.queryDate = snapshot.getQueryDate().getTime();
+			this.loadedAt = snapshot.getLoadedAt().getTime();
+		}
+
+		private CycleSnapshot toSnapshot () {
+			if (data == null) {
+				return null;
+			}
+
+			return new CycleSnapshot(data, new Date(queryDate), new Date(loadedAt));
+		}
+	}
+}
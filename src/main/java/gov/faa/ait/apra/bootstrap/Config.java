@@ -44,6 +44,54 @@ public class Config {
 	private static final String FAA_DMZ_PROXY_HOST=null;
 	private static final String FAA_DMZ_PROXY_PORT="8080";	
 	private static final String CYCLE_AGE_LIMIT = "1";
+	private static final String CYCLE_EXPIRY_MARGIN = "60";
+	private static final String CYCLE_EXPIRY_OVERRIDE = "0";
+	private static final String CYCLE_SOURCE = "computed";
+	private static final String CYCLE_RECONCILE_INTERVAL = "24";
+	private static final String DENODO_CONNECT_TIMEOUT = "5000";
+	private static final String DENODO_READ_TIMEOUT = "30000";
+	private static final String DENODO_MAX_CONNECTIONS = "40";
+	private static final String DENODO_MAX_CONNECTIONS_PER_ROUTE = "20";
+	private static final String CACHE_REFRESH_FLAG = "true";
+	private static final String CACHE_REFRESH_AHEAD_PERCENT = "75";
+	private static final String CACHE_REFRESH_JITTER_PERCENT = "10";
+	private static final String TPP_METADATA_EDITIONS = "3";
+	private static final String TPP_METADATA_RELOAD = "24";
+	private static final String TPP_METADATA_EMPTY_TTL = "15";
+	private static final String CACHE_SNAPSHOT_FLAG = "true";
+	private static final String CACHE_SNAPSHOT_FILE = "apra-cache-snapshot.json.gz";
+	private static final String CACHE_SNAPSHOT_MAX_AGE = "720";
+	private static final String RESPONSE_STREAMING_FLAG = "true";
+	private static final String PAGE_LIMIT_MAX = "1000";
+	private static final String RESPONSE_CACHE_FLAG = "true";
+	private static final String RESPONSE_CACHE_MAX_MB = "64";
+	private static final String RESPONSE_CACHE_MAX_AGE = "60";
+	private static final String RESPONSE_GZIP_FLAG = "true";
+	private static final String URL_CHECK_THREADS = "16";
+	private static final String REQUEST_THREADS = "64";
+	private static final String EXECUTION_MODE = "platform";
+	private static final String REQUEST_TIMEOUT = "40000";
+	private static final String URL_CHECK_DEADLINE = "5000";
+	private static final String URL_CHECK_CONNECT_TIMEOUT = "2000";
+	private static final String URL_CHECK_READ_TIMEOUT = "3000";
+	private static final String URL_CHECK_MAX_CONNECTIONS = "40";
+	private static final String URL_CHECK_MAX_CONNECTIONS_PER_ROUTE = "20";
+	private static final String URL_CHECK_SLOW_CALL_DURATION = "2000";
+	private static final String DENODO_SLOW_CALL_DURATION = "10000";
+	private static final String BREAKER_WINDOW_SIZE = "20";
+	private static final String BREAKER_MINIMUM_CALLS = "10";
+	private static final String BREAKER_FAILURE_RATE = "50";
+	private static final String BREAKER_SLOW_CALL_RATE = "80";
+	private static final String BREAKER_OPEN_DURATION = "30000";
+	private static final String BREAKER_HALF_OPEN_CALLS = "3";
+	private static final String REVALIDATE_BACKOFF = "30";
+	private static final String REVALIDATE_BACKOFF_MAX = "1800";
+	private static final String URL_HEALTH_POSITIVE_TTL = "720";
+	private static final String URL_HEALTH_NEGATIVE_TTL = "5";
+	private static final String LINK_VERIFIER_FLAG = "true";
+	private static final String LINK_VERIFIER_THREADS = "4";
+	private static final String LINK_VERIFIER_RATE = "20";
+	private static final String LINK_VERIFIER_INTERVAL = "360";
 	private static final String AERONAV_SECTIONAL_FOLDER="/content/aeronav/sectional_files";
 	private static final String WALLPLAN_UPLOAD_FOLDER="/content/aeronav/grand_canyon_files";
 	private static final String VFR_UPLOAD_FOLDER="/content/aeronav/grand_canyon_files";
@@ -186,6 +234,267 @@ public class Config {
 		return Integer.valueOf(intValue);
 	}
 
+	public static int getCycleExpiryMargin () {
+		String intValue = cfg.getProperty("gov.faa.ait.cycle.expiry.margin", CYCLE_EXPIRY_MARGIN);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getCycleExpiryOverride () {
+		String intValue = cfg.getProperty("gov.faa.ait.cycle.expiry.override", CYCLE_EXPIRY_OVERRIDE);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static String getCycleSource () {
+		return cfg.getProperty("gov.faa.ait.cycle.source", CYCLE_SOURCE).trim();
+	}
+
+	public static int getCycleReconcileInterval () {
+		String intValue = cfg.getProperty("gov.faa.ait.cycle.reconcile.interval", CYCLE_RECONCILE_INTERVAL);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getTPPMetadataEditions () {
+		String intValue = cfg.getProperty("gov.faa.ait.tpp.metadata.editions", TPP_METADATA_EDITIONS);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getTPPMetadataReload () {
+		String intValue = cfg.getProperty("gov.faa.ait.tpp.metadata.reload", TPP_METADATA_RELOAD);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getTPPMetadataEmptyTTL () {
+		String intValue = cfg.getProperty("gov.faa.ait.tpp.metadata.empty.ttl", TPP_METADATA_EMPTY_TTL);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getDenodoConnectTimeout () {
+		String intValue = cfg.getProperty("gov.faa.ait.denodo.connect.timeout", DENODO_CONNECT_TIMEOUT);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getDenodoReadTimeout () {
+		String intValue = cfg.getProperty("gov.faa.ait.denodo.read.timeout", DENODO_READ_TIMEOUT);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getDenodoMaxConnections () {
+		String intValue = cfg.getProperty("gov.faa.ait.denodo.max.connections", DENODO_MAX_CONNECTIONS);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getDenodoMaxConnectionsPerRoute () {
+		String intValue = cfg.getProperty("gov.faa.ait.denodo.max.connections.per.route", DENODO_MAX_CONNECTIONS_PER_ROUTE);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static boolean getCacheRefreshFlag () {
+		String flag = cfg.getProperty("gov.faa.ait.cache.refresh.flag", CACHE_REFRESH_FLAG);
+		
+		if (flag == null) 
+			return false;
+		
+		return Boolean.valueOf(flag.trim());
+	}
+
+	public static boolean getCacheSnapshotFlag () {
+		String flag = cfg.getProperty("gov.faa.ait.cache.snapshot.flag", CACHE_SNAPSHOT_FLAG);
+		
+		if (flag == null) 
+			return false;
+		
+		return Boolean.valueOf(flag.trim());
+	}
+
+	public static String getCacheSnapshotFile () {
+		return cfg.getProperty("gov.faa.ait.cache.snapshot.file", CACHE_SNAPSHOT_FILE).trim();
+	}
+
+	public static int getCacheSnapshotMaxAge () {
+		String intValue = cfg.getProperty("gov.faa.ait.cache.snapshot.max.age", CACHE_SNAPSHOT_MAX_AGE);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static boolean getResponseStreamingFlag () {
+		String flag = cfg.getProperty("gov.faa.ait.response.streaming.flag", RESPONSE_STREAMING_FLAG);
+		
+		if (flag == null) 
+			return false;
+		
+		return Boolean.valueOf(flag.trim());
+	}
+
+	public static int getPageLimitMax () {
+		String intValue = cfg.getProperty("gov.faa.ait.page.limit.max", PAGE_LIMIT_MAX);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static boolean getResponseCacheFlag () {
+		String flag = cfg.getProperty("gov.faa.ait.response.cache.flag", RESPONSE_CACHE_FLAG);
+		
+		if (flag == null) 
+			return false;
+		
+		return Boolean.valueOf(flag.trim());
+	}
+
+	public static boolean getResponseGzipFlag () {
+		String flag = cfg.getProperty("gov.faa.ait.response.gzip.flag", RESPONSE_GZIP_FLAG);
+		
+		if (flag == null) 
+			return false;
+		
+		return Boolean.valueOf(flag.trim());
+	}
+
+	public static String getExecutionMode () {
+		return cfg.getProperty("gov.faa.ait.execution.mode", EXECUTION_MODE).trim();
+	}
+
+	public static int getRequestThreads () {
+		String intValue = cfg.getProperty("gov.faa.ait.request.threads", REQUEST_THREADS);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getRequestTimeout () {
+		String intValue = cfg.getProperty("gov.faa.ait.request.timeout", REQUEST_TIMEOUT);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getURLCheckThreads () {
+		String intValue = cfg.getProperty("gov.faa.ait.url.check.threads", URL_CHECK_THREADS);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getURLCheckDeadline () {
+		String intValue = cfg.getProperty("gov.faa.ait.url.check.deadline", URL_CHECK_DEADLINE);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getURLCheckConnectTimeout () {
+		String intValue = cfg.getProperty("gov.faa.ait.url.check.connect.timeout", URL_CHECK_CONNECT_TIMEOUT);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getURLCheckReadTimeout () {
+		String intValue = cfg.getProperty("gov.faa.ait.url.check.read.timeout", URL_CHECK_READ_TIMEOUT);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getURLCheckMaxConnections () {
+		String intValue = cfg.getProperty("gov.faa.ait.url.check.max.connections", URL_CHECK_MAX_CONNECTIONS);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getURLCheckMaxConnectionsPerRoute () {
+		String intValue = cfg.getProperty("gov.faa.ait.url.check.max.connections.per.route", URL_CHECK_MAX_CONNECTIONS_PER_ROUTE);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getURLCheckSlowCallDuration () {
+		String intValue = cfg.getProperty("gov.faa.ait.url.check.slow.call.duration", URL_CHECK_SLOW_CALL_DURATION);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getDenodoSlowCallDuration () {
+		String intValue = cfg.getProperty("gov.faa.ait.denodo.slow.call.duration", DENODO_SLOW_CALL_DURATION);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getBreakerWindowSize () {
+		String intValue = cfg.getProperty("gov.faa.ait.breaker.window.size", BREAKER_WINDOW_SIZE);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getBreakerMinimumCalls () {
+		String intValue = cfg.getProperty("gov.faa.ait.breaker.minimum.calls", BREAKER_MINIMUM_CALLS);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getBreakerFailureRate () {
+		String intValue = cfg.getProperty("gov.faa.ait.breaker.failure.rate", BREAKER_FAILURE_RATE);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getBreakerSlowCallRate () {
+		String intValue = cfg.getProperty("gov.faa.ait.breaker.slow.call.rate", BREAKER_SLOW_CALL_RATE);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getBreakerOpenDuration () {
+		String intValue = cfg.getProperty("gov.faa.ait.breaker.open.duration", BREAKER_OPEN_DURATION);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getBreakerHalfOpenCalls () {
+		String intValue = cfg.getProperty("gov.faa.ait.breaker.half.open.calls", BREAKER_HALF_OPEN_CALLS);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getRevalidateBackoff () {
+		String intValue = cfg.getProperty("gov.faa.ait.revalidate.backoff", REVALIDATE_BACKOFF);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getRevalidateBackoffMax () {
+		String intValue = cfg.getProperty("gov.faa.ait.revalidate.backoff.max", REVALIDATE_BACKOFF_MAX);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getURLHealthPositiveTTL () {
+		String intValue = cfg.getProperty("gov.faa.ait.url.health.positive.ttl", URL_HEALTH_POSITIVE_TTL);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getURLHealthNegativeTTL () {
+		String intValue = cfg.getProperty("gov.faa.ait.url.health.negative.ttl", URL_HEALTH_NEGATIVE_TTL);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static boolean getLinkVerifierFlag () {
+		String flag = cfg.getProperty("gov.faa.ait.link.verifier.flag", LINK_VERIFIER_FLAG);
+		
+		if (flag == null) 
+			return false;
+		
+		return Boolean.valueOf(flag.trim());
+	}
+
+	public static int getLinkVerifierThreads () {
+		String intValue = cfg.getProperty("gov.faa.ait.link.verifier.threads", LINK_VERIFIER_THREADS);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getLinkVerifierRate () {
+		String intValue = cfg.getProperty("gov.faa.ait.link.verifier.rate", LINK_VERIFIER_RATE);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getLinkVerifierInterval () {
+		String intValue = cfg.getProperty("gov.faa.ait.link.verifier.interval", LINK_VERIFIER_INTERVAL);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getResponseCacheMaxMB () {
+		String intValue = cfg.getProperty("gov.faa.ait.response.cache.max.mb", RESPONSE_CACHE_MAX_MB);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getResponseCacheMaxAge () {
+		String intValue = cfg.getProperty("gov.faa.ait.response.cache.max.age", RESPONSE_CACHE_MAX_AGE);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getCacheRefreshAheadPercent () {
+		String intValue = cfg.getProperty("gov.faa.ait.cache.refresh.ahead.percent", CACHE_REFRESH_AHEAD_PERCENT);
+		return Integer.valueOf(intValue.trim());
+	}
+
+	public static int getCacheRefreshJitterPercent () {
+		String intValue = cfg.getProperty("gov.faa.ait.cache.refresh.jitter.percent", CACHE_REFRESH_JITTER_PERCENT);
+		return Integer.valueOf(intValue.trim());
+	}
+
 	public static String getEnrouteFolder() {
 		return cfg.getProperty("gov.faa.ait.aeronav.enroute.upload.folder", ENROUTE_FOLDER);		
 	}
@@ -27,5 +27,6 @@ public class ErrorCodes {
 	public static final String ERROR_400="Illegal arguments provided to service. One or more of the service parameter values is invalid";
 	public static final String ERROR_404="Requested edition has not been released for download or could not be found on the FAA aeronav web site.";
 	public static final String ERROR_500="Internal service error occurred which prevented a valid response from being returned.";
+	public static final String ERROR_503="The response could not be prepared in time. Please retry the request later.";
 	public static final String DEPRECATED="This product has been deprecated and is no longer published by the FAA.";
 }
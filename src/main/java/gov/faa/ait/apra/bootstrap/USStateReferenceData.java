@@ -13,71 +13,125 @@
  */
 package gov.faa.ait.apra.bootstrap;
 
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
-
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Charsets;
-
 import gov.faa.ait.apra.json.USState;
 import gov.faa.ait.apra.json.USStateReference;
+import gov.faa.ait.apra.util.DenodoGateway;
+import gov.faa.ait.apra.util.Revalidator;
 
 /**
  * The state reference data is loaded from an external REST service. 
- * The service provides state names and abbreviations.
+ * The service provides state names and abbreviations. The data is loaded on first use unless it 
+ * was restored from the cache snapshot file at startup.
  * @author FAA
  *
  */
 public class USStateReferenceData {
 	private static final Logger logger  = LoggerFactory.getLogger(USStateReferenceData.class);
-	private static HashMap <String, String> stateByName = new HashMap <> ();
-	private static HashMap <String, String> stateByAbbreviation = new HashMap <> ();
+	private static volatile Map <String, String> stateByName = new HashMap <> ();
+	private static volatile Map <String, String> stateByAbbreviation = new HashMap <> ();
+	private static final Revalidator revalidator = new Revalidator("US state reference data");
 	
 	private USStateReferenceData() { } 
 	
-	static {
-		USStateReferenceData.loadStateData();
+	/**
+	 * Reload the state reference data from Denodo. The existing data is replaced only when the 
+	 * reload succeeds, so lookups continue to use the previous data while the reload runs.
+	 * @return true if the reloaded data differs from the previous data
+	 */
+	public static boolean refresh () {
+		Map <String, String> previous = stateByAbbreviation;
+		boolean loaded = USStateReferenceData.loadStateData();
+		revalidator.record(loaded);
+		return loaded && ! previous.equals(stateByAbbreviation);
+	}
+	
+	/**
+	 * Get the state names by abbreviation
+	 * @return a copy of the loaded state reference data
+	 */
+	public static Map <String, String> getStates () {
+		return new HashMap <> (stateByAbbreviation);
+	}
+	
+	/**
+	 * Restore the state reference data saved by a previous run. Nothing is restored if the data is already loaded.
+	 * @param states the state names by abbreviation
+	 */
+	public static synchronized void restore (Map <String, String> states) {
+		if (! stateByName.isEmpty() || states.isEmpty()) {
+			return;
+		}
+		
+		Map <String, String> byName = new HashMap <> ();
+		for (Map.Entry <String, String> state : states.entrySet()) {
+			byName.put(state.getValue(), state.getKey());
+		}
+		
+		stateByAbbreviation = Collections.unmodifiableMap(new HashMap <> (states));
+		stateByName = Collections.unmodifiableMap(byName);
+	}
+	
+	/*
+	 * Load the data on first use. Callers wait for the load, but not during the backoff after a failed load.
+	 */
+	private static void ensureLoaded () {
+		if (! stateByName.isEmpty()) {
+			return;
+		}
+		
+		synchronized (USStateReferenceData.class) {
+			if (stateByName.isEmpty()) {
+				revalidator.revalidateNow(USStateReferenceData::loadStateData);
+			}
+		}
 	}
 	
 	/**
 	 * Load the state reference data from Denodo. 
+	 * @return true if the data was loaded
 	 */
-	private static void loadStateData () {
+	private static boolean loadStateData () {
 		logger.info("Starting load of US state reference data from denodo");
 		try {
 			StringBuilder url = new StringBuilder();
 			url = url.append(Config.getDenodoHost()).append(Config.getDenodoViewPath()).append("/state_reference?%24format=json");
 			
-			Client client = ClientBuilder.newClient();	
-			
-			WebTarget webTarget = client.target(url.toString());
 			long now = System.currentTimeMillis();
-			String unbound = webTarget.request(MediaType.APPLICATION_XML_TYPE).get(String.class);
+			USStateReference data = DenodoGateway.getInstance().get(url.toString(), USStateReference.class);
 			long duration = System.currentTimeMillis() - now;
 			logger.info("Call US state reference data took "+duration+" ms");
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
-			USStateReference data = mapper.readValue(unbound.getBytes(Charsets.UTF_16), USStateReference.class);
 			USState [] states = data.getElements();
+			Map <String, String> byAbbreviation = new HashMap <> ();
+			Map <String, String> byName = new HashMap <> ();
 			
 			for (int i = 0; i < states.length; i++) {
-				stateByAbbreviation.put(states[i].getAbbreviation().toUpperCase(), states[i].getName().toUpperCase());
-				stateByName.put(states[i].getName().toUpperCase(), states[i].getAbbreviation().toUpperCase());
+				byAbbreviation.put(states[i].getAbbreviation().toUpperCase(), states[i].getName().toUpperCase());
+				byName.put(states[i].getName().toUpperCase(), states[i].getAbbreviation().toUpperCase());
 			}
+			
+			if (byName.isEmpty()) {
+				logger.warn("Denodo returned no US state reference data. Keeping the existing data.");
+				return false;
+			}
+			
+			// Publish fully built maps so readers never see a partially loaded data set
+			stateByAbbreviation = Collections.unmodifiableMap(byAbbreviation);
+			stateByName = Collections.unmodifiableMap(byName);
+			return true;
 		}
 		catch (Exception ex) {
 			logger.warn("Unable to load the US state reference data from denodo", ex);
+			return false;
 		}
 	}
 	
@@ -87,6 +141,7 @@ public class USStateReferenceData {
 	 * @return
 	 */
 	public static String getAbbreviation (String stateName) {
+		ensureLoaded();
 		return stateByName.get(stateName);
 	}
 	
@@ -96,15 +151,26 @@ public class USStateReferenceData {
 	 * @return
 	 */
 	public static String getStateName (String abbreviation) {
+		ensureLoaded();
 		return stateByAbbreviation.get(abbreviation);
 	}
 	
+	/**
+	 * Get the names of all the states in the reference data
+	 * @return the upper case state names
+	 */
+	public static List <String> getStateNames () {
+		ensureLoaded();
+		return new ArrayList <> (stateByName.keySet());
+	}
+	
 	/**
 	 * Check to see if a state exists in the reference data
 	 * @param stateName the name of the state to check
 	 * @return true if the state exists in the reference data set; false otherwise
 	 */
 	public static boolean stateNameExists (String stateName) {
+		ensureLoaded();
 		return stateByName.containsKey(stateName.toUpperCase(Locale.ENGLISH));
 	}
 	
@@ -114,6 +180,7 @@ public class USStateReferenceData {
 	 * @return true if the state exists in the reference data set; false otherwise
 	 */
 	public static boolean stateAbbreviationExists (String abbr) {
+		ensureLoaded();
 		return stateByAbbreviation.containsKey(abbr.toUpperCase(Locale.ENGLISH));
 	}
 	
@@ -14,24 +14,8 @@
  package gov.faa.ait.apra.cycle;
 
 
-import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.concurrent.TimeUnit;
-
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Charsets;
 
 import gov.faa.ait.apra.bootstrap.Config;
 
@@ -46,10 +30,8 @@ import gov.faa.ait.apra.bootstrap.Config;
  */
 public class ChartCycleClient extends DenodoClient {
 	private Date today;
-	private static ChartCycleData chartCycle;
-	private static Date lastCycleUpdate;
-	private static final Logger logger = 
-		LoggerFactory.getLogger(ChartCycleClient.class);
+	private static final CycleCache cache = new CycleCache("28/56 day chart cycle", new ComputedCycleSource(), 
+			new DenodoCycleSource("28/56 day chart cycle", ChartCycleClient::buildWebTarget));
 
 	/**
 	 * Construct the default chart cycle client to obtain the 28 day or 56 day chart 
@@ -58,10 +40,16 @@ public class ChartCycleClient extends DenodoClient {
 	public ChartCycleClient () {
 		this.today = new Date (System.currentTimeMillis());
 		
-		if (this.isUpdateRequired()) {
-			setLastUpdate();
-			setChartCycle(getChartCycle(true));
-		}
+		// Load the cache on first use. Afterwards this only reads the published snapshot.
+		cache.get();
+	}
+	
+	/**
+	 * Get the shared cache holding the 28/56 day chart cycle snapshot
+	 * @return the 28/56 day chart cycle cache
+	 */
+	public static CycleCache getCache () {
+		return cache;
 	}
 	
 	/**
@@ -69,11 +57,7 @@ public class ChartCycleClient extends DenodoClient {
 	 * @return the current chart cycle using today's date
 	 */
 	public ChartCycleData getChartCycle() {
-		if (! isUpdateRequired()) {
-			return ChartCycleClient.chartCycle;
-		}
-		
-		return forceUpdate();
+		return getData(cache.get());
 	}
 	
 	/**
@@ -89,79 +73,39 @@ public class ChartCycleClient extends DenodoClient {
 	 */
 	@Override
 	public ChartCycleData getChartCycle (Date targetDate, boolean forceUpdate) {
-		String url;
-		String unbound = "";
-		
 		if (forceUpdate) {
-			setLastUpdate();
-			setChartCycle(null);
+			// The new snapshot replaces the old one only once it is fully loaded
+			return getData(cache.refresh(targetDate));
 		}
 		
-		url = getWebTarget(targetDate);
-		
-		logger.info("Calling denodo for chart cycle at "+url);
-		
-		if (ChartCycleClient.chartCycle != null && ChartCycleClient.lastCycleUpdate != null) {
-			return ChartCycleClient.chartCycle;
-		}
-		
-		setLastUpdate();
-		
-		try {
-			Client client = ClientBuilder.newClient();	
-			
-			WebTarget webTarget = client.target(url);
-			long now = System.currentTimeMillis();
-			unbound = webTarget.request(MediaType.APPLICATION_XML_TYPE).get(String.class);
-			long duration = System.currentTimeMillis() - now;
-			logger.info("Call for 28/56 day chart cycle took "+duration+" ms");
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
-			setChartCycle (mapper.readValue(unbound.getBytes(Charsets.UTF_16), ChartCycleData.class));
-		}
-		catch (IOException ex) {
-			logger.warn("Error getting chart cycle information.", ex);
-			setChartCycle(null);
-			return null;
-		}
-
-		return ChartCycleClient.chartCycle;
+		return getData(cache.get());
+	}
+	
+	private static ChartCycleData getData (CycleSnapshot snapshot) {
+		return snapshot == null ? null : snapshot.getData();
 	}
 	
 	@Override
 	public Date getLastUpdate () {
-		return ChartCycleClient.lastCycleUpdate;
+		CycleSnapshot snapshot = cache.peek();
+		return snapshot == null ? null : snapshot.getLoadedAt();
 	}
 	
 	@Override
 	protected void setLastUpdate () {
-		setLastUpdateCycle();
-	}
-	
-	private static void setLastUpdateCycle () {
-		ChartCycleClient.lastCycleUpdate = new Date (System.currentTimeMillis());
+		// The load time is recorded on each published snapshot
 	}
 	
 	@Override
 	protected void setChartCycle (ChartCycleData value) {
-		ChartCycleClient.setChartCycleData(value);
-	}
-	
-	private static void setChartCycleData (ChartCycleData value) {
-		ChartCycleClient.chartCycle = value;
+		if (value != null) {
+			cache.publish(new CycleSnapshot(value, today));
+		}
 	}
 	
 	@Override
 	public boolean isUpdateRequired () {
-		if (ChartCycleClient.lastCycleUpdate == null || ChartCycleClient.chartCycle == null) {
-			return true;
-		}
-		
-		long diff = today.getTime() - ChartCycleClient.lastCycleUpdate.getTime();
-		long hours = TimeUnit.HOURS.convert(diff, TimeUnit.MILLISECONDS);
-		
-		return hours >= Config.getCycleAgeLimit();
+		return cache.isExpired();
 	}
 	
 	/**
@@ -174,25 +118,13 @@ public class ChartCycleClient extends DenodoClient {
 	 * @return
 	 */
 	public ChartCycleElementsJson getCycle (String periodCode, String typeCode) {
-		boolean found; 
+		CycleSnapshot snapshot = cache.get();
 		
-		if (isUpdateRequired()) {
-			getChartCycle(true);
+		if (snapshot == null) {
+			return null;
 		}
 		
-		if(ChartCycleClient.chartCycle !=null) {
-			ChartCycleElementsJson [] elements = ChartCycleClient.chartCycle.getElements();
-			for (int i = 0; i < elements.length; i++) {
-				ChartCycleElementsJson element = elements[i];
-				
-				found = element.getChart_cycle_period_code().equalsIgnoreCase(periodCode)
-						& element.getChart_cycle_type_code().equalsIgnoreCase(typeCode);
-				if (found) {
-					return element;
-				}
-			}
-		}
-		return null;
+		return snapshot.getCycle(periodCode, typeCode);
 	}
 	
 	/**
@@ -250,6 +182,10 @@ public class ChartCycleClient extends DenodoClient {
 	 * @return the URL to obtain cycle information
 	 */
 	public String getWebTarget (Date targetDate) {
+		return buildWebTarget(targetDate);
+	}
+	
+	private static String buildWebTarget (Date targetDate) {
 		StringBuilder url = new StringBuilder();
 		url = url.append(Config.getDenodoHost()+Config.getDenodoCycleResource());
 		SimpleDateFormat formatter = new SimpleDateFormat ("MM/dd/yyyy");
@@ -264,5 +200,4 @@ public class ChartCycleClient extends DenodoClient {
 		
 		return url.toString();
 	}
-}
-
+}
\ No newline at end of file
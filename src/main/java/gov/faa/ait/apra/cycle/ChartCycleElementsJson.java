@@ -52,6 +52,13 @@ public class ChartCycleElementsJson {
 		
 		return new Date (chart_effective_date.getTime());
 	}
+	/**
+	 * Determine whether denodo supplied an effective date. The getter substitutes the current time when it did not.
+	 * @return true if an effective date was supplied
+	 */
+	public boolean hasEffectiveDate() {
+		return chart_effective_date != null;
+	}
 	public void setChart_effective_date(Date chart_effective_date) {
 		if (chart_effective_date == null) 
 			return;
@@ -0,0 +1,65 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.cycle;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import gov.faa.ait.apra.util.CycleDateUtil;
+
+/**
+ * Computes the 28 day and 56 day chart cycles locally from the published cycle schedule. The 28 day 
+ * cycle follows the AIRAC schedule and the 56 day cycle falls on every other AIRAC date. Cycle numbers 
+ * are the ordinal of the cycle within its year. No call to denodo is made.
+ * 
+ * @author FAA
+ *
+ */
+public class ComputedCycleSource implements CycleSource {
+	private static final String [] PERIODS = {"CURRENT", "NEXT"};
+	
+	@Override
+	public ChartCycleData getChartCycle (Date queryDate) {
+		SimpleDateFormat formatter = new SimpleDateFormat ("MM/dd/yyyy");
+		String query = formatter.format(queryDate);
+		ChartCycleElementsJson [] elements = new ChartCycleElementsJson [PERIODS.length * 2];
+		
+		for (int i = 0; i < PERIODS.length; i++) {
+			elements[i] = getElement(queryDate, query, PERIODS[i], "28 DAY", 28, i);
+			elements[PERIODS.length + i] = getElement(queryDate, query, PERIODS[i], "56 DAY", 56, i);
+		}
+		
+		return new ChartCycleData("chart_cycle", elements);
+	}
+	
+	private static ChartCycleElementsJson getElement (Date queryDate, String query, String periodCode, String typeCode, int cycleDays, int offset) {
+		Date effective = CycleDateUtil.getCycleEffectiveDate(queryDate, cycleDays, offset);
+		int number = CycleDateUtil.getCycleNumber(effective, cycleDays);
+		
+		ChartCycleElementsJson element = new ChartCycleElementsJson();
+		element.setChart_cycle_period_code(periodCode);
+		element.setChart_cycle_type_code(typeCode);
+		element.setChart_effective_date(effective);
+		// The 28 day cycle number is combined with the year in product file names (1607) so it is always two digits
+		element.setChart_cycle_number(cycleDays == 28 ? String.format("%02d", number) : Integer.toString(number));
+		element.setQuery_date(query);
+		
+		return element;
+	}
+
+	@Override
+	public String getKey (Date queryDate) {
+		return "computed|"+new SimpleDateFormat("yyyy-MM-dd").format(queryDate);
+	}
+}
@@ -0,0 +1,606 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.cycle;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+import gov.faa.ait.apra.util.Revalidator;
+import gov.faa.ait.apra.util.SingleFlight;
+import gov.faa.ait.apra.util.StaleData;
+
+/**
+ * Holds the current snapshot of a chart cycle. The snapshot is published through an atomic 
+ * reference and replaced as a whole, so readers never block and never see a null or partially built 
+ * cache while a refresh is running. A failed refresh keeps the previous snapshot. Only the very first 
+ * load blocks the caller; once a snapshot exists an expired snapshot is still served while a single 
+ * background refresh replaces it.
+ * <p>
+ * Cycle data only changes on the effective date of the next edition, so a snapshot expires at that 
+ * date plus a safety margin rather than after a fixed age. Ahead of that date the snapshot for the 
+ * next edition is loaded and staged, and it is promoted to the current snapshot on the first read at 
+ * or after its effective date.
+ * <p>
+ * By default the snapshots are computed locally and denodo is only called periodically to reconcile 
+ * the computed cycles, logging any discrepancy. The configuration can switch the cache back to loading 
+ * every snapshot from denodo.
+ * 
+ * @author FAA
+ *
+ */
+public class CycleCache {
+	private static final Logger logger = LoggerFactory.getLogger(CycleCache.class);
+	private static ExecutorService refreshExecutor;
+	private static final List <CycleCache> caches = new CopyOnWriteArrayList <> ();
+	private static final AtomicLong version = new AtomicLong();
+	private static final AtomicLong dataVersion = new AtomicLong();
+	private static final Map <String, String> references = new ConcurrentHashMap <> ();
+	private static volatile long referencesModified = 0;
+	private static final Map <String, CycleSnapshot> restored = new ConcurrentHashMap <> ();
+	private static volatile CycleValidity validity;
+	private final String name;
+	private final CycleSource computed;
+	private final DenodoCycleSource denodo;
+	private volatile long lastReconcile = 0;
+	private final AtomicReference <CycleSnapshot> snapshot = new AtomicReference <> ();
+	private final AtomicReference <CycleSnapshot> staged = new AtomicReference <> ();
+	private final SingleFlight <String, CycleSnapshot> refreshes = new SingleFlight <> ();
+	private final Revalidator revalidator;
+	
+	/**
+	 * Create a cycle cache
+	 * @param name the name of the cycle used in log messages
+	 * @param computed the local source of the chart cycles
+	 * @param denodo the denodo view of the chart cycles
+	 */
+	public CycleCache (String name, CycleSource computed, DenodoCycleSource denodo) {
+		this.name = name;
+		this.computed = computed;
+		this.denodo = denodo;
+		this.revalidator = new Revalidator(name);
+		
+		// A snapshot restored before this cache was first used is published straight away
+		CycleSnapshot saved = restored.remove(name);
+		if (saved != null) {
+			snapshot.set(saved);
+			restoredChanged();
+		}
+		
+		caches.add(this);
+	}
+	
+	/**
+	 * Get the source that loads the snapshots according to the configuration
+	 * @return the computed source unless the configuration selects denodo
+	 */
+	private CycleSource getSource () {
+		if (computed == null || "denodo".equalsIgnoreCase(Config.getCycleSource())) {
+			return denodo;
+		}
+		
+		return computed;
+	}
+	
+	/**
+	 * Get the current snapshot. The first call loads the snapshot. Later calls return the 
+	 * published snapshot immediately and start a background refresh if it has expired. An expired
+	 * snapshot is marked as stale data for the request.
+	 * @return the current snapshot or null if no snapshot could ever be loaded
+	 */
+	public CycleSnapshot get () {
+		CycleSnapshot current = promote(snapshot.get());
+		
+		if (current == null) {
+			// Without a snapshot to serve the load is made on this thread, but not during the backoff after a failure
+			return revalidator.isDue() ? refresh(new Date (System.currentTimeMillis())) : null;
+		}
+		
+		if (isExpired(current)) {
+			StaleData.mark(getExpiry(current));
+			refreshAsync();
+		}
+		
+		return current;
+	}
+	
+	/**
+	 * Load a new snapshot for the given query date and publish it. Concurrent refreshes for the same 
+	 * query share a single load.
+	 * @param targetDate the query date
+	 * @return the newly published snapshot, or the previous snapshot if the refresh failed
+	 */
+	public CycleSnapshot refresh (Date targetDate) {
+		CycleSource source = getSource();
+		
+		try {
+			CycleSnapshot loaded = refreshes.execute(source.getKey(targetDate), () -> new CycleSnapshot(source.getChartCycle(targetDate), targetDate));
+			setSnapshot(loaded);
+			revalidator.record(true);
+			return loaded;
+		}
+		catch (Exception ex) {
+			logger.warn("Unable to refresh the "+name+" cache. Continuing to serve the previous snapshot.", ex);
+			revalidator.record(false);
+			return snapshot.get();
+		}
+	}
+	
+	/**
+	 * Keep the cache ahead of the chart cycle. Promotes a staged snapshot whose effective date has been 
+	 * reached, refreshes the current snapshot if it expires within the cycle age limit, and stages the 
+	 * snapshot for the next edition if it has not been staged yet. Reconciles the computed cycles with 
+	 * denodo when the reconciliation interval has passed. Called from the background refresh.
+	 * @return true if a new snapshot was published
+	 */
+	public boolean refreshAhead () {
+		CycleSnapshot previous = snapshot.get();
+		CycleSnapshot current = promote(previous);
+		long lead = TimeUnit.HOURS.toMillis(Config.getCycleAgeLimit());
+		
+		if (current == null || System.currentTimeMillis() + lead >= getExpiry(current).getTime()) {
+			current = refresh(new Date (System.currentTimeMillis()));
+		}
+		
+		stageNext(current);
+		reconcile();
+		return snapshot.get() != previous;
+	}
+	
+	/**
+	 * Compare the computed chart cycles for today with the denodo view and log every discrepancy. 
+	 * Extrapolated sources are reseeded from the denodo response, and the cache is refreshed if the 
+	 * sources disagreed. Does nothing when the cache loads from denodo or the reconciliation interval 
+	 * has not passed since the last reconciliation.
+	 */
+	public void reconcile () {
+		long now = System.currentTimeMillis();
+		
+		if (getSource() == denodo || now - lastReconcile < TimeUnit.HOURS.toMillis(Config.getCycleReconcileInterval())) {
+			return;
+		}
+		
+		lastReconcile = now;
+		Date today = new Date (now);
+		
+		try {
+			ChartCycleData reference = denodo.getChartCycle(today);
+			int discrepancies = compare(computed.getChartCycle(today), reference);
+			
+			if (computed instanceof ExtrapolatedCycleSource) {
+				((ExtrapolatedCycleSource) computed).reseed(reference);
+			}
+			
+			if (discrepancies == 0) {
+				logger.info("The computed "+name+" matches denodo.");
+				return;
+			}
+			
+			logger.warn("Found "+discrepancies+" discrepancies between the computed "+name+" and denodo.");
+			
+			if (computed instanceof ExtrapolatedCycleSource) {
+				refresh(today);
+			}
+		}
+		catch (Exception ex) {
+			logger.warn("Unable to reconcile the computed "+name+" with denodo.", ex);
+		}
+	}
+	
+	private int compare (ChartCycleData computedData, ChartCycleData reference) {
+		SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+		Map <String, ChartCycleElementsJson> computedCycles = new HashMap <> ();
+		int discrepancies = 0;
+		
+		for (ChartCycleElementsJson element : computedData.getElements()) {
+			computedCycles.put(getReconcileKey(element), element);
+		}
+		
+		for (ChartCycleElementsJson expected : reference.getElements()) {
+			if (expected == null || expected.getChart_cycle_period_code() == null) {
+				continue;
+			}
+			
+			String key = getReconcileKey(expected);
+			ChartCycleElementsJson actual = computedCycles.get(key);
+			
+			if (actual == null) {
+				logger.warn("Computed "+name+" has no cycle for "+key+". Denodo has cycle "+expected.getChart_cycle_number());
+				discrepancies++;
+			}
+			else if (! isSameNumber(actual.getChart_cycle_number(), expected.getChart_cycle_number()) 
+					|| ! formatter.format(actual.getChart_effective_date()).equals(formatter.format(expected.getChart_effective_date()))) {
+				logger.warn("Computed "+name+" for "+key+" is cycle "+actual.getChart_cycle_number()+" effective "+formatter.format(actual.getChart_effective_date())
+						+". Denodo has cycle "+expected.getChart_cycle_number()+" effective "+formatter.format(expected.getChart_effective_date()));
+				discrepancies++;
+			}
+		}
+		
+		return discrepancies;
+	}
+	
+	private static String getReconcileKey (ChartCycleElementsJson element) {
+		if (element == null) {
+			return "";
+		}
+		
+		return (element.getChart_cycle_period_code()+"|"+element.getChart_cycle_type_code()+"|"+element.getChart_city_name()).toUpperCase();
+	}
+	
+	private static boolean isSameNumber (String actual, String expected) {
+		if (actual == null || expected == null) {
+			return actual == expected;
+		}
+		
+		try {
+			return Integer.parseInt(actual.trim()) == Integer.parseInt(expected.trim());
+		}
+		catch (NumberFormatException ex) {
+			return actual.trim().equalsIgnoreCase(expected.trim());
+		}
+	}
+	
+	/**
+	 * Load the snapshot for the next edition of the given snapshot using its effective date as the query 
+	 * date. The staged snapshot replaces the current snapshot once its effective date is reached.
+	 * @param current the current snapshot
+	 */
+	private void stageNext (CycleSnapshot current) {
+		if (current == null) {
+			return;
+		}
+		
+		Date nextEffective = current.getNextEffectiveDate();
+		
+		if (nextEffective == null || nextEffective.getTime() <= System.currentTimeMillis()) {
+			return;
+		}
+		
+		CycleSnapshot next = staged.get();
+		
+		if (next != null && next.getQueryDate().equals(nextEffective)) {
+			return;
+		}
+		
+		CycleSource source = getSource();
+		
+		try {
+			staged.set(refreshes.execute(source.getKey(nextEffective), () -> new CycleSnapshot(source.getChartCycle(nextEffective), nextEffective)));
+			logger.info("Staged the "+name+" snapshot effective "+nextEffective);
+		}
+		catch (Exception ex) {
+			logger.warn("Unable to stage the "+name+" snapshot effective "+nextEffective, ex);
+		}
+	}
+	
+	/**
+	 * Promote the staged snapshot to the current snapshot once its effective date has been reached
+	 * @param current the current snapshot
+	 * @return the snapshot to serve
+	 */
+	private CycleSnapshot promote (CycleSnapshot current) {
+		CycleSnapshot next = staged.get();
+		
+		if (next == null || System.currentTimeMillis() < next.getQueryDate().getTime()) {
+			return current;
+		}
+		
+		if ((current == null || next.getQueryDate().after(current.getQueryDate())) && snapshot.compareAndSet(current, next)) {
+			if (! isSameCycles(current, next)) {
+				changed();
+			}
+			logger.info("Promoted the staged "+name+" snapshot effective "+next.getQueryDate());
+		}
+		
+		staged.compareAndSet(next, null);
+		return snapshot.get();
+	}
+	
+	/**
+	 * Start a refresh for today's date on the background refresh thread unless one is already running
+	 * or the backoff after a failed refresh has not passed
+	 */
+	public void refreshAsync () {
+		Date today = new Date (System.currentTimeMillis());
+		
+		if (refreshes.isInFlight(getSource().getKey(today)) || ! revalidator.isDue()) {
+			return;
+		}
+		
+		getRefreshExecutor().execute(() -> refresh(today));
+	}
+	
+	/**
+	 * Publish a snapshot built outside of this cache. A null value is ignored so a published snapshot is never removed.
+	 * @param value the new snapshot
+	 */
+	public void publish (CycleSnapshot value) {
+		if (value != null) {
+			setSnapshot(value);
+		}
+	}
+	
+	private void setSnapshot (CycleSnapshot value) {
+		// A reload that returns the same cycles keeps the version, so nothing built from them is discarded
+		if (! isSameCycles(snapshot.getAndSet(value), value)) {
+			changed();
+		}
+	}
+	
+	private static boolean isSameCycles (CycleSnapshot previous, CycleSnapshot value) {
+		return previous != null && previous.getDigest().equals(value.getDigest());
+	}
+	
+	private static void changed () {
+		version.incrementAndGet();
+		dataVersion.incrementAndGet();
+	}
+	
+	private static void restoredChanged () {
+		// The URL results saved with a restored snapshot were checked against the same cycles, so only the data version changes
+		dataVersion.incrementAndGet();
+	}
+	
+	/**
+	 * Get the version of the published cycle data. The version changes whenever any cycle cache publishes
+	 * different chart cycles, so anything built from the chart cycles can be keyed by it. As on a read, staged 
+	 * snapshots whose effective date has been reached are promoted first and expired snapshots start a 
+	 * background refresh.
+	 * @return the current version of the cycle data
+	 */
+	public static long getVersion () {
+		for (CycleCache cache : caches) {
+			CycleSnapshot current = cache.promote(cache.snapshot.get());
+			
+			if (current != null && isExpired(current)) {
+				cache.refreshAsync();
+			}
+		}
+		
+		return version.get();
+	}
+	
+	/**
+	 * Get the version of all data responses are built from. It changes with the cycle version and whenever
+	 * the reference data recorded with {@link #setReferenceData(String, CharSequence)} changes, so rendered
+	 * responses are keyed by it.
+	 * @return the current version of the response data
+	 */
+	public static long getDataVersion () {
+		getVersion();
+		return dataVersion.get();
+	}
+	
+	/**
+	 * Record the content of reference data that responses are built from alongside the chart cycles, such as 
+	 * the sectional chart table or the TPP chart metadata of an edition. The data version changes only when 
+	 * the content differs from the content recorded before, so an identical reload keeps the rendered responses.
+	 * @param name the name of the reference data
+	 * @param content a canonical description of the content, or null to forget reference data no longer held
+	 */
+	public static void setReferenceData (String name, CharSequence content) {
+		if (content == null) {
+			references.remove(name);
+			return;
+		}
+		
+		String digest = CycleSnapshot.digest(content);
+		
+		if (! digest.equals(references.put(name, digest))) {
+			referencesModified = System.currentTimeMillis();
+			dataVersion.incrementAndGet();
+			logger.info("The "+name+" changed. Responses built from it are no longer served.");
+		}
+	}
+	
+	/**
+	 * Get the validity of the published cycle data. It is derived again only when the data version changes.
+	 * @return the validity of the current data version
+	 */
+	public static CycleValidity getValidity () {
+		long current = getDataVersion();
+		CycleValidity cached = validity;
+		
+		if (cached == null || cached.getVersion() != current) {
+			cached = getValidity(current);
+			validity = cached;
+		}
+		
+		return cached;
+	}
+	
+	private static CycleValidity getValidity (long current) {
+		long now = System.currentTimeMillis();
+		List <CycleCache> sorted = new ArrayList <> (caches);
+		StringBuilder content = new StringBuilder();
+		Date lastModified = null;
+		Date expires = null;
+		
+		// The caches and reference data are taken in name order so every server derives the same tag from the same data
+		sorted.sort(Comparator.comparing(cache -> cache.name));
+		
+		for (CycleCache cache : sorted) {
+			CycleSnapshot published = cache.snapshot.get();
+			
+			if (published == null) {
+				continue;
+			}
+			
+			content.append(cache.name).append('|').append(published.getDigest()).append('\n');
+			
+			for (ChartCycleElementsJson element : published.getData().getElements()) {
+				if (element == null || ! element.hasEffectiveDate()) {
+					continue;
+				}
+				
+				Date effective = element.getChart_effective_date();
+				
+				if (PeriodCode.parse(element.getChart_cycle_period_code()) == PeriodCode.CURRENT && effective.getTime() <= now 
+						&& (lastModified == null || effective.after(lastModified))) {
+					lastModified = effective;
+				}
+			}
+			
+			Date next = published.getNextEffectiveDate();
+			if (next != null && (expires == null || next.before(expires))) {
+				expires = next;
+			}
+		}
+		
+		if (content.length() > 0) {
+			for (Map.Entry <String, String> reference : new TreeMap <> (references).entrySet()) {
+				content.append(reference.getKey()).append('|').append(reference.getValue()).append('\n');
+			}
+		}
+		
+		long modified = referencesModified;
+		if (modified > 0 && lastModified != null && modified > lastModified.getTime()) {
+			lastModified = new Date (modified);
+		}
+		
+		if (expires == null) {
+			expires = new Date (now + TimeUnit.HOURS.toMillis(Config.getCycleAgeLimit()));
+		}
+		
+		return new CycleValidity(current, content.length() == 0 ? null : CycleSnapshot.digest(content), lastModified, expires);
+	}
+	
+	/**
+	 * Get the published snapshot of every cache, including restored snapshots of caches that have not been used yet
+	 * @return the snapshots by cache name
+	 */
+	public static Map <String, CycleSnapshot> getSnapshots () {
+		Map <String, CycleSnapshot> snapshots = new HashMap <> (restored);
+		
+		for (CycleCache cache : caches) {
+			CycleSnapshot published = cache.snapshot.get();
+			
+			if (published != null) {
+				snapshots.put(cache.name, published);
+			}
+		}
+		
+		return snapshots;
+	}
+	
+	/**
+	 * Restore a snapshot saved by a previous run. The snapshot is published if the cache has none yet, or held 
+	 * until the cache is created. Publishing a restored snapshot does not change the cycle version, so the URL 
+	 * results restored with it are kept. An expired snapshot is served as stale data while it is refreshed.
+	 * @param name the name of the cache
+	 * @param value the saved snapshot
+	 */
+	public static void restore (String name, CycleSnapshot value) {
+		for (CycleCache cache : caches) {
+			if (cache.name.equals(name)) {
+				if (cache.snapshot.compareAndSet(null, value)) {
+					restoredChanged();
+				}
+				return;
+			}
+		}
+		
+		restored.putIfAbsent(name, value);
+	}
+	
+	/**
+	 * Get the published snapshot without triggering a load or refresh
+	 * @return the published snapshot or null if none has been loaded
+	 */
+	public CycleSnapshot peek () {
+		return snapshot.get();
+	}
+	
+	/**
+	 * Determine if the published snapshot needs to be refreshed
+	 * @return true if there is no snapshot or it has expired
+	 */
+	public boolean isExpired () {
+		return isExpired(promote(snapshot.get()));
+	}
+	
+	private static boolean isExpired (CycleSnapshot current) {
+		if (current == null) {
+			return true;
+		}
+		
+		return System.currentTimeMillis() >= getExpiry(current).getTime();
+	}
+	
+	/**
+	 * Calculate when a snapshot expires. By default this is the effective date of the next edition held 
+	 * in the snapshot plus the configured margin. For a snapshot loaded for a date other than today the 
+	 * same remaining lifetime is applied from the time it was loaded. If the snapshot has no next edition, 
+	 * or a manual override is configured, the snapshot expires after a fixed number of hours instead.
+	 * @param current the snapshot
+	 * @return the expiry time of the snapshot
+	 */
+	public static Date getExpiry (CycleSnapshot current) {
+		long loadedAt = current.getLoadedAt().getTime();
+		int overrideHours = Config.getCycleExpiryOverride();
+		
+		if (overrideHours > 0) {
+			return new Date (loadedAt + TimeUnit.HOURS.toMillis(overrideHours));
+		}
+		
+		Date nextEffective = current.getNextEffectiveDate();
+		
+		if (nextEffective == null) {
+			return new Date (loadedAt + TimeUnit.HOURS.toMillis(Config.getCycleAgeLimit()));
+		}
+		
+		long queryDate = current.getQueryDate().getTime();
+		long remaining = Math.max(0, nextEffective.getTime() - queryDate);
+		
+		return new Date (Math.max(loadedAt, queryDate) + remaining + TimeUnit.MINUTES.toMillis(Config.getCycleExpiryMargin()));
+	}
+	
+	private static synchronized ExecutorService getRefreshExecutor () {
+		if (refreshExecutor == null) {
+			refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "apra-cycle-refresh");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		
+		return refreshExecutor;
+	}
+	
+	/**
+	 * Stop the background refresh thread. A later expired read starts a new one.
+	 */
+	public static synchronized void shutdown () {
+		if (refreshExecutor != null) {
+			refreshExecutor.shutdownNow();
+			refreshExecutor = null;
+		}
+	}
+}
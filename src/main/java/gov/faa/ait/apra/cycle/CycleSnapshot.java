@@ -0,0 +1,235 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.cycle;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable view of a chart cycle response from denodo. The elements are indexed once when the 
+ * snapshot is built by period code and cycle type, by period code and city, and by period code alone, 
+ * so readers never scan the element array or see a partially built cache. The indexes are keyed by 
+ * period code enum and then by the canonical upper case type or city name held in case insensitive 
+ * maps, so a lookup neither upper cases nor concatenates the request values. A new snapshot replaces 
+ * the old one as a whole whenever the cache is refreshed.
+ * 
+ * @author FAA
+ *
+ */
+public final class CycleSnapshot {
+	private final ChartCycleData data;
+	private final Date queryDate;
+	private final long loadedAt;
+	private final Date nextEffectiveDate;
+	private final String digest;
+	private final Map <PeriodCode, Map <String, ChartCycleElementsJson>> byPeriodAndType;
+	private final Map <PeriodCode, Map <String, ChartCycleElementsJson>> byPeriodAndCity;
+	private final Map <PeriodCode, ChartCycleElementsJson> byPeriod;
+	
+	/**
+	 * Build a snapshot of the given chart cycle data
+	 * @param data the chart cycle data returned by denodo
+	 * @param queryDate the query date used to obtain the data
+	 */
+	public CycleSnapshot (ChartCycleData data, Date queryDate) {
+		this(data, queryDate, new Date (System.currentTimeMillis()));
+	}
+	
+	/**
+	 * Build a snapshot of chart cycle data that was loaded earlier, such as one restored from the cache snapshot file
+	 * @param data the chart cycle data returned by denodo
+	 * @param queryDate the query date used to obtain the data
+	 * @param loadedAt the time the data was loaded from denodo
+	 */
+	public CycleSnapshot (ChartCycleData data, Date queryDate, Date loadedAt) {
+		this.data = data;
+		this.queryDate = new Date (queryDate.getTime());
+		this.loadedAt = loadedAt.getTime();
+		
+		Map <PeriodCode, Map <String, ChartCycleElementsJson>> periodType = new EnumMap <> (PeriodCode.class);
+		Map <PeriodCode, Map <String, ChartCycleElementsJson>> periodCity = new EnumMap <> (PeriodCode.class);
+		Map <PeriodCode, ChartCycleElementsJson> period = new EnumMap <> (PeriodCode.class);
+		ChartCycleElementsJson [] elements = data.getElements();
+		StringBuilder content = new StringBuilder();
+		Date earliestNext = null;
+		
+		for (int i = 0; i < elements.length; i++) {
+			ChartCycleElementsJson element = elements[i];
+			PeriodCode code = element == null ? null : PeriodCode.parse(element.getChart_cycle_period_code());
+			
+			if (code == null) {
+				continue;
+			}
+			
+			content.append(element.getChart_cycle_type_code()).append('|').append(element.getChart_cycle_period_code()).append('|')
+				.append(element.getChart_cycle_number()).append('|').append(element.getChart_city_name()).append('|')
+				.append(element.hasEffectiveDate() ? element.getChart_effective_date().getTime() : 0).append('\n');
+			
+			// The first element wins for each key, matching the order the previous array scan returned
+			periodType.computeIfAbsent(code, k -> newIndex()).putIfAbsent(canonical(element.getChart_cycle_type_code()), element);
+			periodCity.computeIfAbsent(code, k -> newIndex()).putIfAbsent(canonical(element.getChart_city_name()), element);
+			period.putIfAbsent(code, element);
+			
+			if (code == PeriodCode.NEXT && element.hasEffectiveDate()) {
+				Date effective = element.getChart_effective_date();
+				
+				if (effective.after(queryDate) && (earliestNext == null || effective.before(earliestNext))) {
+					earliestNext = effective;
+				}
+			}
+		}
+		
+		this.nextEffectiveDate = earliestNext;
+		this.digest = digest(content);
+		
+		this.byPeriodAndType = freeze(periodType);
+		this.byPeriodAndCity = freeze(periodCity);
+		this.byPeriod = Collections.unmodifiableMap(period);
+	}
+	
+	/**
+	 * Get the chart cycle for a period and cycle type, for example CURRENT and 28 DAY
+	 * @param periodCode CURRENT or NEXT
+	 * @param typeCode the chart cycle type code
+	 * @return the chart cycle or null if not present in this snapshot
+	 */
+	public ChartCycleElementsJson getCycle (String periodCode, String typeCode) {
+		return lookup(byPeriodAndType, periodCode, typeCode);
+	}
+	
+	/**
+	 * Get the chart cycle for a period and city. Used for the city specific TAC cycles
+	 * @param periodCode CURRENT or NEXT
+	 * @param city the chart city name
+	 * @return the chart cycle or null if not present in this snapshot
+	 */
+	public ChartCycleElementsJson getCityCycle (String periodCode, String city) {
+		return lookup(byPeriodAndCity, periodCode, city);
+	}
+	
+	/**
+	 * Get the first chart cycle for a period. Used for views that are filtered to a single cycle type
+	 * @param periodCode CURRENT or NEXT
+	 * @return the chart cycle or null if not present in this snapshot
+	 */
+	public ChartCycleElementsJson getCycle (String periodCode) {
+		PeriodCode code = PeriodCode.parse(periodCode);
+		return code == null ? null : byPeriod.get(code);
+	}
+	
+	/**
+	 * Get the raw chart cycle data this snapshot was built from
+	 * @return the chart cycle data
+	 */
+	public ChartCycleData getData () {
+		return data;
+	}
+	
+	/**
+	 * Get the query date used to obtain this snapshot
+	 * @return the query date
+	 */
+	public Date getQueryDate () {
+		return new Date (queryDate.getTime());
+	}
+	
+	/**
+	 * Get the time this snapshot was loaded from denodo
+	 * @return the load time
+	 */
+	public Date getLoadedAt () {
+		return new Date (loadedAt);
+	}
+	
+	/**
+	 * Get the earliest effective date of a NEXT edition in this snapshot. This is the date on which 
+	 * some of the data in this snapshot is superseded by a new edition.
+	 * @return the next effective date or null if the snapshot holds no next edition
+	 */
+	public Date getNextEffectiveDate () {
+		return nextEffectiveDate == null ? null : new Date (nextEffectiveDate.getTime());
+	}
+	
+	/**
+	 * Get a digest of the cycle numbers and effective dates in this snapshot. Two snapshots hold the same 
+	 * chart cycles exactly when their digests are equal, whenever they were loaded.
+	 * @return the hex digest of the chart cycles
+	 */
+	public String getDigest () {
+		return digest;
+	}
+	
+	/**
+	 * Digest content that identifies a set of data, so equal content gives the same digest on every server
+	 * @param content the canonical description of the data
+	 * @return the first 16 bytes of the SHA-256 hash in hex
+	 */
+	static String digest (CharSequence content) {
+		try {
+			byte [] hash = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder(32);
+			
+			for (int i = 0; i < 16; i++) {
+				hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+			}
+			
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException nsae) {
+			throw new IllegalStateException("SHA-256 is not available", nsae);
+		}
+	}
+	
+	private static ChartCycleElementsJson lookup (Map <PeriodCode, Map <String, ChartCycleElementsJson>> index, 
+			String periodCode, String name) {
+		PeriodCode code = PeriodCode.parse(periodCode);
+		Map <String, ChartCycleElementsJson> names = code == null ? null : index.get(code);
+		
+		if (names == null) {
+			return null;
+		}
+		
+		// The maps use a case insensitive ordering so the request value is used as is
+		return names.get(name == null ? "" : name);
+	}
+	
+	private static Map <String, ChartCycleElementsJson> newIndex () {
+		return new TreeMap <> (String.CASE_INSENSITIVE_ORDER);
+	}
+	
+	private static Map <PeriodCode, Map <String, ChartCycleElementsJson>> freeze (Map <PeriodCode, Map <String, ChartCycleElementsJson>> index) {
+		for (Map.Entry <PeriodCode, Map <String, ChartCycleElementsJson>> entry : index.entrySet()) {
+			entry.setValue(Collections.unmodifiableMap(entry.getValue()));
+		}
+		
+		return Collections.unmodifiableMap(index);
+	}
+	
+	/**
+	 * Get the canonical form of a type code or city name as held in the snapshot indexes. The 
+	 * canonical names are interned so every snapshot shares a single copy of each name.
+	 * @param name the type code or city name
+	 * @return the upper case, interned name or an empty string for null
+	 */
+	static String canonical (String name) {
+		return name == null ? "" : name.toUpperCase(Locale.ENGLISH).intern();
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.cycle;
+
+import java.util.Date;
+
+/**
+ * A source of chart cycle data. The data is either requested from the denodo views or computed 
+ * locally from the published cycle schedule. Both return the same ChartCycleData structure so the 
+ * cycle caches can use either interchangeably.
+ * 
+ * @author FAA
+ *
+ */
+public interface CycleSource {
+	
+	/**
+	 * Get the CURRENT and NEXT chart cycles in effect on the query date
+	 * @param queryDate the date for which the chart cycles are required
+	 * @return the chart cycle data
+	 * @throws Exception if the chart cycles cannot be obtained
+	 */
+	public ChartCycleData getChartCycle (Date queryDate) throws Exception;
+	
+	/**
+	 * Get a key that identifies the load for a query date. Concurrent loads with the same key are coalesced.
+	 * @param queryDate the date for which the chart cycles are required
+	 * @return the key for the load
+	 */
+	public String getKey (Date queryDate);
+}
@@ -0,0 +1,72 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.cycle;
+
+import java.util.Date;
+
+/**
+ * Describes how long the published chart cycles remain valid. It is derived from the snapshots of every
+ * cycle cache and the reference data recorded alongside them, and is used to answer conditional requests 
+ * without building a response. The tag is a digest of the cycle numbers, effective dates and reference data,
+ * so it is the same on every server holding the same data.
+ *
+ * @author FAA
+ *
+ */
+public final class CycleValidity {
+	private final long version;
+	private final String tag;
+	private final Date lastModified;
+	private final Date expires;
+
+	CycleValidity (long version, String tag, Date lastModified, Date expires) {
+		this.version = version;
+		this.tag = tag;
+		this.lastModified = lastModified == null ? null : new Date (lastModified.getTime());
+		this.expires = new Date (expires.getTime());
+	}
+
+	/**
+	 * Get the version of the cycle and reference data this validity was derived from
+	 * @return the data version
+	 */
+	public long getVersion () {
+		return version;
+	}
+
+	/**
+	 * Get the digest of the published chart cycles and reference data
+	 * @return the digest, or null if no cycle has been loaded yet
+	 */
+	public String getTag () {
+		return tag;
+	}
+
+	/**
+	 * Get the latest effective date of a current edition that has been reached, or the time the reference 
+	 * data last changed if that is later
+	 * @return the last modified date or null if it is not known
+	 */
+	public Date getLastModified () {
+		return lastModified == null ? null : new Date (lastModified.getTime());
+	}
+
+	/**
+	 * Get the earliest effective date of a next edition. The published cycles do not change before this date.
+	 * @return the expiry date
+	 */
+	public Date getExpires () {
+		return new Date (expires.getTime());
+	}
+}
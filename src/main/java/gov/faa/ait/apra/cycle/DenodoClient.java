@@ -13,20 +13,12 @@
  */
 package gov.faa.ait.apra.cycle;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Charsets;
+import gov.faa.ait.apra.util.DenodoGateway;
 
 /**
  * Here we are getting the 28 or 56 day chart cycle from the APRA support services. This is a regular chart cycle publication and the dates
@@ -86,20 +78,12 @@ public abstract class DenodoClient {
 			
 		setLastUpdate();
 		
-		String unbound = "";
-		
 		try {
-			Client client = ClientBuilder.newClient();	
-			
-			WebTarget webTarget = client.target(url);
 			long now = System.currentTimeMillis();
-			unbound = webTarget.request(MediaType.APPLICATION_XML_TYPE).get(String.class);
+			ChartCycleData data = DenodoGateway.getInstance().get(url, ChartCycleData.class);
 			long duration = System.currentTimeMillis() - now;
 			logger.info("Call for 28/56 day chart cycle took "+duration+" ms");
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
-			setChartCycle (mapper.readValue(unbound.getBytes(Charsets.UTF_16), ChartCycleData.class));
+			setChartCycle (data);
 		}
 		catch (Exception ex) {
 			logger.warn("Error getting chart cycle information.", ex);
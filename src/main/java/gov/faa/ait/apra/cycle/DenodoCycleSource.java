@@ -0,0 +1,61 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.cycle;
+
+import java.util.Date;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.util.DenodoGateway;
+
+/**
+ * Requests the chart cycle data from a denodo chart cycle view
+ * 
+ * @author FAA
+ *
+ */
+public class DenodoCycleSource implements CycleSource {
+	private static final Logger logger = LoggerFactory.getLogger(DenodoCycleSource.class);
+	private final String name;
+	private final Function <Date, String> webTarget;
+	
+	/**
+	 * Create a source for a denodo chart cycle view
+	 * @param name the name of the cycle used in log messages
+	 * @param webTarget builds the denodo URL for a given query date
+	 */
+	public DenodoCycleSource (String name, Function <Date, String> webTarget) {
+		this.name = name;
+		this.webTarget = webTarget;
+	}
+
+	@Override
+	public ChartCycleData getChartCycle (Date queryDate) throws Exception {
+		String url = webTarget.apply(queryDate);
+		logger.info("Calling denodo for "+name+" at "+url);
+		long now = System.currentTimeMillis();
+		ChartCycleData data = DenodoGateway.getInstance().get(url, ChartCycleData.class);
+		long duration = System.currentTimeMillis() - now;
+		logger.info("Call for "+name+" took "+duration+" ms");
+		
+		return data;
+	}
+
+	@Override
+	public String getKey (Date queryDate) {
+		return webTarget.apply(queryDate);
+	}
+}
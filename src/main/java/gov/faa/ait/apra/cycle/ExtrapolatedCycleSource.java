@@ -0,0 +1,195 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.cycle;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the VFR chart cycles locally by extrapolating from a seed loaded once from denodo. VFR 
+ * editions are numbered per chart and city rather than from a common epoch, so the seed provides the 
+ * CURRENT and NEXT edition of each chart. Each later edition follows the previous one after the same 
+ * number of days that separates the seed editions and its edition number increases by one. Query dates 
+ * before the seed, or charts that cannot be extrapolated, are requested from denodo.
+ * 
+ * @author FAA
+ *
+ */
+public class ExtrapolatedCycleSource implements CycleSource {
+	private static final Logger logger = LoggerFactory.getLogger(ExtrapolatedCycleSource.class);
+	private final DenodoCycleSource denodo;
+	private final AtomicReference <ChartCycleData> seed = new AtomicReference <> ();
+	
+	/**
+	 * Create an extrapolated source for a denodo VFR chart cycle view
+	 * @param denodo the denodo view used for the seed and as the fallback
+	 */
+	public ExtrapolatedCycleSource (DenodoCycleSource denodo) {
+		this.denodo = denodo;
+	}
+	
+	/**
+	 * Replace the seed with chart cycle data obtained from denodo
+	 * @param data the chart cycle data for today's date
+	 */
+	public void reseed (ChartCycleData data) {
+		if (data != null) {
+			seed.set(data);
+		}
+	}
+
+	@Override
+	public ChartCycleData getChartCycle (Date queryDate) throws Exception {
+		ChartCycleData seedData = seed.get();
+		
+		if (seedData == null) {
+			seedData = denodo.getChartCycle(new Date (System.currentTimeMillis()));
+			seed.compareAndSet(null, seedData);
+		}
+		
+		List <ChartCycleElementsJson> elements = new ArrayList <> ();
+		
+		for (ChartCycleElementsJson [] chart : getCharts(seedData).values()) {
+			ChartCycleElementsJson current = chart[0];
+			ChartCycleElementsJson next = chart[1];
+			
+			if (current != null && queryDate.before(current.getChart_effective_date())) {
+				// The seed cannot be extrapolated backwards
+				return denodo.getChartCycle(queryDate);
+			}
+			
+			if (current == null || next == null || queryDate.before(next.getChart_effective_date())) {
+				addIfPresent(elements, current);
+				addIfPresent(elements, next);
+				continue;
+			}
+			
+			ChartCycleElementsJson [] extrapolated = extrapolate(current, next, queryDate);
+			
+			if (extrapolated == null) {
+				logger.info("Unable to extrapolate the "+next.getChart_cycle_type_code()+" cycle for "+next.getChart_city_name()+". Requesting the cycle from denodo.");
+				return denodo.getChartCycle(queryDate);
+			}
+			
+			elements.add(extrapolated[0]);
+			elements.add(extrapolated[1]);
+		}
+		
+		return new ChartCycleData(seedData.getName(), elements.toArray(new ChartCycleElementsJson [elements.size()]));
+	}
+	
+	/**
+	 * Group the seed elements by cycle type and city into the CURRENT and NEXT edition of each chart
+	 */
+	private static Map <String, ChartCycleElementsJson []> getCharts (ChartCycleData data) {
+		Map <String, ChartCycleElementsJson []> charts = new LinkedHashMap <> ();
+		
+		for (ChartCycleElementsJson element : data.getElements()) {
+			if (element == null || element.getChart_cycle_period_code() == null || ! element.hasEffectiveDate()) {
+				continue;
+			}
+			
+			String key = element.getChart_cycle_type_code()+"|"+element.getChart_city_name();
+			ChartCycleElementsJson [] chart = charts.computeIfAbsent(key, k -> new ChartCycleElementsJson [2]);
+			chart["NEXT".equalsIgnoreCase(element.getChart_cycle_period_code()) ? 1 : 0] = element;
+		}
+		
+		return charts;
+	}
+	
+	private static ChartCycleElementsJson [] extrapolate (ChartCycleElementsJson current, ChartCycleElementsJson next, Date queryDate) {
+		long cycleDays = getDays(current.getChart_effective_date(), next.getChart_effective_date());
+		int number;
+		
+		try {
+			number = Integer.parseInt(next.getChart_cycle_number().trim());
+		}
+		catch (NumberFormatException | NullPointerException ex) {
+			return null;
+		}
+		
+		if (cycleDays <= 0) {
+			return null;
+		}
+		
+		// The number of editions between the seed NEXT edition and the edition in effect on the query date
+		int editions = (int) Math.floorDiv(getDays(next.getChart_effective_date(), queryDate), cycleDays);
+		int width = next.getChart_cycle_number().trim().length();
+		
+		return new ChartCycleElementsJson [] {
+			getElement(next, "CURRENT", editions, cycleDays, number, width),
+			getElement(next, "NEXT", editions + 1, cycleDays, number, width)
+		};
+	}
+	
+	private static ChartCycleElementsJson getElement (ChartCycleElementsJson next, String periodCode, int editions, long cycleDays, int number, int width) {
+		ChartCycleElementsJson element = new ChartCycleElementsJson();
+		element.setChart_cycle_period_code(periodCode);
+		element.setChart_cycle_type_code(next.getChart_cycle_type_code());
+		element.setChart_city_name(next.getChart_city_name());
+		element.setChart_effective_date(addDays(next.getChart_effective_date(), editions * cycleDays));
+		element.setChart_cycle_number(String.format("%0"+width+"d", number + editions));
+		element.setQuery_date(next.getQuery_date());
+		
+		return element;
+	}
+	
+	/*
+	 * Count the calendar days between the two dates. Both are moved to the start of their day first, so a 
+	 * query late in the day before an effective date is not rounded up into the next edition. Rounding the 
+	 * difference then only absorbs a daylight saving change.
+	 */
+	private static long getDays (Date from, Date to) {
+		return Math.round((getStartOfDay(to) - getStartOfDay(from)) / (double) TimeUnit.DAYS.toMillis(1));
+	}
+	
+	private static long getStartOfDay (Date date) {
+		GregorianCalendar calendar = new GregorianCalendar(TimeZone.getDefault());
+		calendar.setTime(date);
+		calendar.set(Calendar.HOUR_OF_DAY, 0);
+		calendar.set(Calendar.MINUTE, 0);
+		calendar.set(Calendar.SECOND, 0);
+		calendar.set(Calendar.MILLISECOND, 0);
+		return calendar.getTimeInMillis();
+	}
+	
+	private static Date addDays (Date date, long days) {
+		GregorianCalendar calendar = new GregorianCalendar(TimeZone.getDefault());
+		calendar.setTime(date);
+		calendar.add(Calendar.DATE, (int) days);
+		return calendar.getTime();
+	}
+	
+	private static void addIfPresent (List <ChartCycleElementsJson> elements, ChartCycleElementsJson element) {
+		if (element != null) {
+			elements.add(element);
+		}
+	}
+
+	@Override
+	public String getKey (Date queryDate) {
+		return "extrapolated|"+denodo.getKey(queryDate);
+	}
+}
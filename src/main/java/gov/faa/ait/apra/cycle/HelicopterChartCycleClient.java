@@ -14,26 +14,22 @@
 package gov.faa.ait.apra.cycle;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.concurrent.TimeUnit;
-
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Charsets;
-
 import gov.faa.ait.apra.bootstrap.Config;
 import gov.faa.ait.apra.cycle.ChartCycleData;
 import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
 
 /**
+ * Client for the helicopter route chart cycles. The cycles of all helicopter cities are loaded 
+ * with a single denodo call into one process wide cache and looked up by city, so creating a 
+ * client for a request does not call denodo. The cache expires and is refreshed like the other 
+ * chart cycle caches.
  * 
  * @author FAA
  *
@@ -42,10 +38,10 @@ import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
 public class HelicopterChartCycleClient {
 	private static final Logger logger = LoggerFactory
 			.getLogger(HelicopterChartCycleClient.class);
-	private ChartCycleData cycle = null;
-	private Date lastUpdate = null;
+	private static final String CHART_CYCLE_TYPE_CODE = "Helicopter_VFR";
+	private static final DenodoCycleSource denodo = new DenodoCycleSource("Helicopter chart cycle", HelicopterChartCycleClient::buildWebTarget);
+	private static final CycleCache cache = new CycleCache("Helicopter chart cycle", new ExtrapolatedCycleSource(denodo), denodo);
 	private Date today;
-	private String chartCycleTypeCode;
 	private String city;
 
 	/**
@@ -54,24 +50,20 @@ public class HelicopterChartCycleClient {
 	 * @param cityName
 	 */
 	public HelicopterChartCycleClient(String cityName) {
+		this.city = cityName;
+		this.today = new Date(System.currentTimeMillis());
 
-		// default to the Grand Canyon type code to avoid breaking Grand Canyon
-		// service
-		chartCycleTypeCode = "Helicopter_VFR";
-		try {
-			city = java.net.URLEncoder.encode(cityName, "UTF-8").replace("+",
-					"%20");
-			this.today = new Date(System.currentTimeMillis());
-
-			if (this.isUpdateRequired()) {
-				lastUpdate = new Date(System.currentTimeMillis());
-				cycle = getChartCycle();
-			}
-			logger.info("city  " + city);
+		// Load the cache on first use. Afterwards this only reads the published snapshot.
+		cache.get();
+		logger.info("city  " + city);
+	}
 
-		} catch (Exception e) {
-			logger.error(" HelicopterChartCycleClient ", e);
-		}
+	/**
+	 * Get the shared cache holding the helicopter chart cycles of all cities
+	 * @return the helicopter chart cycle cache
+	 */
+	public static CycleCache getCache () {
+		return cache;
 	}
 
 	/**
@@ -100,18 +92,36 @@ public class HelicopterChartCycleClient {
 	}
 
 	/**
-	 * 
-	 * @param targetDate
-	 * @param forceUpdate
-	 * @return
+	 * Get the chart cycles of this client's city
+	 * @param targetDate the query date used when the cache is reloaded
+	 * @param forceUpdate reload the cycles of all cities from denodo
+	 * @return the current and next chart cycles of the city or null if no cycles are loaded
 	 */
 	public ChartCycleData getChartCycle(Date targetDate, boolean forceUpdate) {
-		StringBuilder url = new StringBuilder();
-
-		if (forceUpdate) {
-			lastUpdate = new Date(System.currentTimeMillis());
-			cycle = null;
+		// The new snapshot replaces the old one only once it is fully loaded
+		CycleSnapshot snapshot = forceUpdate ? cache.refresh(targetDate) : cache.get();
+		
+		if (snapshot == null) {
+			return null;
 		}
+		
+		List <ChartCycleElementsJson> elements = new ArrayList <> ();
+		for (ChartCycleElementsJson element : snapshot.getData().getElements()) {
+			if (element != null && city != null && city.equalsIgnoreCase(element.getChart_city_name())) {
+				elements.add(element);
+			}
+		}
+		
+		return new ChartCycleData(snapshot.getData().getName(), elements.toArray(new ChartCycleElementsJson [elements.size()]));
+	}
+	
+	/**
+	 * Construct the denodo URL for the helicopter chart cycles of all cities
+	 * @param targetDate the date used as the query date
+	 * @return the URL to obtain the helicopter cycle information
+	 */
+	private static String buildWebTarget(Date targetDate) {
+		StringBuilder url = new StringBuilder();
 		url = url.append(Config.getDenodoHost()
 				+ Config.getDenodoVFRCycleResource());
 		SimpleDateFormat formatter = new SimpleDateFormat("MM/dd/yyyy");
@@ -121,73 +131,21 @@ public class HelicopterChartCycleClient {
 		StringBuilder queryString = new StringBuilder();
 		queryString = queryString.append("?query_date=" + dateString);
 		queryString = queryString.append("&chart_cycle_type_code="
-				+ chartCycleTypeCode);
-		queryString = queryString.append("&chart_city_name=" + this.city);
+				+ CHART_CYCLE_TYPE_CODE);
 		queryString = queryString.append("&%24format=json");
 
 		url = url.append(queryString);
-		logger.info("Calling denodo for Helicopter chart cycle at "
-				+ url.toString());
-
-		if (cycle != null && lastUpdate != null) {
-			return cycle;
-		}
-
-		lastUpdate = new Date(System.currentTimeMillis());
-
-		String unbound = "";
-
-		try {
-			Client client = ClientBuilder.newClient();
-
-			WebTarget webTarget = client.target(url.toString());
-			long now = System.currentTimeMillis();
-			unbound = webTarget.request(MediaType.APPLICATION_XML_TYPE).get(
-					String.class);
-			long duration = System.currentTimeMillis() - now;
-			logger.info("Call for Helicopter chart cycle took " + duration
-					+ " ms");
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
-					false);
-			mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
-			cycle = mapper.readValue(unbound.getBytes(Charsets.UTF_16), ChartCycleData.class);
-		} catch (Exception ex) {
-			logger.error("getChartCycle", ex);
-			cycle = null;
-			return null;
-		}
-		return cycle;
-	}
-
-	private boolean isUpdateRequired() {
-		if (lastUpdate == null || cycle == null) {
-			return true;
-		}
-
-		long diff = today.getTime() - lastUpdate.getTime();
-		long hours = TimeUnit.HOURS.convert(diff, TimeUnit.MILLISECONDS);
-
-		return hours >= Config.getCycleAgeLimit();
+		return url.toString();
 	}
 
 	private ChartCycleElementsJson getCycle(String periodCode) {
-		if (this.isUpdateRequired()) {
-			getChartCycle();
-		}
-
-		boolean found;
-
-		ChartCycleElementsJson[] elements = cycle.getElements();
-		for (int i = 0; i < elements.length; i++) {
-			ChartCycleElementsJson element = elements[i];
-			found = element.getChart_cycle_period_code().equalsIgnoreCase(
-					periodCode);
-			if (found) {
-				return element;
-			}
+		CycleSnapshot snapshot = cache.get();
+		
+		if (snapshot == null) {
+			return null;
 		}
-		return null;
+		
+		return snapshot.getCityCycle(periodCode, city);
 	}
 
 	public ChartCycleElementsJson getNextCycle() {
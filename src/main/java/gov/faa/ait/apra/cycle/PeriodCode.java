@@ -0,0 +1,46 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.cycle;
+
+/**
+ * The chart cycle period codes returned by denodo. Parsing is case insensitive and does not 
+ * allocate, so it can be used on the request path to find an entry in a pre-built index.
+ * 
+ * @author FAA
+ *
+ */
+public enum PeriodCode {
+	CURRENT, NEXT;
+	
+	private static final PeriodCode [] CODES = values();
+	
+	/**
+	 * Get the period code for a string such as current or NEXT
+	 * @param code the period code, in any case
+	 * @return the matching period code or null if the code is not CURRENT or NEXT
+	 */
+	public static PeriodCode parse (String code) {
+		if (code == null) {
+			return null;
+		}
+		
+		for (int i = 0; i < CODES.length; i++) {
+			if (CODES[i].name().equalsIgnoreCase(code)) {
+				return CODES[i];
+			}
+		}
+		
+		return null;
+	}
+}
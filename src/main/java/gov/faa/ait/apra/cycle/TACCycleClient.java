@@ -15,21 +15,10 @@ package gov.faa.ait.apra.cycle;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.concurrent.TimeUnit;
-
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Charsets;
-
 import gov.faa.ait.apra.bootstrap.Config;
 
 /**
@@ -39,9 +28,8 @@ import gov.faa.ait.apra.bootstrap.Config;
  */
 public class TACCycleClient extends DenodoClient {
 	private static final Logger logger = LoggerFactory.getLogger(TACCycleClient.class);
-	private static HashMap <String, ChartCycleElementsJson> current = null;
-	private static HashMap <String, ChartCycleElementsJson> next = null;
-	private static Date tacLastUpdate = null;
+	private static final DenodoCycleSource denodo = new DenodoCycleSource("TAC chart cycle", TACCycleClient::buildWebTarget);
+	private static final CycleCache cache = new CycleCache("TAC chart cycle", new ExtrapolatedCycleSource(denodo), denodo);
 	private Date today;
 	
 	/**
@@ -50,12 +38,18 @@ public class TACCycleClient extends DenodoClient {
 	public TACCycleClient () {
 		this.today = new Date (System.currentTimeMillis());
 		
-		if (this.isUpdateRequired()) {
-			setLastUpdate();
-			getChartCycle(today, false);
-		}
+		// Load the cache on first use. Afterwards this only reads the published snapshot.
+		cache.get();
 	}	
 	
+	/**
+	 * Get the shared cache holding the TAC chart cycle snapshot
+	 * @return the TAC chart cycle cache
+	 */
+	public static CycleCache getCache () {
+		return cache;
+	}
+	
 	/**
 	 * The default chart cycle method that retrieves the chart cycle information from cache or from the denodo data source
 	 * @param targetDate the date for which a chart cycle is desired
@@ -64,90 +58,33 @@ public class TACCycleClient extends DenodoClient {
 	 */
 	@Override
 	public ChartCycleData getChartCycle(Date targetDate, boolean forceUpdate) {
-		String url;
+		CycleSnapshot snapshot;
 		
 		if (forceUpdate) {
-			setLastUpdate();
-			TACCycleClient.setCyclesNull();
-		}
-		
-		url = getWebTarget(targetDate);
-		logger.info("Calling denodo for vfr chart cycle at "+url);
-		
-		if (TACCycleClient.current != null && TACCycleClient.next != null && TACCycleClient.tacLastUpdate != null) {
-			if (logger.isDebugEnabled())
-				logger.debug("Update not required for TAC Cycle. Aborting call to allow use of cache. Returning null.");
-			return null;
-		}
-		
-		setLastUpdate();
-		
-		String unbound = "";
-		
-		try {
 			logger.info("Updating the TAC chart cycle cache.");
-			Client client = ClientBuilder.newClient();	
-			
-			WebTarget webTarget = client.target(url);
-			long now = System.currentTimeMillis();
-			unbound = webTarget.request(MediaType.APPLICATION_XML_TYPE).get(String.class);
-			long duration = System.currentTimeMillis() - now;
-			logger.info("Call for TAC chart cycle took "+duration+" ms");
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
-			
-			ChartCycleData cycleObjects = mapper.readValue(unbound.getBytes(Charsets.UTF_16), ChartCycleData.class);
-			TACCycleClient.initCycles();
-
-			ChartCycleElementsJson [] cycles = cycleObjects.getElements();
-			
-			for (int i = 0; i < cycleObjects.getElements().length; i++) {
-				String key = cycles[i].getChart_city_name();
-				
-				if ("CURRENT".equalsIgnoreCase(cycles[i].getChart_cycle_period_code())) {
-					TACCycleClient.current.put(key,  cycles[i]);
-				}
-				else {
-					TACCycleClient.next.put(key, cycles[i]);
-				}
-			}
+			// The new snapshot replaces the old one only once it is fully loaded
+			snapshot = cache.refresh(targetDate);
 		}
-		catch (Exception ex) {
-			logger.warn("Unable to get the TAC cycle information.", ex);
-			TACCycleClient.setCyclesNull();
-			return null;
+		else {
+			snapshot = cache.get();
 		}
-		return null;
+		
+		return snapshot == null ? null : snapshot.getData();
 	}
 
 	@Override
 	public boolean isUpdateRequired () {
-		if (TACCycleClient.tacLastUpdate == null || TACCycleClient.current == null || TACCycleClient.next == null) {
-			if (logger.isDebugEnabled()) 
-				logger.debug("TAC chart cycles need to be updated. One of current, next, or lastupdate is null. Returning true to update the cycle cache.");
-			return true;
-		}
+		boolean updateRequired = cache.isExpired();
 		
-		long diff = today.getTime() - TACCycleClient.tacLastUpdate.getTime();
-		long hours = TimeUnit.HOURS.convert(diff, TimeUnit.MILLISECONDS);
+		if (updateRequired && logger.isDebugEnabled()) 
+			logger.debug("TAC chart cycles need to be updated. The cycle snapshot is missing or has expired.");
 		
-		return hours >= Config.getCycleAgeLimit();
+		return updateRequired;
 	}
 	
 	@Override
 	public void setLastUpdate () {
-		TACCycleClient.tacLastUpdate = new Date (System.currentTimeMillis());
-	}
-	
-	private static void initCycles () {
-		TACCycleClient.current = new HashMap <> ();
-		TACCycleClient.next = new HashMap <> ();
-	}
-	
-	private static void setCyclesNull () {
-		TACCycleClient.current = null;
-		TACCycleClient.next = null;
+		// The load time is recorded on each published snapshot
 	}
 	
 	/**
@@ -156,11 +93,7 @@ public class TACCycleClient extends DenodoClient {
 	 * @return the TAC chart cycle for the named city
 	 */
 	public ChartCycleElementsJson getCurrentCycle (String city) {
-		if (this.isUpdateRequired()) {
-			getChartCycle();
-		}
-		
-		return TACCycleClient.current.get(city);
+		return getCityCycle("CURRENT", city);
 	}
 	
 	/**
@@ -169,11 +102,17 @@ public class TACCycleClient extends DenodoClient {
 	 * @return the TAC chart cycle for the named city
 	 */	
 	public ChartCycleElementsJson getNextCycle (String city) {
-		if (this.isUpdateRequired()) {
-			getChartCycle();
+		return getCityCycle("NEXT", city);
+	}
+	
+	private static ChartCycleElementsJson getCityCycle (String periodCode, String city) {
+		CycleSnapshot snapshot = cache.get();
+		
+		if (snapshot == null) {
+			return null;
 		}
 		
-		return TACCycleClient.next.get(city);
+		return snapshot.getCityCycle(periodCode, city);
 	}
 
 	/**
@@ -182,9 +121,6 @@ public class TACCycleClient extends DenodoClient {
 	 * @return the current TAC chart edition number for the named city
 	 */
 	public String getCurrentEditionNumber (String city) {
-		if (this.isUpdateRequired()) {
-			getChartCycle();
-		}
 		ChartCycleElementsJson currentTacCycle = getCurrentCycle(city);
 		
 		if (currentTacCycle != null)			
@@ -199,9 +135,6 @@ public class TACCycleClient extends DenodoClient {
 	 * @return the next TAC chart edition number for the named city
 	 */
 	public String getNextEditionNumber (String city) {
-		if (this.isUpdateRequired()) {
-			getChartCycle();
-		}
 		ChartCycleElementsJson nextTacCycle = getNextCycle(city);
 		
 		if (nextTacCycle != null)			
@@ -212,6 +145,10 @@ public class TACCycleClient extends DenodoClient {
 
 	@Override
 	public String getWebTarget(Date targetDate) {
+		return buildWebTarget(targetDate);
+	}
+	
+	private static String buildWebTarget(Date targetDate) {
 		StringBuilder url = new StringBuilder();
 		
 		url = url.append(Config.getDenodoHost()+Config.getDenodoVFRCycleResource());
@@ -231,19 +168,21 @@ public class TACCycleClient extends DenodoClient {
 
 	@Override
 	public Date getLastUpdate() {
-		return TACCycleClient.tacLastUpdate;
+		CycleSnapshot snapshot = cache.peek();
+		return snapshot == null ? null : snapshot.getLoadedAt();
 	}
 
 
 	@Override
 	protected void setChartCycle(ChartCycleData value) {
-		return;
+		if (value != null) {
+			cache.publish(new CycleSnapshot(value, today));
+		}
 	}
 
 	@Override
 	public ChartCycleData getChartCycle() {
-		getChartCycle(today, true);
-		return null;
+		return getChartCycle(today, false);
 	}
 	
 }
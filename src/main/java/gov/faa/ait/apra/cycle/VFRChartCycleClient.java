@@ -15,35 +15,30 @@ package gov.faa.ait.apra.cycle;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.concurrent.TimeUnit;
-
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Charsets;
-
 import gov.faa.ait.apra.bootstrap.Config;
 
 /**
- * 
+ * Client for the VFR chart cycle view. The view is filtered by chart cycle type code, for example 
+ * Grand_Canyon for the VFR charts and IFR_PGOM for the Gulf of Mexico charts. Each type code has 
+ * its own cache with its own snapshot and expiry, so clients of different type codes never replace 
+ * each other's cycle data.
  *
  */
-
-
 public class VFRChartCycleClient {
-	private static ChartCycleData cycle;
-	private static Date lastUpdate;
-	private Date today;
-	private static String chartCycleTypeCode;
+	public static final String GRAND_CANYON = "Grand_Canyon";
+	public static final String GULF_OF_MEXICO = "IFR_PGOM";
+	private static final ConcurrentMap <String, CycleCache> caches = new ConcurrentHashMap <> ();
 	private static final Logger logger = LoggerFactory
 			.getLogger(VFRChartCycleClient.class);
+	private final String chartCycleTypeCode;
+	private final CycleCache cache;
+	private Date today;
 
 	/**
 	 * 
@@ -54,12 +49,11 @@ public class VFRChartCycleClient {
 
 		// specify the type code desired. For the Gulf of Mexico charts, this is
 		// the type code of IFR_PGOM
-		setChartCycleTypeCode (typeCode);
+		this.chartCycleTypeCode = typeCode;
+		this.cache = getCache(typeCode);
 
-		if (this.isUpdateRequired()) {
-			setLastUpdate();
-			setChartCycle(getChartCycle());
-		}
+		// Load the cache on first use. Afterwards this only reads the published snapshot.
+		cache.get();
 	}
 
 	/**
@@ -67,15 +61,33 @@ public class VFRChartCycleClient {
 	 */
 
 	public VFRChartCycleClient() {
-		this.today = new Date(System.currentTimeMillis());
 		// default to the Grand Canyon type code to avoid breaking Grand Canyon
 		// service
-		setChartCycleTypeCode("Grand_Canyon");
+		this(GRAND_CANYON);
+	}
 
-		if (this.isUpdateRequired()) {
-			setLastUpdate();
-			setChartCycle(getChartCycle());
+	/**
+	 * Get the cache holding the VFR chart cycle snapshot for a chart cycle type code, creating it 
+	 * on first use
+	 * @param typeCode the chart cycle type code such as Grand_Canyon or IFR_PGOM
+	 * @return the cache for the type code
+	 */
+	public static CycleCache getCache (String typeCode) {
+		CycleCache typeCache = caches.get(typeCode);
+		
+		if (typeCache == null) {
+			typeCache = caches.computeIfAbsent(typeCode, VFRChartCycleClient::newCache);
 		}
+		
+		return typeCache;
+	}
+	
+	private static CycleCache newCache (String typeCode) {
+		String name = "VFR chart cycle "+typeCode;
+		DenodoCycleSource denodo = new DenodoCycleSource(name, targetDate -> buildWebTarget(targetDate, typeCode));
+		
+		logger.info("Creating the "+name+" cache.");
+		return new CycleCache(name, new ExtrapolatedCycleSource(denodo), denodo);
 	}
 
 	/**
@@ -84,7 +96,7 @@ public class VFRChartCycleClient {
 	 */
 
 	public ChartCycleData getChartCycle() {
-		return getChartCycle(today, false);
+		return getData(cache.get());
 	}
 
 	/**
@@ -93,7 +105,7 @@ public class VFRChartCycleClient {
 	public void forceUpdate() {
 		
 		if (logger.isDebugEnabled()) {
-			logger.debug("VFR Chart cycle forceUpdate() was called.");
+			logger.debug("VFR Chart cycle forceUpdate() was called for "+chartCycleTypeCode+".");
 		}
 		
 		if (today == null) 
@@ -109,7 +121,7 @@ public class VFRChartCycleClient {
 	 */
 	public ChartCycleData getChartCycle(boolean forceUpdate) {
 		if (logger.isDebugEnabled()) {
-			logger.debug("VFR Chart cycle getChartCycle("+forceUpdate+") called.");
+			logger.debug("VFR Chart cycle getChartCycle("+forceUpdate+") called for "+chartCycleTypeCode+".");
 		}
 		
 		return getChartCycle(today, forceUpdate);
@@ -122,17 +134,26 @@ public class VFRChartCycleClient {
 	 * @return
 	 */
 	public ChartCycleData getChartCycle(Date targetDate, boolean forceUpdate) {
-		ChartCycleData cycleData;
-		StringBuilder url = new StringBuilder();
-
 		if (forceUpdate) {
-			if (logger.isDebugEnabled()) {
-				logger.debug("VFR Chart cycle force update is true. Setting lastUpdate and cycle to null.");
-			}
-			setLastUpdate();
-			setChartCycle(null);
+			// The new snapshot replaces the old one only once it is fully loaded
+			return getData(cache.refresh(targetDate));
 		}
 		
+		return getData(cache.get());
+	}
+	
+	private static ChartCycleData getData(CycleSnapshot snapshot) {
+		return snapshot == null ? null : snapshot.getData();
+	}
+
+	/**
+	 * Construct the denodo URL for the VFR chart cycle of a type code
+	 * @param targetDate the date used as the query date
+	 * @param typeCode the chart cycle type code
+	 * @return the URL to obtain the VFR cycle information
+	 */
+	private static String buildWebTarget(Date targetDate, String typeCode) {
+		StringBuilder url = new StringBuilder();
 		url = url.append(Config.getDenodoHost()+Config.getDenodoVFRCycleResource());
 		SimpleDateFormat formatter = new SimpleDateFormat ("MM/dd/yyyy");
 		
@@ -141,93 +162,23 @@ public class VFRChartCycleClient {
 		StringBuilder queryString = new StringBuilder();
 		queryString = queryString.append("?query_date=" + dateString);
 		queryString = queryString.append("&chart_cycle_type_code="
-				+ VFRChartCycleClient.chartCycleTypeCode);
+				+ typeCode);
 		queryString = queryString.append("&%24format=json");
 
 		url = url.append(queryString);
-
-		if (cycle != null && lastUpdate != null) {
-			logger.info("VFR Chart cycle already available. Returning cycle without round trip to denodo server.");
-			return cycle;
-		} 
-		else {
-			logger.info("VFR Chart cycle or lastUpdate is null. Continuing with cycle retrieval.");			
-		}
-
-		setLastUpdate();
-
-		String unbound = "";
-
-		try {
-			logger.info("Calling denodo for vfr chart cycle at " + url.toString());
-			Client client = ClientBuilder.newClient();
-
-			WebTarget webTarget = client.target(url.toString());
-			long now = System.currentTimeMillis();
-			unbound = webTarget.request(MediaType.APPLICATION_XML_TYPE).get(
-					String.class);
-			long duration = System.currentTimeMillis() - now;
-			logger.info("Call for chart cycle from denodo server took " + duration
-					+ " ms");
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
-					false);
-			mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
-			cycleData = mapper.readValue(unbound.getBytes(Charsets.UTF_16), ChartCycleData.class);
-			setChartCycle(cycleData);
-		} catch (Exception ex) {
-			logger.error("getChartCycle", ex);
-			setChartCycle(null);
-			return null;
-		}
-		return cycle;
-	}
-
-	private boolean isUpdateRequired() {
-		if (lastUpdate == null || cycle == null) {
-			logger.info("VFR chart cycle update required. Either last update or cycle was null and needs to be refreshed.");
-			return true;
-		}
-
-		long diff = today.getTime() - lastUpdate.getTime();
-		
-		if (logger.isDebugEnabled())
-			logger.debug("Age of VFR cycle is "+diff+" ms");
-		
-		long hours = TimeUnit.HOURS.convert(diff, TimeUnit.MILLISECONDS);
-		
-		boolean updateRequired = hours >= Config.getCycleAgeLimit();
-		
-		if (updateRequired && logger.isDebugEnabled()) {
-			logger.debug("VFR chart cycle update is required due to expiration. VFR Chart cycle is "+hours+" hours old. Expiration period is "+Config.getCycleAgeLimit());
-		}
-		else if (logger.isDebugEnabled()) {
-			logger.debug("VFR chart cycle update is NOT required due to expiration. VFR Chart cycle is "+hours+" hours old. Expiration period is "+Config.getCycleAgeLimit());
-		}
 		
-		return updateRequired;
+		return url.toString();
 	}
 
 	private ChartCycleElementsJson getCycle(String periodCode) {
-		if (this.isUpdateRequired()) {
-			logger.info("VFR Chart cycle requires an update. Updating cache.");
-			getChartCycle();
-		}
-
-		boolean found;
-
-		ChartCycleElementsJson[] elements = cycle.getElements();
-		for (int i = 0; i < elements.length; i++) {
-			ChartCycleElementsJson element = elements[i];
-			found = element.getChart_cycle_period_code().equalsIgnoreCase(
-					periodCode);
-			if (found) {
-				logger.info("Found VFR chart cycle in cache. Returning "+periodCode+" chart cycle.");
-				return element;
-			}
+		CycleSnapshot snapshot = cache.get();
+		ChartCycleElementsJson element = snapshot == null ? null : snapshot.getCycle(periodCode);
+		
+		if (element == null) {
+			logger.warn("VFR chart cycle "+periodCode+" for "+chartCycleTypeCode+" not found in cache. Returning null.");
 		}
-		logger.warn("VFR chart cycle "+periodCode+" not found in cache. Returning null.");
-		return null;
+		
+		return element;
 	}
 
 	public ChartCycleElementsJson getNextCycle() {
@@ -239,24 +190,21 @@ public class VFRChartCycleClient {
 		return getCycle("CURRENT");
 	}
 	
-	private void setChartCycleTypeCode (String typeCode) {
-		if (logger.isDebugEnabled()) {
-			logger.debug("chartCycleTypeCode == "+VFRChartCycleClient.chartCycleTypeCode+" and typeCode == "+typeCode);
-		}
-		
-		if (VFRChartCycleClient.chartCycleTypeCode != null && VFRChartCycleClient.chartCycleTypeCode.equalsIgnoreCase(typeCode)) {
-			return;
-		}
-
-		VFRChartCycleClient.chartCycleTypeCode = typeCode;
-		forceUpdate();
+	/**
+	 * Get the chart cycle type code used by this client
+	 * @return the chart cycle type code
+	 */
+	public String getChartCycleTypeCode () {
+		return chartCycleTypeCode;
 	}
 
 	public void setLastUpdate () {
-		VFRChartCycleClient.lastUpdate = new Date (System.currentTimeMillis());
+		// The load time is recorded on each published snapshot
 	}
 	
 	public void setChartCycle(ChartCycleData data) {
-		VFRChartCycleClient.cycle = data;
+		if (data != null) {
+			cache.publish(new CycleSnapshot(data, today));
+		}
 	}
-}
\ No newline at end of file
+}
@@ -15,19 +15,6 @@ package gov.faa.ait.apra.cycle;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.concurrent.TimeUnit;
-
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Charsets;
 
 import gov.faa.ait.apra.bootstrap.Config;
 
@@ -37,28 +24,28 @@ import gov.faa.ait.apra.bootstrap.Config;
  *
  */
 public class WallPlanningChartCycleClient extends DenodoClient {
-	private static final Logger logger = LoggerFactory
-			.getLogger(WallPlanningChartCycleClient.class);
-	private static ChartCycleData wpCycle;
-	private static Date wpLastUpdate;
+	private static final DenodoCycleSource denodo = new DenodoCycleSource("WallPlan chart cycle", WallPlanningChartCycleClient::buildWebTarget);
+	private static final CycleCache cache = new CycleCache("WallPlan chart cycle", new ExtrapolatedCycleSource(denodo), denodo);
 	private Date today;
 
 	public WallPlanningChartCycleClient() {
 		this.today = new Date(System.currentTimeMillis());
 
-		if (this.isUpdateRequired()) {
-			setLastUpdate();
-			setChartCycle(getChartCycle(true));
-		}
+		// Load the cache on first use. Afterwards this only reads the published snapshot.
+		cache.get();
 	}
 
+	/**
+	 * Get the shared cache holding the wall planning chart cycle snapshot
+	 * @return the wall planning chart cycle cache
+	 */
+	public static CycleCache getCache () {
+		return cache;
+	}
+	
 	@Override
 	public ChartCycleData getChartCycle() {
-		if (! isUpdateRequired()) {
-			return WallPlanningChartCycleClient.wpCycle;
-		}
-		
-		return forceUpdate();
+		return getData(cache.get());
 	}
 
 	/**
@@ -69,89 +56,32 @@ public class WallPlanningChartCycleClient extends DenodoClient {
 	 */
 	
 	public ChartCycleData getChartCycle(Date targetDate, boolean forceUpdate) {
-		ChartCycleData cycleData;
-		StringBuilder url = new StringBuilder();
-
 		if (forceUpdate) {
-			setLastUpdate();
-			setChartCycle(null);
+			// The new snapshot replaces the old one only once it is fully loaded
+			return getData(cache.refresh(targetDate));
 		}
-		url = url.append(Config.getDenodoHost()+Config.getDenodoVFRCycleResource());
-		SimpleDateFormat formatter = new SimpleDateFormat ("MM/dd/yyyy");
 		
-		String dateString = formatter.format(targetDate);
-
-		StringBuilder queryString = new StringBuilder();
-		queryString = queryString.append("?query_date=" + dateString);
-		queryString = queryString
-				.append("&chart_cycle_type_code=Wall_Planning");
-		queryString = queryString.append("&%24format=json");
-
-		url = url.append(queryString);
-		logger.info("Calling denodo for vfr chart cycle at " + url.toString());
-
-		if (wpCycle != null && wpLastUpdate != null) {
-			return wpCycle;
-		}
-
-		setLastUpdate();
-
-		String unbound = "";
-
-		try {
-			Client client = ClientBuilder.newClient();
-
-			WebTarget webTarget = client.target(url.toString());
-			long now = System.currentTimeMillis();
-			unbound = webTarget.request(MediaType.APPLICATION_XML_TYPE).get(
-					String.class);
-			long duration = System.currentTimeMillis() - now;
-			logger.info("Call for WallPlan chart cycle took " + duration
-					+ " ms");
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
-					false);
-			mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
-			cycleData = mapper.readValue(unbound.getBytes(Charsets.UTF_16), ChartCycleData.class);
-			setChartCycle(cycleData);
-		} catch (Exception ex) {
-			logger.error("getChartCycle", ex);
-			setChartCycle(null);
-			return null;
-		}
-		return WallPlanningChartCycleClient.wpCycle;
+		return getData(cache.get());
+	}
+	
+	private static ChartCycleData getData(CycleSnapshot snapshot) {
+		return snapshot == null ? null : snapshot.getData();
 	}
 	
 	
 	@Override
 	public boolean isUpdateRequired() {
-		if (getLastUpdate() == null || WallPlanningChartCycleClient.wpCycle == null) {
-			return true;
-		}
-		
-		long diff = today.getTime() - getLastUpdate().getTime();
-		long hours = TimeUnit.HOURS.convert(diff, TimeUnit.MILLISECONDS);
-		
-		return hours >= Config.getCycleAgeLimit();
+		return cache.isExpired();
 	}
 
 	public ChartCycleElementsJson getCycle(String periodCode) {
-		if (this.isUpdateRequired()) {
-			getChartCycle(true);
-		}
-
-		boolean found;
-
-		ChartCycleElementsJson[] elements = getChartCycle().getElements();
-		for (int i = 0; i < elements.length; i++) {
-			ChartCycleElementsJson element = elements[i];
-			found = element.getChart_cycle_period_code().equalsIgnoreCase(
-					periodCode);
-			if (found) {
-				return element;
-			}
+		CycleSnapshot snapshot = cache.get();
+		
+		if (snapshot == null) {
+			return null;
 		}
-		return null;
+		
+		return snapshot.getCycle(periodCode);
 	}
 
 	/**
@@ -169,6 +99,10 @@ public class WallPlanningChartCycleClient extends DenodoClient {
 
 	@Override
 	public String getWebTarget (Date targetDate) {
+		return buildWebTarget(targetDate);
+	}
+	
+	private static String buildWebTarget (Date targetDate) {
 		StringBuilder url = new StringBuilder();
 
 		url = url.append(Config.getDenodoHost()+Config.getDenodoVFRCycleResource());
@@ -188,18 +122,20 @@ public class WallPlanningChartCycleClient extends DenodoClient {
 
 	@Override
 	public Date getLastUpdate() {
-		return WallPlanningChartCycleClient.wpLastUpdate;
+		CycleSnapshot snapshot = cache.peek();
+		return snapshot == null ? null : snapshot.getLoadedAt();
 	}
 
 	@Override
 	protected void setLastUpdate() {
-		WallPlanningChartCycleClient.wpLastUpdate = new Date(System.currentTimeMillis());
-		
+		// The load time is recorded on each published snapshot
 	}
 
 	@Override
 	protected void setChartCycle(ChartCycleData value) {
-		WallPlanningChartCycleClient.wpCycle = value;
+		if (value != null) {
+			cache.publish(new CycleSnapshot(value, today));
+		}
 	}
 
 
@@ -13,13 +13,23 @@
  */
 package gov.faa.ait.apra.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 import gov.faa.ait.apra.cycle.ChartCycleData;
 import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+import gov.faa.ait.apra.cycle.PeriodCode;
 
 /**
- * This class stores Chart Info from ChartCycleJson in a map format
+ * This class stores Chart Info from ChartCycleJson in a map format. In addition to the key based map, 
+ * an index by period code, chart type and city is built when the data is loaded so a request can 
+ * find its chart, or the city ordered list of charts, without building a key or upper casing the 
+ * request values.
  * @author FAA
  *
  */
@@ -29,6 +39,8 @@ public class ChartInfoTable extends ConcurrentHashMap<ChartInfoTableKey, ChartCy
 	 * 
 	 */
 	private static final long serialVersionUID = -4599811904037606947L;
+	
+	private transient volatile Map <PeriodCode, Map <String, ChartsByCity>> index = Collections.emptyMap();
 
 	/**
 	 * Default constructor, empty map with default capacity
@@ -59,6 +71,84 @@ public class ChartInfoTable extends ConcurrentHashMap<ChartInfoTableKey, ChartCy
 				element.getChart_cycle_type_code().toUpperCase());
 			this.put(key, element);
 		}
+		
+		index = buildIndex();
+	}
+	
+	/**
+	 * Get the chart for a city, period code and chart type. The lookup is case insensitive.
+	 * @param city the chart city or region name
+	 * @param periodCode CURRENT or NEXT
+	 * @param chartType the chart type, for example SECTIONAL
+	 * @return the chart information or null if the table has no such chart
+	 */
+	public ChartCycleElementsJson get (String city, String periodCode, String chartType) {
+		ChartsByCity charts = getChartsByCity(periodCode, chartType);
+		return charts == null || city == null ? null : charts.byCity.get(city);
+	}
+	
+	/**
+	 * Get all charts of a type for a period code, ordered by city name
+	 * @param periodCode CURRENT or NEXT
+	 * @param chartType the chart type, for example SECTIONAL
+	 * @return an unmodifiable list of charts, empty if the table has none of this type
+	 */
+	public List <ChartCycleElementsJson> getCharts (String periodCode, String chartType) {
+		ChartsByCity charts = getChartsByCity(periodCode, chartType);
+		return charts == null ? Collections.<ChartCycleElementsJson>emptyList() : charts.inCityOrder;
+	}
+	
+	private ChartsByCity getChartsByCity (String periodCode, String chartType) {
+		PeriodCode code = PeriodCode.parse(periodCode);
+		Map <String, ChartsByCity> types = code == null ? null : index.get(code);
+		return types == null || chartType == null ? null : types.get(chartType);
+	}
+	
+	private Map <PeriodCode, Map <String, ChartsByCity>> buildIndex () {
+		// Natural ordering of the upper case city names, as the responses have always been sorted
+		Map <PeriodCode, Map <String, TreeMap <String, ChartCycleElementsJson>>> sorted = new EnumMap <> (PeriodCode.class);
+		
+		for (Map.Entry <ChartInfoTableKey, ChartCycleElementsJson> entry : this.entrySet()) {
+			ChartInfoTableKey key = entry.getKey();
+			PeriodCode code = PeriodCode.parse(key.getPeriodCode());
+			
+			if (code == null || key.getChartType() == null || key.getCityRegion() == null) {
+				continue;
+			}
+			
+			sorted.computeIfAbsent(code, k -> new TreeMap <> (String.CASE_INSENSITIVE_ORDER))
+				.computeIfAbsent(key.getChartType(), k -> new TreeMap <> ())
+				.put(key.getCityRegion(), entry.getValue());
+		}
+		
+		Map <PeriodCode, Map <String, ChartsByCity>> built = new EnumMap <> (PeriodCode.class);
+		for (Map.Entry <PeriodCode, Map <String, TreeMap <String, ChartCycleElementsJson>>> period : sorted.entrySet()) {
+			Map <String, ChartsByCity> types = new TreeMap <> (String.CASE_INSENSITIVE_ORDER);
+			
+			for (Map.Entry <String, TreeMap <String, ChartCycleElementsJson>> type : period.getValue().entrySet()) {
+				types.put(type.getKey(), new ChartsByCity(type.getValue()));
+			}
+			
+			built.put(period.getKey(), Collections.unmodifiableMap(types));
+		}
+		
+		return Collections.unmodifiableMap(built);
+	}
+	
+	/**
+	 * The charts of one type and period, held for case insensitive lookup by city and as a list in 
+	 * city order for the responses that return every city
+	 */
+	private static final class ChartsByCity {
+		private final Map <String, ChartCycleElementsJson> byCity;
+		private final List <ChartCycleElementsJson> inCityOrder;
+		
+		private ChartsByCity (TreeMap <String, ChartCycleElementsJson> sorted) {
+			Map <String, ChartCycleElementsJson> cities = new TreeMap <> (String.CASE_INSENSITIVE_ORDER);
+			cities.putAll(sorted);
+			this.byCity = Collections.unmodifiableMap(cities);
+			this.inCityOrder = Collections.unmodifiableList(new ArrayList <> (sorted.values()));
+		}
 	}
 	
 }
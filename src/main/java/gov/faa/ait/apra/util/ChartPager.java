@@ -0,0 +1,288 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import gov.faa.ait.apra.bootstrap.Config;
+import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+
+/**
+ * Splits a chart listing into pages. A page is requested with a limit and an opaque cursor returned
+ * with the previous page. The charts are ordered by a stable sort key and a page holds the charts
+ * that sort after the last key of the previous page, so a page is never shifted by charts that were
+ * added or removed in between. The cursor also pins the chart cycle of the first page so that every
+ * page of a listing comes from the same edition, even if the cycle rolls over while a client is paging.
+ * The cursor is supplied by the client, so a pinned cycle is only accepted if it is one of the published
+ * cycles, and the published cycle is used rather than the values read from the cursor.
+ *
+ * @author FAA
+ *
+ */
+public final class ChartPager {
+	public static final String NEXT_CURSOR_HEADER = "X-APRA-Next-Cursor";
+	private static final String VERSION = "1";
+	private static final String SEPARATOR = "\n";
+	private static final int FIELDS = 8;
+
+	private final String scope;
+	private final int limit;
+	private final ChartCycleElementsJson cycle;
+	private final String after;
+	private String nextCursor;
+
+	private ChartPager (String scope, int limit, ChartCycleElementsJson cycle, String after) {
+		this.scope = scope;
+		this.limit = limit;
+		this.cycle = cycle;
+		this.after = after;
+	}
+
+	/**
+	 * Create a pager from the request parameters. When neither a limit nor a cursor is given the pager
+	 * is not paged and returns the listing unchanged. A cursor without a limit keeps the limit of the
+	 * page that returned it.
+	 * @param scope the request the listing was built for, such as the product, geographic name and edition
+	 * @param limit the requested number of charts per page or null
+	 * @param cursor the cursor returned with the previous page or null
+	 * @param published the cycles a cursor may pin, see getPublishedCycles
+	 * @return the pager for the request
+	 * @throws IllegalArgumentException if the limit is not a number between 1 and the configured maximum, or
+	 * the cursor is malformed, was returned for a different request or pins a cycle that is not published
+	 */
+	public static ChartPager create (String scope, String limit, String cursor, List <ChartCycleElementsJson> published) {
+		int pageLimit = 0;
+
+		if (limit != null && ! limit.trim().isEmpty()) {
+			pageLimit = parseLimit(limit.trim());
+		}
+
+		if (cursor == null || cursor.trim().isEmpty()) {
+			return new ChartPager(scope, pageLimit, null, null);
+		}
+
+		String [] fields = decode(cursor.trim());
+
+		if (! scope.equals(fields[1])) {
+			throw new IllegalArgumentException("The cursor was returned for a different request.");
+		}
+
+		ChartCycleElementsJson pinned;
+
+		try {
+			pinned = findPublished(published, fields[2], fields[4], new Date(Long.parseLong(fields[5])));
+
+			if (pageLimit == 0) {
+				pageLimit = parseLimit(fields[6]);
+			}
+		}
+		catch (NumberFormatException nfe) {
+			throw new IllegalArgumentException("The cursor is not valid.", nfe);
+		}
+
+		if (pinned == null) {
+			throw new IllegalArgumentException("The cursor is for an edition that is no longer available.");
+		}
+
+		return new ChartPager(scope, pageLimit, pinned, fields[7]);
+	}
+
+	/**
+	 * Get the cycles a cursor may pin for a listing. These are the current and next cycles and the cycle
+	 * before the current cycle, which a client may still be paging through when the cycle rolls over.
+	 * @param current the current cycle of the listing
+	 * @param next the next cycle of the listing
+	 * @param cycleDays the length of the cycle, 28 or 56 days
+	 * @return the published cycles, without the cycles that are not available
+	 */
+	public static List <ChartCycleElementsJson> getPublishedCycles (ChartCycleElementsJson current, ChartCycleElementsJson next, int cycleDays) {
+		List <ChartCycleElementsJson> published = new ArrayList <> (3);
+
+		for (ChartCycleElementsJson cycle : Arrays.asList(current, next)) {
+			if (cycle != null && cycle.hasEffectiveDate()) {
+				published.add(cycle);
+			}
+		}
+
+		if (current != null && current.hasEffectiveDate()) {
+			Date effective = CycleDateUtil.getCycleEffectiveDate(current.getChart_effective_date(), cycleDays, -1);
+			int number = CycleDateUtil.getCycleNumber(effective, cycleDays);
+
+			ChartCycleElementsJson previous = new ChartCycleElementsJson();
+			previous.setChart_cycle_period_code(current.getChart_cycle_period_code());
+			previous.setChart_cycle_type_code(current.getChart_cycle_type_code());
+			previous.setChart_effective_date(effective);
+			previous.setChart_cycle_number(cycleDays == 28 ? String.format("%02d", number) : Integer.toString(number));
+			published.add(previous);
+		}
+
+		return published;
+	}
+
+	/*
+	 * Find the published cycle with the type, number and effective day read from a cursor
+	 */
+	private static ChartCycleElementsJson findPublished (List <ChartCycleElementsJson> published, String typeCode, String number, Date effective) {
+		SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+		String day = formatter.format(effective);
+
+		for (ChartCycleElementsJson cycle : published) {
+			if (String.valueOf(cycle.getChart_cycle_type_code()).equalsIgnoreCase(typeCode) 
+					&& isSameNumber(cycle.getChart_cycle_number(), number)
+					&& formatter.format(cycle.getChart_effective_date()).equals(day)) {
+				return cycle;
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean isSameNumber (String published, String number) {
+		if (published == null) {
+			return false;
+		}
+
+		try {
+			return Integer.parseInt(published.trim()) == Integer.parseInt(number.trim());
+		}
+		catch (NumberFormatException nfe) {
+			return published.trim().equalsIgnoreCase(number.trim());
+		}
+	}
+
+	/**
+	 * Determine whether the client asked for a page rather than the full listing
+	 * @return true if a limit or a cursor was given
+	 */
+	public boolean isPaged () {
+		return limit > 0;
+	}
+
+	/**
+	 * Get the chart cycle to build the listing for. This is the cycle pinned by the cursor, if there is
+	 * one, otherwise the cycle for the requested edition.
+	 * @param current the cycle for the requested edition
+	 * @return the cycle to use
+	 */
+	public ChartCycleElementsJson getCycle (ChartCycleElementsJson current) {
+		return cycle != null ? cycle : current;
+	}
+
+	/**
+	 * Get the page of a listing. The rows are sorted by the sort key, which must be unique within the
+	 * listing, and the rows after the cursor are returned up to the limit. When more rows remain a cursor
+	 * for the next page is made available through getNextCursor. If the pager is not paged the rows are
+	 * returned unchanged.
+	 * @param rows the full listing
+	 * @param sortKey the function giving the sort key of a row
+	 * @param current the cycle the listing was built for
+	 * @return the rows on the requested page
+	 */
+	public <T> List <T> page (List <T> rows, Function <T, String> sortKey, ChartCycleElementsJson current) {
+		nextCursor = null;
+
+		if (! isPaged()) {
+			return rows;
+		}
+
+		// Compute each key once rather than on every comparison
+		List <Map.Entry <String, T>> sorted = new ArrayList <> (rows.size());
+		for (T row : rows) {
+			sorted.add(new SimpleImmutableEntry <> (sortKey.apply(row), row));
+		}
+		sorted.sort(Map.Entry.comparingByKey());
+
+		int start = 0;
+		if (after != null) {
+			while (start < sorted.size() && sorted.get(start).getKey().compareTo(after) <= 0) {
+				start++;
+			}
+		}
+
+		int end = Math.min(sorted.size(), start + limit);
+		List <T> page = new ArrayList <> (end - start);
+		for (int i = start; i < end; i++) {
+			page.add(sorted.get(i).getValue());
+		}
+
+		if (end < sorted.size()) {
+			nextCursor = encode(getCycle(current), sorted.get(end - 1).getKey());
+		}
+
+		return page;
+	}
+
+	/**
+	 * Get the cursor for the page after the last page returned by page
+	 * @return the cursor or null if the last page has been returned
+	 */
+	public String getNextCursor () {
+		return nextCursor;
+	}
+
+	private String encode (ChartCycleElementsJson pinned, String lastKey) {
+		String value = String.join(SEPARATOR, VERSION, scope,
+				String.valueOf(pinned.getChart_cycle_type_code()),
+				String.valueOf(pinned.getChart_cycle_period_code()),
+				String.valueOf(pinned.getChart_cycle_number()),
+				Long.toString(pinned.getChart_effective_date().getTime()),
+				Integer.toString(limit), lastKey);
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String [] decode (String cursor) {
+		String value;
+
+		try {
+			value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		}
+		catch (IllegalArgumentException iae) {
+			throw new IllegalArgumentException("The cursor is not valid.", iae);
+		}
+
+		String [] fields = value.split(SEPARATOR, -1);
+		if (fields.length != FIELDS || ! VERSION.equals(fields[0])) {
+			throw new IllegalArgumentException("The cursor is not valid.");
+		}
+
+		return fields;
+	}
+
+	private static int parseLimit (String limit) {
+		int value;
+
+		try {
+			value = Integer.parseInt(limit);
+		}
+		catch (NumberFormatException nfe) {
+			throw new IllegalArgumentException("The limit must be a whole number.", nfe);
+		}
+
+		if (value < 1 || value > Config.getPageLimitMax()) {
+			throw new IllegalArgumentException("The limit must be between 1 and "+Config.getPageLimitMax()+".");
+		}
+
+		return value;
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+
+/**
+ * Stops calls to an upstream service while it is failing or slow so that request threads are not held
+ * waiting on it. The outcome of the most recent calls is kept in a fixed size window. Once the window
+ * holds the minimum number of calls and the share of failed or slow calls reaches its threshold, the
+ * breaker opens and calls fail at once with an OpenException. After the open duration a few probe calls
+ * are let through. The breaker closes if they all succeed in time and opens again otherwise. Callers are
+ * expected to fall back to their cached or unverified data when a call is refused.
+ *
+ * @author FAA
+ *
+ */
+public class CircuitBreaker {
+	private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+	/**
+	 * The state of a circuit breaker
+	 */
+	public enum State { CLOSED, OPEN, HALF_OPEN }
+
+	/**
+	 * A call to the upstream service
+	 * @param <T> the type of the result
+	 */
+	public interface Call <T> {
+		T call () throws IOException;
+	}
+
+	/**
+	 * Thrown instead of making a call while the breaker is open
+	 */
+	public static class OpenException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		public OpenException (String name) {
+			super("The "+name+" circuit breaker is open. The call was not made.");
+		}
+	}
+
+	private final String name;
+	private final long slowCallDuration;
+	private final int windowSize;
+	private final boolean [] failed;
+	private final boolean [] slow;
+	private int next;
+	private int calls;
+	private int failures;
+	private int slowCalls;
+	private State state = State.CLOSED;
+	private long openedAt;
+	private int probes;
+	private int probeSuccesses;
+	private long rejected;
+	private long opened;
+
+	/**
+	 * Create a breaker using the thresholds from the configuration
+	 * @param name the name of the upstream service
+	 * @param slowCallDuration the duration in milliseconds from which a call counts as slow
+	 */
+	public CircuitBreaker (String name, long slowCallDuration) {
+		this.name = name;
+		this.slowCallDuration = slowCallDuration;
+		this.windowSize = Math.max(1, Config.getBreakerWindowSize());
+		this.failed = new boolean [windowSize];
+		this.slow = new boolean [windowSize];
+	}
+
+	/**
+	 * Make a call through the breaker
+	 * @param call the call to the upstream service
+	 * @return the result of the call
+	 * @throws OpenException if the breaker refused the call
+	 * @throws IOException the exception thrown by the call
+	 */
+	public <T> T execute (Call <T> call) throws IOException {
+		if (! tryAcquire()) {
+			throw new OpenException(name);
+		}
+
+		long start = System.nanoTime();
+		boolean success = false;
+
+		try {
+			T result = call.call();
+			success = true;
+			return result;
+		}
+		finally {
+			onResult(! success, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+	}
+
+	/**
+	 * Determine whether a call may be made. An open breaker lets the probe calls through once the open duration has passed.
+	 * @return true if the call may be made
+	 */
+	public synchronized boolean tryAcquire () {
+		if (state == State.OPEN) {
+			if (System.currentTimeMillis() - openedAt < Config.getBreakerOpenDuration()) {
+				rejected++;
+				return false;
+			}
+
+			state = State.HALF_OPEN;
+			probes = 0;
+			probeSuccesses = 0;
+			logger.info("The "+name+" circuit breaker is half open. Probe calls are allowed.");
+		}
+
+		if (state == State.HALF_OPEN) {
+			if (probes >= Config.getBreakerHalfOpenCalls()) {
+				rejected++;
+				return false;
+			}
+
+			probes++;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Record the outcome of a call that was allowed by tryAcquire
+	 * @param failure true if the call failed
+	 * @param duration the duration of the call in milliseconds
+	 */
+	public synchronized void onResult (boolean failure, long duration) {
+		boolean tooSlow = duration >= slowCallDuration;
+
+		if (state == State.HALF_OPEN) {
+			if (failure || tooSlow) {
+				open("a probe call "+(failure ? "failed" : "took "+duration+" ms"));
+			}
+			else if (++probeSuccesses >= Config.getBreakerHalfOpenCalls()) {
+				close();
+			}
+			return;
+		}
+
+		// A call that started before the breaker opened does not count
+		if (state == State.OPEN) {
+			return;
+		}
+
+		if (calls == windowSize) {
+			failures -= failed[next] ? 1 : 0;
+			slowCalls -= slow[next] ? 1 : 0;
+		}
+		else {
+			calls++;
+		}
+
+		failed[next] = failure;
+		slow[next] = tooSlow;
+		failures += failure ? 1 : 0;
+		slowCalls += tooSlow ? 1 : 0;
+		next = (next + 1) % windowSize;
+
+		if (calls < Config.getBreakerMinimumCalls()) {
+			return;
+		}
+
+		if (failures * 100 >= calls * Config.getBreakerFailureRate()) {
+			open(failures+" of the last "+calls+" calls failed");
+		}
+		else if (slowCalls * 100 >= calls * Config.getBreakerSlowCallRate()) {
+			open(slowCalls+" of the last "+calls+" calls took "+slowCallDuration+" ms or more");
+		}
+	}
+
+	/**
+	 * Get the state of the breaker
+	 * @return the state
+	 */
+	public synchronized State getState () {
+		return state;
+	}
+
+	/**
+	 * Report the state of the breaker
+	 * @return the state, the recent failures and slow calls, and the number of refused calls
+	 */
+	public synchronized String getStatus () {
+		return name+" circuit breaker "+state+": "+failures+" failed and "+slowCalls+" slow of the last "+calls+" calls, opened "
+				+opened+" times, "+rejected+" calls refused.";
+	}
+
+	private void open (String reason) {
+		state = State.OPEN;
+		openedAt = System.currentTimeMillis();
+		opened++;
+		reset();
+		logger.warn("The "+name+" circuit breaker opened because "+reason+". Calls are refused for "+Config.getBreakerOpenDuration()+" ms.");
+	}
+
+	private void close () {
+		state = State.CLOSED;
+		reset();
+		logger.info("The "+name+" circuit breaker closed.");
+	}
+
+	private void reset () {
+		next = 0;
+		calls = 0;
+		failures = 0;
+		slowCalls = 0;
+	}
+}
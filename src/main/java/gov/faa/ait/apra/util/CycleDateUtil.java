@@ -154,6 +154,49 @@ public class CycleDateUtil {
 		return CycleDateUtil.getCurrentDECCycleNumber() + 1;
 	}	
 	
+	/**
+	 * Calculate the effective date of the 28 day or 56 day cycle in effect on a given date. The cycles are 
+	 * counted from February 4, 2016, which is both a 28 day (AIRAC) and a 56 day cycle date. An offset of 1 
+	 * returns the next cycle date, an offset of -1 the previous cycle date.
+	 * @param date the date for which the cycle is required
+	 * @param cycleDays the length of the cycle, 28 or 56 days
+	 * @param offset the number of cycles to advance from the cycle in effect on the date
+	 * @return the effective date of the cycle at local midnight
+	 */
+	public static Date getCycleEffectiveDate (Date date, int cycleDays, int offset) {
+		GregorianCalendar epoch = new GregorianCalendar(TimeZone.getDefault());
+		epoch.clear();
+		epoch.set(2016, Calendar.FEBRUARY, 4);
+		
+		GregorianCalendar day = new GregorianCalendar(TimeZone.getDefault());
+		day.setTime(date);
+		day.set(Calendar.HOUR_OF_DAY, 0);
+		day.set(Calendar.MINUTE, 0);
+		day.set(Calendar.SECOND, 0);
+		day.set(Calendar.MILLISECOND, 0);
+		
+		// Round rather than truncate so a daylight saving change between the dates does not lose a day
+		long days = Math.round((day.getTimeInMillis() - epoch.getTimeInMillis()) / (double) TimeUnit.DAYS.toMillis(1));
+		long cycles = Math.floorDiv(days, cycleDays) + offset;
+		epoch.add(Calendar.DATE, (int) (cycles * cycleDays));
+		
+		return epoch.getTime();
+	}
+	
+	/**
+	 * Calculate the cycle number of a 28 day or 56 day cycle. The number is the ordinal of the cycle within 
+	 * the year of its effective date, so the first cycle of each year is number 1.
+	 * @param effectiveDate the effective date of the cycle
+	 * @param cycleDays the length of the cycle, 28 or 56 days
+	 * @return the cycle number
+	 */
+	public static int getCycleNumber (Date effectiveDate, int cycleDays) {
+		GregorianCalendar calendar = new GregorianCalendar(TimeZone.getDefault());
+		calendar.setTime(effectiveDate);
+		
+		return (calendar.get(Calendar.DAY_OF_YEAR) - 1) / cycleDays + 1;
+	}
+	
 	public static int getDECCycleNumber (Calendar startDate) {
 		GregorianCalendar epoch = new GregorianCalendar(TimeZone.getDefault());
 
@@ -0,0 +1,147 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.filter.EncodingFilter;
+import org.glassfish.jersey.message.GZipEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+
+/**
+ * This is the single gateway through which APRA reaches the denodo views. A single JAX-RS client
+ * is built on a pooled connection manager so connections (and their TLS sessions) are kept alive
+ * and reused between calls rather than being opened and leaked on every request. Responses are
+ * requested with gzip content encoding. Timeouts and pool sizes are taken from the configuration. 
+ * The json responses are parsed as they are read from the connection rather than first being 
+ * copied into a string. A circuit breaker refuses the requests while denodo is failing or slow, so
+ * the callers keep their cached data instead of holding a request thread.
+ *
+ * @author FAA
+ *
+ */
+public class DenodoGateway {
+	private static final Logger logger = LoggerFactory.getLogger(DenodoGateway.class);
+	private static DenodoGateway instance;
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final Client client;
+	private final CircuitBreaker breaker = new CircuitBreaker("denodo", Config.getDenodoSlowCallDuration());
+
+	private DenodoGateway () {
+		connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(Config.getDenodoMaxConnections());
+		connectionManager.setDefaultMaxPerRoute(Config.getDenodoMaxConnectionsPerRoute());
+
+		ClientConfig clientConfig = new ClientConfig();
+		clientConfig.connectorProvider(new ApacheConnectorProvider());
+		clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
+		clientConfig.property(ClientProperties.CONNECT_TIMEOUT, Config.getDenodoConnectTimeout());
+		clientConfig.property(ClientProperties.READ_TIMEOUT, Config.getDenodoReadTimeout());
+		clientConfig.register(GZipEncoder.class);
+		clientConfig.register(EncodingFilter.class);
+
+		client = ClientBuilder.newClient(clientConfig);
+
+		logger.info("Denodo gateway created with "+Config.getDenodoMaxConnectionsPerRoute()+" connections per route, "
+				+Config.getDenodoMaxConnections()+" total connections, connect timeout "+Config.getDenodoConnectTimeout()
+				+" ms and read timeout "+Config.getDenodoReadTimeout()+" ms");
+	}
+
+	/**
+	 * Get the shared denodo gateway, creating it on first use
+	 * @return the shared gateway instance
+	 */
+	public static synchronized DenodoGateway getInstance () {
+		if (instance == null) {
+			instance = new DenodoGateway();
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Build a web target for a denodo view URL using the shared, pooled client
+	 * @param url the full denodo view URL including the query string
+	 * @return a web target that can be used to issue the request
+	 */
+	public WebTarget target (String url) {
+		return client.target(url);
+	}
+
+	/**
+	 * Request a denodo view and parse the json response into an object of the given type
+	 * @param url the full denodo view URL including the query string
+	 * @param type the class of the object to create from the response
+	 * @return the parsed response
+	 * @throws IOException if the response cannot be read or does not hold the expected json
+	 */
+	public <T> T get (String url, Class<T> type) throws IOException {
+		return get(url, MediaType.APPLICATION_XML_TYPE, type);
+	}
+	
+	/**
+	 * Request a denodo view with the given accepted media type and parse the json response into an 
+	 * object of the given type
+	 * @param url the full denodo view URL including the query string
+	 * @param accept the media type to request
+	 * @param type the class of the object to create from the response
+	 * @return the parsed response
+	 * @throws CircuitBreaker.OpenException if the denodo circuit breaker is open and the request was not made
+	 * @throws IOException if the response cannot be read or does not hold the expected json
+	 */
+	public <T> T get (String url, MediaType accept, Class<T> type) throws IOException {
+		return breaker.execute(() -> {
+			try (InputStream in = target(url).request(accept).get(InputStream.class)) {
+				return JsonUtil.readValue(in, type);
+			}
+		});
+	}
+
+	/**
+	 * Get the circuit breaker guarding the denodo requests
+	 * @return the breaker
+	 */
+	public CircuitBreaker getBreaker () {
+		return breaker;
+	}
+
+	/**
+	 * Close the shared client and release all pooled connections. A subsequent call to getInstance
+	 * builds a new gateway using the current configuration values.
+	 */
+	public static synchronized void shutdown () {
+		if (instance == null) {
+			return;
+		}
+
+		logger.info("Closing the denodo gateway and releasing pooled connections.");
+		instance.client.close();
+		instance.connectionManager.shutdown();
+		instance = null;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+
+/**
+ * Selects the threads on which the product responses are built and the HEAD checks are made. In platform
+ * mode each pool has a fixed number of threads. In virtual mode every task runs on its own virtual thread,
+ * so requests blocked on denodo or the file server do not hold a platform thread and the number waiting at
+ * once is bounded only by the connection pools. Virtual threads need a Java 21 runtime. They are created
+ * through reflection because APRA is built for Java 8, and platform threads are used when they are not
+ * available.
+ *
+ * @author FAA
+ *
+ */
+public enum ExecutionMode {
+	PLATFORM, VIRTUAL;
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionMode.class);
+	private static final Method ofVirtual = getMethod(Thread.class, "ofVirtual");
+	private static final Method name = ofVirtual == null ? null : getMethod(ofVirtual.getReturnType(), "name", String.class, long.class);
+	private static final Method factory = ofVirtual == null ? null : getMethod(ofVirtual.getReturnType(), "factory");
+	private static final Method threadPerTask = getMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+	/**
+	 * Get the execution mode from the configuration
+	 * @return the configured mode, or platform if the configured value is not recognized
+	 */
+	public static ExecutionMode getConfigured () {
+		String mode = Config.getExecutionMode();
+
+		try {
+			return valueOf(mode.toUpperCase(Locale.ENGLISH));
+		}
+		catch (IllegalArgumentException iae) {
+			logger.warn("Unknown execution mode '"+mode+"'. Platform threads are used.");
+			return PLATFORM;
+		}
+	}
+
+	/**
+	 * Determine whether the runtime supports virtual threads
+	 * @return true if virtual threads can be created
+	 */
+	public static boolean isVirtualAvailable () {
+		return ofVirtual != null && name != null && factory != null && threadPerTask != null;
+	}
+
+	/**
+	 * Create an executor for the given pool in this mode
+	 * @param prefix the prefix of the thread names
+	 * @param threads the number of platform threads in the pool
+	 * @return a fixed pool of daemon platform threads, or an executor that starts a virtual thread for each task
+	 */
+	public ExecutorService newExecutor (String prefix, int threads) {
+		if (this == VIRTUAL) {
+			if (isVirtualAvailable()) {
+				try {
+					Object builder = name.invoke(ofVirtual.invoke(null), prefix, 1L);
+					logger.info("Created the "+prefix+" executor on virtual threads.");
+					return (ExecutorService) threadPerTask.invoke(null, factory.invoke(builder));
+				}
+				catch (ReflectiveOperationException | RuntimeException ex) {
+					logger.warn("Unable to create virtual threads for the "+prefix+" executor. Platform threads are used.", ex);
+				}
+			}
+			else {
+				logger.warn("Virtual threads are not available on Java "+System.getProperty("java.version")+". Platform threads are used for the "+prefix+" executor.");
+			}
+		}
+
+		AtomicInteger count = new AtomicInteger();
+		return Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, prefix+count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private static Method getMethod (Class <?> type, String methodName, Class <?> ... parameterTypes) {
+		try {
+			return type.getMethod(methodName, parameterTypes);
+		}
+		catch (NoSuchMethodException nsme) {
+			return null;
+		}
+	}
+}
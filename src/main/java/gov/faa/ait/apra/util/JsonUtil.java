@@ -14,23 +14,31 @@
 package gov.faa.ait.apra.util;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.text.SimpleDateFormat;
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Charsets;
+import com.fasterxml.jackson.databind.ObjectReader;
 /**
  * Unmarshalling utility class for json data.   Target type must extend this.
  * This construct was due to Java Generics and type erasure.
  * 
+ * The static methods parse denodo responses with a single shared mapper. One reader is created for 
+ * each target type and reused, as readers are immutable and thread safe.
+ * 
  * @author FAA
  *
  * @param <T>
  */
 public abstract class JsonUtil<T> {
+	private static final ObjectMapper mapper = createMapper();
+	private static final ConcurrentMap <Class<?>, ObjectReader> readers = new ConcurrentHashMap <> ();
+	private static final ConcurrentMap <Class<?>, Class<?>> targetTypes = new ConcurrentHashMap <> ();
 
     /**
      * 
@@ -40,14 +48,65 @@ public abstract class JsonUtil<T> {
      * @throws JsonParseException
      * @throws JsonMappingException
      */
-	@SuppressWarnings("unchecked")
 	public T unmarshalJson(String unbound)
 			throws IOException, JsonParseException, JsonMappingException {
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		mapper.configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true);
-		mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
-		Class<?> targetClass = (Class<T>) GenericsUtil.getTypeArguments(JsonUtil.class, this.getClass()).get(0);
-		return (T) mapper.readValue(unbound.getBytes(Charsets.UTF_16), targetClass);
+		return getReader(getTargetType()).readValue(unbound);
+	}
+	
+	/**
+	 * Unmarshal json data read from a stream such as a denodo response body. The stream is not closed.
+	 * @param in the json data
+	 * @return the unmarshalled object
+	 * @throws IOException if the stream cannot be read or does not hold the expected json
+	 */
+	public T unmarshalJson(InputStream in) throws IOException {
+		return getReader(getTargetType()).readValue(in);
+	}
+	
+	/**
+	 * Parse json data from a stream into an object of the given type. The stream is not closed.
+	 * @param in the json data
+	 * @param type the class of the object to create
+	 * @return the parsed object
+	 * @throws IOException if the stream cannot be read or does not hold the expected json
+	 */
+	public static <V> V readValue(InputStream in, Class<V> type) throws IOException {
+		return getReader(type).readValue(in);
+	}
+	
+	/**
+	 * Get the shared reader for a target type
+	 * @param type the class of the objects to read
+	 * @return a thread safe reader for the type
+	 */
+	public static ObjectReader getReader(Class<?> type) {
+		ObjectReader reader = readers.get(type);
+		
+		if (reader == null) {
+			reader = readers.computeIfAbsent(type, mapper::readerFor);
+		}
+		
+		return reader;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Class<T> getTargetType() {
+		// Resolving the type argument walks the class hierarchy, so do it once per subclass
+		Class<?> targetClass = targetTypes.get(this.getClass());
+		
+		if (targetClass == null) {
+			targetClass = GenericsUtil.getTypeArguments(JsonUtil.class, this.getClass()).get(0);
+			targetTypes.putIfAbsent(this.getClass(), targetClass);
+		}
+		
+		return (Class<T>) targetClass;
+	}
+	
+	private static ObjectMapper createMapper() {
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		objectMapper.configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true);
+		objectMapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
+		return objectMapper;
 	}
 }
@@ -0,0 +1,190 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+
+/**
+ * This is the single client through which APRA makes the HEAD checks of the product download URLs. The
+ * client is built once on a pooled connection manager so connections to the aeronav host are kept alive
+ * and reused between checks. The DMZ proxy, when configured, is read once when the client is built, and
+ * otherwise the JVM proxy settings such as http.proxyHost and http.nonProxyHosts apply. The
+ * client counts the checks made and the connections opened, so the reuse of connections can be seen
+ * from the management service. A circuit breaker refuses the checks while the file server is failing
+ * or slow, and the links are then returned unverified.
+ *
+ * @author FAA
+ *
+ */
+public class LinkCheckClient {
+	private static final Logger logger = LoggerFactory.getLogger(LinkCheckClient.class);
+	private static LinkCheckClient instance;
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final CloseableHttpClient client;
+	private final CircuitBreaker breaker = new CircuitBreaker("aeronav HEAD check", Config.getURLCheckSlowCallDuration());
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong connections = new AtomicLong();
+
+	private LinkCheckClient () {
+		HttpConnectionFactory <HttpRoute, ManagedHttpClientConnection> connectionFactory = (route, config) -> {
+			connections.incrementAndGet();
+			return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+		};
+
+		connectionManager = new PoolingHttpClientConnectionManager(connectionFactory);
+		connectionManager.setMaxTotal(Config.getURLCheckMaxConnections());
+		connectionManager.setDefaultMaxPerRoute(Config.getURLCheckMaxConnectionsPerRoute());
+
+		RequestConfig.Builder requestConfig = RequestConfig.custom()
+				.setConnectTimeout(Config.getURLCheckConnectTimeout())
+				.setConnectionRequestTimeout(Config.getURLCheckConnectTimeout())
+				.setSocketTimeout(Config.getURLCheckReadTimeout());
+		HttpHost proxy = getProxy();
+
+		if (proxy != null) {
+			requestConfig.setProxy(proxy);
+		}
+
+		// The system proxy settings are used when no DMZ proxy is configured, as they were with HttpURLConnection
+		client = HttpClients.custom()
+				.useSystemProperties()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig.build())
+				.build();
+
+		logger.info("URL check client created with "+Config.getURLCheckMaxConnectionsPerRoute()+" connections per route, "
+				+Config.getURLCheckMaxConnections()+" total connections, connect timeout "+Config.getURLCheckConnectTimeout()
+				+" ms, read timeout "+Config.getURLCheckReadTimeout()+" ms and "+(proxy != null ? "proxy server "+proxy : "the system proxy settings"));
+	}
+
+	/**
+	 * Get the shared URL check client, creating it on first use
+	 * @return the shared client instance
+	 */
+	public static synchronized LinkCheckClient getInstance () {
+		if (instance == null) {
+			instance = new LinkCheckClient();
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Make an HTTP HEAD request to a URL. The connection is returned to the pool once the response has been read.
+	 * A request that fails, or a response code of 500 or more, counts against the circuit breaker of the client.
+	 * @param url the url to be checked
+	 * @return the response code
+	 * @throws CircuitBreaker.OpenException if the breaker is open and the request was not made
+	 * @throws IOException if the request fails or times out
+	 */
+	public int head (URL url) throws IOException {
+		HttpHead head;
+
+		try {
+			head = new HttpHead(url.toURI());
+		}
+		catch (URISyntaxException esyntax) {
+			throw new IOException("The URL "+url.toExternalForm()+" is not a valid URI", esyntax);
+		}
+
+		return breaker.execute(() -> {
+			requests.incrementAndGet();
+			int status;
+
+			try (CloseableHttpResponse response = client.execute(head)) {
+				status = response.getStatusLine().getStatusCode();
+			}
+
+			// A missing file is an answer, but a server error means the file server is failing
+			if (status >= 500) {
+				throw new IOException("HEAD check of "+url.toExternalForm()+" returned response code "+status);
+			}
+
+			return status;
+		});
+	}
+
+	/**
+	 * Get the circuit breaker guarding the HEAD checks
+	 * @return the breaker
+	 */
+	public CircuitBreaker getBreaker () {
+		return breaker;
+	}
+
+	/**
+	 * Report the use of the client
+	 * @return the number of checks and connections opened and the state of the connection pool
+	 */
+	public String getStatus () {
+		long checks = requests.get();
+		long opened = connections.get();
+		PoolStats stats = connectionManager.getTotalStats();
+
+		return "URL check client: "+checks+" checks on "+opened+" connections, "+Math.max(0, checks - opened)+" reused. Pool has "
+				+stats.getLeased()+" leased, "+stats.getAvailable()+" idle and "+stats.getPending()+" pending of "+stats.getMax()+" connections.";
+	}
+
+	private static HttpHost getProxy () {
+		String host = Config.getFAADMZProxyHost();
+
+		if (host == null || host.trim().isEmpty()) {
+			return null;
+		}
+
+		return new HttpHost(host.trim(), Integer.parseInt(Config.getFAADMZProxyPort().trim()));
+	}
+
+	/**
+	 * Close the shared client and release all pooled connections. A subsequent call to getInstance
+	 * builds a new client using the current configuration values.
+	 */
+	public static synchronized void shutdown () {
+		if (instance == null) {
+			return;
+		}
+
+		logger.info("Closing the URL check client and releasing pooled connections.");
+
+		try {
+			instance.client.close();
+		}
+		catch (IOException eio) {
+			logger.warn("Unable to close the URL check client", eio);
+		}
+
+		instance.connectionManager.shutdown();
+		instance = null;
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+
+/**
+ * Holds fully rendered responses so that a repeated request is answered without building and
+ * marshalling the product set again. A response is keyed by the request path, the sorted query
+ * parameters and the accepted media type, and is only valid for the version of the chart cycles and
+ * reference data it was built from. The cache is cleared when the data version changes. Entries are evicted least
+ * recently used first once the total size reaches the configured limit, and expire after the
+ * configured maximum age. Reads and writes do not share a lock, only the eviction of entries once
+ * the cache is full is made by one thread at a time.
+ *
+ * @author FAA
+ *
+ */
+public final class ResponseCache {
+	private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+	private static final ResponseCache instance = new ResponseCache();
+	private final ConcurrentHashMap <String, Node> entries = new ConcurrentHashMap <> (64);
+	private final AtomicLong size = new AtomicLong();
+	private final Object evictLock = new Object();
+	private volatile long version = -1;
+
+	private ResponseCache () { }
+
+	/**
+	 * Get the shared response cache
+	 * @return the response cache
+	 */
+	public static ResponseCache getInstance () {
+		return instance;
+	}
+
+	/**
+	 * Build the key of a request. The query parameters are sorted so the order they are given in does not matter.
+	 * @param path the request path
+	 * @param query the query parameters of the request
+	 * @param accept the accepted media types of the request
+	 * @return the key of the request
+	 */
+	public static String getKey (String path, Map <String, List <String>> query, String accept) {
+		StringBuilder key = new StringBuilder(path).append('?');
+
+		for (Map.Entry <String, List <String>> param : new TreeMap <> (query).entrySet()) {
+			List <String> values = new ArrayList <> (param.getValue());
+			Collections.sort(values);
+
+			for (String value : values) {
+				key.append(param.getKey()).append('=').append(value).append('&');
+			}
+		}
+
+		return key.append('|').append(accept == null ? "" : accept.trim().toLowerCase()).toString();
+	}
+
+	/**
+	 * Get the cached response for a request
+	 * @param key the key of the request
+	 * @param dataVersion the current version of the chart cycles and reference data
+	 * @return the cached response or null if there is none for this data version
+	 */
+	public Entry get (String key, long dataVersion) {
+		checkVersion(dataVersion);
+		Node node = entries.get(key);
+
+		if (node == null) {
+			return null;
+		}
+
+		// A response put while the cycles changed is dropped on first read
+		if (node.version != version || node.entry.isExpired()) {
+			remove(key, node);
+			return null;
+		}
+
+		node.lastAccess = System.nanoTime();
+		return node.entry;
+	}
+
+	/**
+	 * Add a response to the cache. Responses larger than a quarter of the cache are not held.
+	 * @param key the key of the request
+	 * @param dataVersion the version of the chart cycles and reference data the response was built from
+	 * @param entry the rendered response
+	 */
+	public void put (String key, long dataVersion, Entry entry) {
+		long maxSize = getMaxSize();
+
+		if (entry.getSize() > getMaxEntrySize()) {
+			return;
+		}
+
+		checkVersion(dataVersion);
+
+		// The cycles changed while the response was built
+		if (dataVersion != version) {
+			return;
+		}
+
+		Node node = new Node(entry, dataVersion);
+		Node previous = entries.put(key, node);
+		size.addAndGet(entry.getSize());
+
+		if (previous != null) {
+			size.addAndGet(-previous.entry.getSize());
+		}
+
+		if (size.get() > maxSize) {
+			evict(maxSize);
+		}
+	}
+
+	/**
+	 * Remove every response from the cache
+	 */
+	public void flush () {
+		logger.info("Response cache is being flushed. "+entries.size()+" responses using "+size.get()+" bytes are removed.");
+		entries.forEach(this::remove);
+	}
+
+	/**
+	 * Get the number of cached responses
+	 * @return the number of responses
+	 */
+	public int size () {
+		return entries.size();
+	}
+
+	private void checkVersion (long dataVersion) {
+		if (dataVersion <= version) {
+			return;
+		}
+
+		synchronized (this) {
+			if (dataVersion > version) {
+				if (! entries.isEmpty()) {
+					logger.info("The response data changed from version "+version+" to "+dataVersion+".");
+					flush();
+				}
+
+				version = dataVersion;
+			}
+		}
+	}
+
+	/*
+	 * Remove the least recently used responses until the cache is within its limit. Only one thread evicts at a time.
+	 */
+	private void evict (long maxSize) {
+		synchronized (evictLock) {
+			if (size.get() <= maxSize) {
+				return;
+			}
+
+			List <Map.Entry <String, Node>> eldest = new ArrayList <> (entries.entrySet());
+
+			// The access times are read once, so reads made during the sort do not change the order
+			for (Map.Entry <String, Node> entry : eldest) {
+				entry.getValue().evictOrder = entry.getValue().lastAccess;
+			}
+			eldest.sort(Comparator.comparingLong(entry -> entry.getValue().evictOrder));
+
+			for (int i = 0; i < eldest.size() && size.get() > maxSize; i++) {
+				remove(eldest.get(i).getKey(), eldest.get(i).getValue());
+			}
+		}
+	}
+
+	private void remove (String key, Node node) {
+		if (entries.remove(key, node)) {
+			size.addAndGet(-node.entry.getSize());
+		}
+	}
+
+	private static long getMaxSize () {
+		return Config.getResponseCacheMaxMB() * 1024L * 1024L;
+	}
+
+	/**
+	 * Get the largest response body that is held in the cache
+	 * @return the size limit of one response in bytes
+	 */
+	public static long getMaxEntrySize () {
+		return getMaxSize() / 4;
+	}
+
+	/**
+	 * A cached response with the data version it was built from and the time it was last read
+	 */
+	private static final class Node {
+		private final Entry entry;
+		private final long version;
+		private volatile long lastAccess = System.nanoTime();
+		private long evictOrder;
+
+		private Node (Entry entry, long version) {
+			this.entry = entry;
+			this.version = version;
+		}
+	}
+
+	/**
+	 * A rendered response with its media type and the headers that go with it. The gzip encoded body is 
+	 * built once when the response is cached.
+	 */
+	public static final class Entry {
+		private final byte [] body;
+		private final byte [] gzipBody;
+		private final String mediaType;
+		private final Map <String, String> headers;
+		private final long createdAt;
+
+		/**
+		 * Create a cached response
+		 * @param body the rendered response body
+		 * @param mediaType the media type of the body
+		 * @param headers the response headers to replay with the body
+		 */
+		public Entry (byte [] body, String mediaType, Map <String, String> headers) {
+			this.body = body;
+			this.gzipBody = gzip(body);
+			this.mediaType = mediaType;
+			this.headers = Collections.unmodifiableMap(new TreeMap <> (headers));
+			this.createdAt = System.currentTimeMillis();
+		}
+
+		public byte [] getBody () {
+			return body;
+		}
+
+		public byte [] getGzipBody () {
+			return gzipBody;
+		}
+
+		/**
+		 * Get the memory held by this response
+		 * @return the size of the plain and gzip encoded bodies in bytes
+		 */
+		public long getSize () {
+			return (long) body.length + gzipBody.length;
+		}
+
+		public String getMediaType () {
+			return mediaType;
+		}
+
+		public Map <String, String> getHeaders () {
+			return headers;
+		}
+
+		public long getCreatedAt () {
+			return createdAt;
+		}
+
+		private static byte [] gzip (byte [] body) {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+
+			try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+				out.write(body);
+			}
+			catch (IOException ioe) {
+				// Writing to memory does not fail
+				throw new UncheckedIOException(ioe);
+			}
+
+			return buffer.toByteArray();
+		}
+
+		private boolean isExpired () {
+			return System.currentTimeMillis() - createdAt >= TimeUnit.MINUTES.toMillis(Config.getResponseCacheMaxAge());
+		}
+	}
+}
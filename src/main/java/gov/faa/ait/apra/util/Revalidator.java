@@ -0,0 +1,144 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+
+/**
+ * Paces the reloads of a cache whose data has passed its freshness window. The stale data keeps being
+ * served while the reload runs in the background. After a failed reload the next attempt waits for a
+ * backoff that doubles with each failure up to the configured maximum, so a denodo outage is not met
+ * with a reload from every request.
+ *
+ * @author FAA
+ *
+ */
+public final class Revalidator {
+	private static final Logger logger = LoggerFactory.getLogger(Revalidator.class);
+	private static ExecutorService executor;
+	private final String name;
+	private final AtomicBoolean running = new AtomicBoolean();
+	private volatile int failures;
+	private volatile long nextAttempt;
+
+	/**
+	 * Create a revalidator
+	 * @param name the name of the cache used in log messages
+	 */
+	public Revalidator (String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Determine whether the backoff after the last failed reload has passed
+	 * @return true if a reload may be attempted
+	 */
+	public boolean isDue () {
+		return System.currentTimeMillis() >= nextAttempt;
+	}
+
+	/**
+	 * Reload on the calling thread if the backoff has passed. Used when there is no data to serve in the meantime.
+	 * @param reload the reload, returning true if it succeeded
+	 * @return true if the reload was attempted and succeeded
+	 */
+	public boolean revalidateNow (BooleanSupplier reload) {
+		if (! isDue()) {
+			return false;
+		}
+
+		boolean ok = reload.getAsBoolean();
+		record(ok);
+		return ok;
+	}
+
+	/**
+	 * Start a reload in the background if the backoff has passed and no reload of this cache is running
+	 * @param reload the reload, returning true if it succeeded
+	 */
+	public void revalidate (BooleanSupplier reload) {
+		if (! isDue() || ! running.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			getExecutor().execute(() -> {
+				try {
+					record(reload.getAsBoolean());
+				}
+				catch (RuntimeException ex) {
+					logger.warn("Unable to revalidate the "+name+" cache.", ex);
+					record(false);
+				}
+				finally {
+					running.set(false);
+				}
+			});
+		}
+		catch (RuntimeException ex) {
+			running.set(false);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Record the outcome of a reload made elsewhere, such as by the background refresh
+	 * @param ok true if the reload succeeded
+	 */
+	public void record (boolean ok) {
+		if (ok) {
+			failures = 0;
+			nextAttempt = 0;
+			return;
+		}
+
+		int failed = ++failures;
+		long initial = TimeUnit.SECONDS.toMillis(Config.getRevalidateBackoff());
+		long max = TimeUnit.SECONDS.toMillis(Config.getRevalidateBackoffMax());
+		long backoff = Math.min(max, initial << Math.min(failed - 1, 20));
+		nextAttempt = System.currentTimeMillis() + backoff;
+		logger.warn("Revalidation of the "+name+" cache failed "+failed+" times. Serving the previous data and retrying in "+(backoff / 1000)+" s.");
+	}
+
+	private static synchronized ExecutorService getExecutor () {
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "apra-revalidate");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return executor;
+	}
+
+	/**
+	 * Stop the background revalidation thread. A later revalidation starts a new one.
+	 */
+	public static synchronized void shutdown () {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+}
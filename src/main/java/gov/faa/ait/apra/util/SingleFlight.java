@@ -0,0 +1,92 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesces concurrent loads of the same key so that only one call to the upstream source is in flight 
+ * at any time. The first caller for a key runs the loader; every other caller arriving while that load 
+ * is running waits for and receives the same result (or the same failure). Once the load finishes the 
+ * key is released and the next caller starts a new load.
+ * 
+ * @author FAA
+ *
+ * @param <K> the type of the key identifying a load, typically the denodo URL
+ * @param <V> the type of the loaded value
+ */
+public class SingleFlight <K, V> {
+	private final ConcurrentHashMap <K, CompletableFuture<V>> inFlight = new ConcurrentHashMap <> ();
+	
+	/**
+	 * Run the loader for the given key unless a load for the same key is already running, in which case
+	 * wait for that load and return its result.
+	 * @param key the key identifying the load
+	 * @param loader the loader to call if no load for the key is in flight
+	 * @return the value produced by the single in flight load
+	 * @throws Exception the exception thrown by the loader
+	 */
+	public V execute (K key, Callable<V> loader) throws Exception {
+		CompletableFuture<V> created = new CompletableFuture <> ();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+		
+		if (existing != null) {
+			return await(existing);
+		}
+		
+		try {
+			V value = loader.call();
+			created.complete(value);
+			return value;
+		}
+		catch (Exception ex) {
+			created.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			if (! created.isDone()) {
+				created.completeExceptionally(new IllegalStateException("Load for "+key+" did not complete"));
+			}
+			inFlight.remove(key, created);
+		}
+	}
+	
+	/**
+	 * Determine whether a load for the given key is currently running
+	 * @param key the key identifying the load
+	 * @return true if a load is in flight, false otherwise
+	 */
+	public boolean isInFlight (K key) {
+		return inFlight.containsKey(key);
+	}
+	
+	private V await (CompletableFuture<V> future) throws Exception {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw ex;
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof Exception) {
+				throw (Exception) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+}
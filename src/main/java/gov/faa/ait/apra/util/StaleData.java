@@ -0,0 +1,61 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.util.Date;
+
+/**
+ * Records, for the request being handled on the current thread, the oldest data it was served from that
+ * had passed its freshness window. The caches mark the data they return while a revalidation is pending
+ * and the response is then flagged as stale with its age.
+ *
+ * @author FAA
+ *
+ */
+public final class StaleData {
+	private static final ThreadLocal <Long> staleSince = new ThreadLocal <> ();
+
+	private StaleData () { }
+
+	/**
+	 * Mark that the current request used data that was fresh until the given time. Nothing is marked if the time has not passed yet.
+	 * @param freshUntil the end of the freshness window of the data
+	 */
+	public static void mark (Date freshUntil) {
+		if (freshUntil == null || freshUntil.getTime() > System.currentTimeMillis()) {
+			return;
+		}
+
+		Long since = staleSince.get();
+		if (since == null || freshUntil.getTime() < since) {
+			staleSince.set(freshUntil.getTime());
+		}
+	}
+
+	/**
+	 * Get how long the stalest data used by the current request has been stale
+	 * @return the age in seconds, or -1 if all the data was fresh
+	 */
+	public static long getAge () {
+		Long since = staleSince.get();
+		return since == null ? -1 : Math.max(0, (System.currentTimeMillis() - since) / 1000);
+	}
+
+	/**
+	 * Forget the marks of the current request
+	 */
+	public static void clear () {
+		staleSince.remove();
+	}
+}
@@ -17,17 +17,9 @@ import java.io.UnsupportedEncodingException;
 
 import java.text.SimpleDateFormat;
 
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import gov.faa.ait.apra.bootstrap.Config;
 import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
 import gov.faa.ait.apra.json.SupplementChartMetadata;
@@ -96,22 +88,14 @@ public class SupplementMetadataClient {
 	
 	// This is the meat of the operation. Once we have the query string all setup based upon the calls for state, volume or others, we execute the request against denodo
 	private SupplementChartMetadata getSupplementChartMetadataQuery () {			
-		String unbound = "";
-		
 		try {
 			logger.info("Calling denodo for Supplement metadata at "+url.toString());
-			
-			Client client = ClientBuilder.newClient();	
-			WebTarget webTarget = client.target(this.url.toString());
 
 			long now = System.currentTimeMillis();
-			unbound = webTarget.request(MediaType.APPLICATION_XML_TYPE).get(String.class);
+			SupplementChartMetadata metadata = DenodoGateway.getInstance().get(this.url.toString(), SupplementChartMetadata.class);
 			long duration = System.currentTimeMillis() - now;
 			logger.info("Call for Supplement Metadata took "+duration+" ms");
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
-			return mapper.readValue(unbound.getBytes("UTF-8"), SupplementChartMetadata.class);
+			return metadata;
 		}
 		catch (Exception ex) {
 			logger.warn("Error getting chart cycle information using url "+this.url.toString(), ex);
@@ -16,22 +16,12 @@ package gov.faa.ait.apra.util;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import gov.faa.ait.apra.bootstrap.Config;
 import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
 import gov.faa.ait.apra.json.TPPChartMetadata;
@@ -60,10 +50,7 @@ public class TPPMetadataClient {
 	public TPPMetadataClient (ChartCycleElementsJson cycle) {
 		this.url = new StringBuilder(BASE_URI);
 		
-		GregorianCalendar cal = (GregorianCalendar) GregorianCalendar.getInstance();
-		cal.setTime(cycle.getChart_effective_date());
-		String year = Integer.toString(cal.get(Calendar.YEAR));
-		this.edition = year.substring(2, 4)+cycle.getChart_cycle_number();
+		this.edition = getEdition(cycle);
 		this.url = this.url.append(EDITION_PARAM).append(edition);
 		
 		logger.info("URL for TPP metadata query constructed as is currently "+url);
@@ -140,22 +127,14 @@ public class TPPMetadataClient {
 	
 	// This is the meat of the operation. Once we have the query string all setup based upon the calls for state, volume or others, we execute the request against denodo
 	private TPPChartMetadata getTPPChartMetadataQuery () {			
-		String unbound = "";
-		
 		try {
 			logger.info("Calling denodo for TPP metadata at "+url.toString());
-			
-			Client client = ClientBuilder.newClient();	
-			WebTarget webTarget = client.target(this.url.toString());
 
 			long now = System.currentTimeMillis();
-			unbound = webTarget.request(MediaType.APPLICATION_XML_TYPE).get(String.class);
+			TPPChartMetadata metadata = DenodoGateway.getInstance().get(this.url.toString(), TPPChartMetadata.class);
 			long duration = System.currentTimeMillis() - now;
 			logger.info("Call for DTPP Metadata took "+duration+" ms");
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
-			return mapper.readValue(unbound.getBytes("UTF-8"), TPPChartMetadata.class);
+			return metadata;
 		}
 		catch (IOException eio) {
 			logger.warn("Error getting chart cycle information using url "+this.url.toString(), eio);
@@ -172,4 +151,16 @@ public class TPPMetadataClient {
 	public String getEdition() {
 		return edition;
 	}
+	
+	/**
+	 * Get the TPP edition for a 28 day cycle, the two digit year of the effective date followed by the cycle number
+	 * @param cycle the current or next 28 day cycle
+	 * @return the edition such as 1607
+	 */
+	public static String getEdition(ChartCycleElementsJson cycle) {
+		GregorianCalendar cal = (GregorianCalendar) GregorianCalendar.getInstance();
+		cal.setTime(cycle.getChart_effective_date());
+		String year = Integer.toString(cal.get(Calendar.YEAR));
+		return year.substring(2, 4)+cycle.getChart_cycle_number();
+	}
 }
@@ -0,0 +1,146 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import gov.faa.ait.apra.json.TPPMetadata;
+
+/**
+ * An immutable set of TPP chart metadata for one edition, indexed by state name, volume, airport 
+ * identifier and ICAO identifier. The indexes are built once when the metadata is loaded and the 
+ * lookups are case insensitive. Each index keeps the charts in the order returned by denodo.
+ * 
+ * @author FAA
+ *
+ */
+public final class TPPMetadataIndex {
+	private final List <TPPMetadata> elements;
+	private final Map <String, List <TPPMetadata>> byState;
+	private final Map <String, List <TPPMetadata>> byVolume;
+	private final Map <String, List <TPPMetadata>> byAirport;
+	private final Map <String, List <TPPMetadata>> byIcao;
+	
+	/**
+	 * Build the indexes for a set of TPP metadata
+	 * @param metadata the TPP chart metadata returned by denodo
+	 */
+	public TPPMetadataIndex (TPPMetadata [] metadata) {
+		List <TPPMetadata> list = new ArrayList <> (metadata.length);
+		for (TPPMetadata element : metadata) {
+			if (element != null) {
+				list.add(element);
+			}
+		}
+		this.elements = Collections.unmodifiableList(list);
+		
+		Map <String, List <TPPMetadata>> state = newIndex();
+		Map <String, List <TPPMetadata>> volume = newIndex();
+		Map <String, List <TPPMetadata>> airport = newIndex();
+		Map <String, List <TPPMetadata>> icao = newIndex();
+		
+		for (TPPMetadata element : elements) {
+			add(state, element.getState_fullname(), element);
+			add(volume, element.getVolume(), element);
+			add(airport, element.getAirport_identifier(), element);
+			add(icao, element.getAirport_icao_identifier(), element);
+		}
+		
+		this.byState = freeze(state);
+		this.byVolume = freeze(volume);
+		this.byAirport = freeze(airport);
+		this.byIcao = freeze(icao);
+	}
+	
+	/**
+	 * Get all of the charts in this set
+	 * @return an unmodifiable list of the chart metadata
+	 */
+	public List <TPPMetadata> getElements () {
+		return elements;
+	}
+	
+	/**
+	 * Get the charts of a state
+	 * @param stateName a full state name such as Alaska
+	 * @return an unmodifiable list of the chart metadata, empty if the state has no charts
+	 */
+	public List <TPPMetadata> getByState (String stateName) {
+		return lookup(byState, stateName);
+	}
+	
+	/**
+	 * Get the charts of a TPP volume
+	 * @param volumeName the volume name such as NE-1
+	 * @return an unmodifiable list of the chart metadata, empty if the volume has no charts
+	 */
+	public List <TPPMetadata> getByVolume (String volumeName) {
+		return lookup(byVolume, volumeName);
+	}
+	
+	/**
+	 * Get the charts of an airport by its FAA identifier
+	 * @param airportId the airport identifier such as DFW
+	 * @return an unmodifiable list of the chart metadata, empty if the airport has no charts
+	 */
+	public List <TPPMetadata> getByAirport (String airportId) {
+		return lookup(byAirport, airportId);
+	}
+	
+	/**
+	 * Get the charts of an airport by its ICAO identifier
+	 * @param icaoId the ICAO identifier such as KDFW
+	 * @return an unmodifiable list of the chart metadata, empty if the airport has no charts
+	 */
+	public List <TPPMetadata> getByIcao (String icaoId) {
+		return lookup(byIcao, icaoId);
+	}
+	
+	/**
+	 * Get the number of charts in this set
+	 * @return the number of charts
+	 */
+	public int size () {
+		return elements.size();
+	}
+	
+	private static List <TPPMetadata> lookup (Map <String, List <TPPMetadata>> index, String key) {
+		List <TPPMetadata> found = key == null ? null : index.get(key);
+		return found == null ? Collections.<TPPMetadata>emptyList() : found;
+	}
+	
+	private static void add (Map <String, List <TPPMetadata>> index, String key, TPPMetadata element) {
+		if (key == null || key.isEmpty()) {
+			return;
+		}
+		
+		index.computeIfAbsent(key, k -> new ArrayList <> ()).add(element);
+	}
+	
+	private static Map <String, List <TPPMetadata>> newIndex () {
+		return new TreeMap <> (String.CASE_INSENSITIVE_ORDER);
+	}
+	
+	private static Map <String, List <TPPMetadata>> freeze (Map <String, List <TPPMetadata>> index) {
+		for (Map.Entry <String, List <TPPMetadata>> entry : index.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		
+		return Collections.unmodifiableMap(index);
+	}
+}
@@ -0,0 +1,292 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+import gov.faa.ait.apra.cycle.ChartCycleClient;
+import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.json.TPPChartMetadata;
+import gov.faa.ait.apra.json.TPPMetadata;
+
+/**
+ * Holds the TPP chart metadata of recent editions in memory. The complete metadata of an edition, 
+ * and the subset of charts changed in that edition, are each loaded from denodo once and indexed so 
+ * state, volume and changeset responses are built without calling denodo. Only the most recent 
+ * editions are kept. The metadata of an edition does not change once it is published, so a held 
+ * edition is only reloaded after the configured reload interval, by the background refresh or, when 
+ * that is disabled, by the request that finds it due. An edition denodo returned no charts for, such 
+ * as a next edition that is not published yet, is held for a few minutes so it is not looked up again 
+ * on every request.
+ * 
+ * @author FAA
+ *
+ */
+public final class TPPMetadataStore {
+	private static final Logger logger = LoggerFactory.getLogger(TPPMetadataStore.class);
+	private static final ConcurrentMap <String, EditionMetadata> editions = new ConcurrentHashMap <> ();
+	private static final SingleFlight <String, EditionMetadata> loads = new SingleFlight <> ();
+	private static final Revalidator revalidator = new Revalidator("TPP metadata");
+	
+	private TPPMetadataStore () { }
+	
+	/**
+	 * Get the TPP metadata of the edition for a 28 day cycle, loading it on first use
+	 * @param cycle the current or next 28 day cycle
+	 * @param changes if true, get only the charts changed in this edition
+	 * @return the indexed metadata or null if it could not be loaded from denodo
+	 */
+	public static TPPMetadataIndex getMetadata (ChartCycleElementsJson cycle, boolean changes) {
+		String edition = TPPMetadataClient.getEdition(cycle);
+		EditionMetadata metadata = editions.get(edition);
+		
+		if (metadata == null) {
+			revalidator.revalidateNow(() -> load(cycle, edition) != null);
+			metadata = editions.get(edition);
+		}
+		else if (metadata.isExpired() && (metadata.isEmpty() || ! Config.getCacheRefreshFlag())) {
+			// The held edition is served while it is reloaded. An empty edition is looked up again sooner than the background refresh runs.
+			revalidator.revalidate(() -> load(cycle, edition) != null);
+		}
+		
+		if (metadata == null) {
+			return null;
+		}
+		
+		return changes ? metadata.changes : metadata.all;
+	}
+	
+	/**
+	 * Load the current and next editions if they are not loaded yet or are due to be reloaded. 
+	 * Called from the background refresh.
+	 * @return true if an edition with charts was loaded
+	 */
+	public static boolean refresh () {
+		ChartCycleClient client = new ChartCycleClient();
+		boolean current = refresh(client.getCurrent28DayCycle());
+		boolean next = refresh(client.getNext28DayCycle());
+		return current || next;
+	}
+	
+	private static boolean refresh (ChartCycleElementsJson cycle) {
+		if (cycle == null) {
+			return false;
+		}
+		
+		String edition = TPPMetadataClient.getEdition(cycle);
+		EditionMetadata metadata = editions.get(edition);
+		
+		if (metadata == null || metadata.isExpired()) {
+			EditionMetadata loaded = load(cycle, edition);
+			revalidator.record(loaded != null);
+			return loaded != null && ! loaded.isEmpty();
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Get the metadata of every edition with charts held in memory
+	 * @return the complete and changed charts and load time of each edition, by edition
+	 */
+	public static Map <String, SavedEdition> getEditions () {
+		Map <String, SavedEdition> saved = new HashMap <> ();
+		
+		for (Map.Entry <String, EditionMetadata> entry : editions.entrySet()) {
+			EditionMetadata metadata = entry.getValue();
+			
+			if (metadata.isEmpty()) {
+				continue;
+			}
+			
+			saved.put(entry.getKey(), new SavedEdition(metadata.all.getElements(), metadata.changes.getElements(), metadata.loadedAt));
+		}
+		
+		return saved;
+	}
+	
+	/**
+	 * Restore the metadata of an edition saved by a previous run. Nothing is restored if the edition is already 
+	 * loaded. An edition that is due to be reloaded is served while it is reloaded.
+	 * @param edition the edition such as 1607
+	 * @param saved the saved metadata
+	 */
+	public static void restore (String edition, SavedEdition saved) {
+		if (saved.all == null || saved.changes == null) {
+			return;
+		}
+		
+		EditionMetadata metadata = new EditionMetadata(new TPPMetadataIndex(saved.all.toArray(new TPPMetadata [0])), 
+				new TPPMetadataIndex(saved.changes.toArray(new TPPMetadata [0])), saved.loadedAt);
+		
+		if (editions.putIfAbsent(edition, metadata) == null) {
+			CycleCache.setReferenceData(getReferenceName(edition), describe(metadata));
+			evict();
+		}
+	}
+	
+	/**
+	 * Remove all editions so they are loaded again on next use
+	 */
+	public static void flush () {
+		logger.info("Flushing the TPP metadata for editions "+editions.keySet());
+		editions.clear();
+	}
+	
+	private static EditionMetadata load (ChartCycleElementsJson cycle, String edition) {
+		try {
+			// Concurrent requests for an edition that is not loaded share a single pair of denodo calls
+			return loads.execute(edition, () -> fetch(cycle, edition));
+		}
+		catch (Exception ex) {
+			logger.error("Unable to load the TPP metadata for edition "+edition, ex);
+			return null;
+		}
+	}
+	
+	private static EditionMetadata fetch (ChartCycleElementsJson cycle, String edition) {
+		long now = System.currentTimeMillis();
+		TPPChartMetadata all = new TPPMetadataClient(cycle, false).getTPPChartMetadata();
+		TPPChartMetadata changes = all == null ? null : new TPPMetadataClient(cycle, true).getTPPChartMetadata();
+		
+		if (all == null || changes == null) {
+			// Keep serving the edition that was loaded previously, if any
+			return null;
+		}
+		
+		EditionMetadata metadata = new EditionMetadata(new TPPMetadataIndex(all.getElements()), new TPPMetadataIndex(changes.getElements()));
+		logger.info("Loaded "+metadata.all.size()+" TPP charts with "+metadata.changes.size()+" changes for edition "+edition
+				+" in "+(System.currentTimeMillis() - now)+" ms");
+		
+		if (metadata.isEmpty()) {
+			EditionMetadata held = editions.get(edition);
+			
+			if (held != null && ! held.isEmpty()) {
+				logger.warn("No TPP metadata found for edition "+edition+". Keeping the "+held.all.size()+" charts loaded previously.");
+				return held;
+			}
+			
+			// The metadata of a next edition may not be published yet. It is looked up again once the empty edition expires.
+			logger.warn("No TPP metadata found for edition "+edition+". Looking for it again in "+Config.getTPPMetadataEmptyTTL()+" minutes.");
+		}
+		
+		editions.put(edition, metadata);
+		CycleCache.setReferenceData(getReferenceName(edition), describe(metadata));
+		evict();
+		return metadata;
+	}
+	
+	private static void evict () {
+		int keep = Config.getTPPMetadataEditions();
+		List <String> loaded = new ArrayList <> (editions.keySet());
+		
+		// Editions are the year and cycle number, for example 1607, so the oldest sort first
+		Collections.sort(loaded);
+		for (int i = 0; i < loaded.size() - keep; i++) {
+			logger.info("Removing TPP metadata for edition "+loaded.get(i));
+			editions.remove(loaded.get(i));
+			CycleCache.setReferenceData(getReferenceName(loaded.get(i)), null);
+		}
+	}
+	
+	private static String getReferenceName (String edition) {
+		return "TPP metadata for edition "+edition;
+	}
+	
+	/*
+	 * Describe the chart fields that go into the TPP responses, so a reload that changes any of them changes the data version
+	 */
+	private static StringBuilder describe (EditionMetadata metadata) {
+		StringBuilder content = new StringBuilder();
+		describe(content, metadata.all);
+		content.append('\n');
+		describe(content, metadata.changes);
+		return content;
+	}
+	
+	private static void describe (StringBuilder content, TPPMetadataIndex index) {
+		for (TPPMetadata element : index.getElements()) {
+			content.append(element.getChartseq()).append('|').append(element.getPdf_name()).append('|').append(element.getChart_name()).append('|')
+				.append(element.getState_fullname()).append('|').append(element.getVolume()).append('|').append(element.getCity_name()).append('|')
+				.append(element.getAirport_identifier()).append('|').append(element.getAirport_icao_identifier()).append('|')
+				.append(element.getAirport_name()).append('|').append(element.getUseraction()).append('\n');
+		}
+	}
+	
+	/**
+	 * The complete and the changed TPP metadata of one edition
+	 */
+	private static final class EditionMetadata {
+		private final TPPMetadataIndex all;
+		private final TPPMetadataIndex changes;
+		private final long loadedAt;
+		
+		private EditionMetadata (TPPMetadataIndex all, TPPMetadataIndex changes) {
+			this(all, changes, System.currentTimeMillis());
+		}
+		
+		private EditionMetadata (TPPMetadataIndex all, TPPMetadataIndex changes, long loadedAt) {
+			this.all = all;
+			this.changes = changes;
+			this.loadedAt = loadedAt;
+		}
+		
+		private boolean isEmpty () {
+			return all.size() == 0;
+		}
+		
+		/*
+		 * An empty edition expires after a few minutes. An edition with charts expires after the reload interval, or never if that is 0.
+		 */
+		private boolean isExpired () {
+			long age = System.currentTimeMillis() - loadedAt;
+			
+			if (isEmpty()) {
+				return age >= TimeUnit.MINUTES.toMillis(Config.getTPPMetadataEmptyTTL());
+			}
+			
+			int reload = Config.getTPPMetadataReload();
+			return reload > 0 && age >= TimeUnit.HOURS.toMillis(reload);
+		}
+	}
+	
+	/**
+	 * The metadata of one edition as written to the cache snapshot file
+	 */
+	public static final class SavedEdition {
+		private List <TPPMetadata> all;
+		private List <TPPMetadata> changes;
+		private long loadedAt;
+		
+		private SavedEdition () { }
+		
+		private SavedEdition (List <TPPMetadata> all, List <TPPMetadata> changes, long loadedAt) {
+			this.all = all;
+			this.changes = changes;
+			this.loadedAt = loadedAt;
+		}
+	}
+}
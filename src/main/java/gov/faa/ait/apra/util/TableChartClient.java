@@ -17,9 +17,6 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 
 import org.slf4j.Logger;
@@ -27,12 +24,19 @@ import org.slf4j.LoggerFactory;
 
 import gov.faa.ait.apra.bootstrap.Config;
 import gov.faa.ait.apra.cycle.ChartCycleData;
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.cycle.CycleSnapshot;
 
 public class TableChartClient {
 	
 	private static Logger logger = LoggerFactory.getLogger(TableChartClient.class);
-	private static ChartInfoTable sectionalTable;
-	private static Date lastUpdate;
+	private static final String REFERENCE_NAME = "sectional chart table";
+	private static volatile ChartInfoTable sectionalTable;
+	private static volatile ChartCycleData sectionalData;
+	private static volatile Date lastUpdate;
+	private static volatile Date expiry;
+	private static final SingleFlight<String, ChartCycleData> refreshes = new SingleFlight<>();
+	private static final Revalidator revalidator = new Revalidator(REFERENCE_NAME);
 	private Date today;
 	
 	/**
@@ -41,9 +45,7 @@ public class TableChartClient {
 	 */
 	public TableChartClient() {
 		this.today = new Date(System.currentTimeMillis());
-		if(updateRequired()) {
-			updateTable();
-		}
+		revalidateTable();
 	}
 	
 	/**
@@ -54,73 +56,161 @@ public class TableChartClient {
 		this.today = new Date (date.getTime());
 	}
 	
-	private static void updateTable() {
+	/**
+	 * Reload the sectional table from denodo. The existing table is replaced only when the 
+	 * reload succeeds, so lookups continue to use the previous table while the reload runs.
+	 */
+	public static void refresh() {
+		revalidator.record(updateTable());
+	}
+	
+	/**
+	 * Reload the sectional table from denodo if it expires within the cycle age limit. Called from the background refresh.
+	 * @return true if a new table was loaded
+	 */
+	public static boolean refreshAhead() {
+		long lead = TimeUnit.HOURS.toMillis(Config.getCycleAgeLimit());
+		Date tableExpiry = TableChartClient.expiry;
+		
+		if(TableChartClient.sectionalTable == null || tableExpiry == null || System.currentTimeMillis() + lead >= tableExpiry.getTime()) {
+			boolean updated = updateTable();
+			revalidator.record(updated);
+			return updated;
+		}
+		
+		return false;
+	}
+	
+	private static boolean updateTable() {
 		// initiate call to REST 
-		TableChartClient.lastUpdate = new Date(System.currentTimeMillis());
-		ChartCycleData chartJson = callResource(TableChartClient.lastUpdate); 
+		Date queryDate = new Date(System.currentTimeMillis());
+		ChartCycleData chartJson = callResource(queryDate); 
 		if(chartJson!=null) {
+			// The table expires with the earliest next edition it holds rather than after a fixed age
+			CycleSnapshot loaded = new CycleSnapshot(chartJson, queryDate);
+			TableChartClient.expiry = CycleCache.getExpiry(loaded);
 			TableChartClient.sectionalTable = new ChartInfoTable(chartJson);
+			TableChartClient.sectionalData = chartJson;
+			// The update time only moves once a table has been loaded, so a failed call is retried
+			TableChartClient.lastUpdate = queryDate;
+			CycleCache.setReferenceData(REFERENCE_NAME, loaded.getDigest());
 		} 
+		return chartJson != null;
+	}
+	
+	/**
+	 * Get the chart cycle data the sectional table was built from
+	 * @return the snapshot of the data and the time it was loaded, or null if no table is loaded
+	 */
+	public static CycleSnapshot getSnapshot () {
+		ChartCycleData data = TableChartClient.sectionalData;
+		Date loaded = TableChartClient.lastUpdate;
+		return data == null || loaded == null ? null : new CycleSnapshot(data, loaded, loaded);
+	}
+	
+	/**
+	 * Restore the sectional table saved by a previous run. Nothing is restored if a table is already loaded.
+	 * An expired table is served as stale data while it is reloaded.
+	 * @param saved the chart cycle data and the time it was loaded
+	 */
+	public static synchronized void restore (CycleSnapshot saved) {
+		if (TableChartClient.sectionalTable != null) {
+			return;
+		}
+		
+		TableChartClient.lastUpdate = saved.getLoadedAt();
+		TableChartClient.expiry = CycleCache.getExpiry(saved);
+		TableChartClient.sectionalData = saved.getData();
+		TableChartClient.sectionalTable = new ChartInfoTable(saved.getData());
+		CycleCache.setReferenceData(REFERENCE_NAME, saved.getDigest());
 	}
 	
 	public static ChartCycleData callResource(Date targetDate) {
 		/* example:
 		 * https://soadev.sm.faa.gov/denodo/apra/server/ifpa/edai/views/vfr_chart_cycle?query_date=6/15/2016&%24format=json
 		 */
-		String unbound = "";
-
-		SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yyyy");
-		StringBuilder url = new StringBuilder();
-		url.append(Config.getDenodoHost()).append(Config.getDenodoVFRCycleResource()).append("?query_date=")
-										.append(sdf.format(targetDate))
-										.append("&%24format=json");
-		logger.info("Calling denodo for sectional at "+url.toString());
-		TableChartClient.lastUpdate = new Date(System.currentTimeMillis());
+		String url = getWebTarget(targetDate);
+		logger.info("Calling denodo for sectional at "+url);
 		
 		try {
-			Client client = ClientBuilder.newClient();	
-			
-			WebTarget webTarget = client.target(url.toString());
-			
-			long now = System.currentTimeMillis();
-			unbound = webTarget.request(MediaType.APPLICATION_JSON_TYPE).get(String.class);
-			long duration = System.currentTimeMillis() - now;
-			logger.info("Call for sectional chart cycle took "+duration+" ms");
-			
-			if (logger.isDebugEnabled())
-				logger.debug("JSON return value for sectional chart cycle = "+unbound);
-			
-			ChartCycleJsonUnmarshaller converter = new ChartCycleJsonUnmarshaller();
-			logger.debug("Got the unmarshaller ChartCycleJsonUnmarshaller");
-			ChartCycleData sectionJson = converter.unmarshalJson(unbound);
-			logger.debug("Got the converter for ChartCycleData and unmarshalled the unbound string. Returning sectionJson");
-			return sectionJson;
+			// Concurrent refreshes for the same query date share a single call to denodo
+			return refreshes.execute(url, () -> fetchChartCycle(url));
 		}
 		catch (Exception ex) {
+			// Keep serving the previously loaded table if there is one
 			logger.error("Error calling service",ex);
-			TableChartClient.sectionalTable = null;
 			return null;
 		}
 		
 	}
+	
+	private static ChartCycleData fetchChartCycle(String url) throws Exception {
+		long now = System.currentTimeMillis();
+		ChartCycleData sectionJson = DenodoGateway.getInstance().get(url, MediaType.APPLICATION_JSON_TYPE, ChartCycleData.class);
+		long duration = System.currentTimeMillis() - now;
+		logger.info("Call for sectional chart cycle took "+duration+" ms");
+		
+		if (logger.isDebugEnabled())
+			logger.debug("Unmarshalled "+sectionJson.getElements().length+" sectional chart cycle elements");
+		
+		return sectionJson;
+	}
+	
+	private static String getWebTarget(Date targetDate) {
+		SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yyyy");
+		StringBuilder url = new StringBuilder();
+		url.append(Config.getDenodoHost()).append(Config.getDenodoVFRCycleResource()).append("?query_date=")
+										.append(sdf.format(targetDate))
+										.append("&%24format=json");
+		return url.toString();
+	}
+	
+	/**
+	 * Determine whether another request is already refreshing the table while a previously loaded
+	 * table is still available. In that case the existing table is served rather than waiting.
+	 * @return true if the cached table can be served while the refresh completes
+	 */
+	private boolean isRefreshInFlight() {
+		return TableChartClient.sectionalTable != null && refreshes.isInFlight(getWebTarget(this.today));
+	}
 
 
 	private boolean updateRequired() {
 		boolean update;
-		if(TableChartClient.lastUpdate == null || TableChartClient.sectionalTable == null ) {				
+		if(TableChartClient.lastUpdate == null || TableChartClient.sectionalTable == null || TableChartClient.expiry == null) {				
 			update = true;
 		} else {
-			long diff = this.today.getTime() - TableChartClient.lastUpdate.getTime();
-			long hours = TimeUnit.HOURS.convert(diff, TimeUnit.MILLISECONDS);
-			
-			update = (hours >= Config.getCycleAgeLimit());
+			update = this.today.getTime() >= TableChartClient.expiry.getTime();
 		}
 		return update;
 	}
 	
+	/*
+	 * Load the table on this thread when there is none yet. An expired table is served while it is reloaded in the background.
+	 */
+	private void revalidateTable() {
+		if(!updateRequired() || isRefreshInFlight()) {
+			return;
+		}
+		
+		if(TableChartClient.sectionalTable == null) {
+			revalidator.revalidateNow(TableChartClient::updateTable);
+		} else {
+			revalidator.revalidate(TableChartClient::updateTable);
+		}
+	}
+	
+	/**
+	 * Get the sectional table for a client. An expired table is returned as stale data while it is reloaded.
+	 * @param client the client holding the query date
+	 * @return the table or null if none could be loaded
+	 */
 	public static ChartInfoTable getTable(TableChartClient client) {
-		if(client.updateRequired()) {
-			TableChartClient.updateTable();
+		client.revalidateTable();
+		Date tableExpiry = TableChartClient.expiry;
+		
+		if(TableChartClient.sectionalTable != null && tableExpiry != null && client.today.getTime() >= tableExpiry.getTime()) {
+			StaleData.mark(tableExpiry);
 		}
 		return TableChartClient.sectionalTable;
 	}
@@ -0,0 +1,217 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.faa.ait.apra.bootstrap.Config;
+import gov.faa.ait.apra.cycle.CycleCache;
+
+/**
+ * Records the result of the HEAD checks made against the product download URLs so that a URL is not
+ * checked again on every request. A URL that was found is remembered for longer than one that was not,
+ * since a missing file is often uploaded shortly afterwards. A result recorded by the background link
+ * verifier is kept until the verifier has run again instead. Concurrent checks of the same URL share a
+ * single HEAD request. Every result is dropped when the chart cycles change, because the files then move
+ * to a new edition.
+ *
+ * @author FAA
+ *
+ */
+public final class URLHealthRegistry {
+	private static final Logger logger = LoggerFactory.getLogger(URLHealthRegistry.class);
+	private static final URLHealthRegistry instance = new URLHealthRegistry();
+	private final Map <String, Health> results = new ConcurrentHashMap <> ();
+	private final SingleFlight <String, Boolean> checks = new SingleFlight <> ();
+	private volatile long version = -1;
+
+	private URLHealthRegistry () { }
+
+	/**
+	 * Get the shared URL health registry
+	 * @return the registry
+	 */
+	public static URLHealthRegistry getInstance () {
+		return instance;
+	}
+
+	/**
+	 * Get the recorded result for a URL
+	 * @param url the external form of the URL
+	 * @return true or false if a result is recorded and has not expired, otherwise null
+	 */
+	public Boolean get (String url) {
+		checkVersion();
+		Health health = results.get(url);
+
+		if (health == null) {
+			return null;
+		}
+
+		if (health.isExpired()) {
+			results.remove(url, health);
+			return null;
+		}
+
+		return health.ok;
+	}
+
+	/**
+	 * Get the recorded result for a URL, or run the check and record its result if there is none. If the
+	 * same URL is already being checked the result of that check is used. A check refused by an open circuit
+	 * breaker passes without a result being recorded, so the link is returned unverified.
+	 * @param url the external form of the URL
+	 * @param check the HEAD check of the URL
+	 * @return true if the URL was found
+	 */
+	public boolean check (String url, Callable <Boolean> check) {
+		Boolean known = get(url);
+
+		if (known != null) {
+			return known;
+		}
+
+		try {
+			return checks.execute(url, () -> {
+				boolean ok = check.call();
+				record(url, ok);
+				return ok;
+			});
+		}
+		catch (CircuitBreaker.OpenException eopen) {
+			logger.debug("HEAD check not made for url "+url+". "+eopen.getMessage());
+			return true;
+		}
+		catch (Exception ex) {
+			logger.error("HEAD check failed for url: "+url, ex);
+			return false;
+		}
+	}
+
+	/**
+	 * Record the result of a HEAD check
+	 * @param url the external form of the URL
+	 * @param ok true if the URL was found
+	 */
+	public void record (String url, boolean ok) {
+		checkVersion();
+		results.put(url, new Health(ok));
+	}
+
+	/**
+	 * Record the result of a HEAD check that is kept for the given time whatever its outcome
+	 * @param url the external form of the URL
+	 * @param ok true if the URL was found
+	 * @param ttl the number of minutes the result is kept
+	 */
+	public void record (String url, boolean ok, int ttl) {
+		checkVersion();
+		results.put(url, new Health(ok, System.currentTimeMillis(), TimeUnit.MINUTES.toMillis(ttl)));
+	}
+
+	/**
+	 * Get the recorded results with the given outcome that have not expired
+	 * @param ok true for the URLs that were found, false for those that were not
+	 * @return the time of each check by URL
+	 */
+	public Map <String, Long> getResults (boolean ok) {
+		checkVersion();
+		Map <String, Long> found = new HashMap <> ();
+		
+		for (Map.Entry <String, Health> result : results.entrySet()) {
+			Health health = result.getValue();
+			
+			if (health.ok == ok && ! health.isExpired()) {
+				found.put(result.getKey(), health.checkedAt);
+			}
+		}
+		
+		return found;
+	}
+
+	/**
+	 * Restore the result of a check saved by a previous run. An expired result, or a URL checked since, is skipped.
+	 * @param url the external form of the URL
+	 * @param ok true if the URL was found
+	 * @param checkedAt the time of the check
+	 */
+	public void restore (String url, boolean ok, long checkedAt) {
+		checkVersion();
+		Health health = new Health(ok, checkedAt);
+		
+		if (! health.isExpired()) {
+			results.putIfAbsent(url, health);
+		}
+	}
+
+	/**
+	 * Remove every recorded result
+	 */
+	public void flush () {
+		logger.info("URL health registry is being flushed. "+results.size()+" results are removed.");
+		results.clear();
+	}
+
+	/**
+	 * Get the number of recorded results, including any that have expired but not yet been removed
+	 * @return the number of results
+	 */
+	public int size () {
+		return results.size();
+	}
+
+	private void checkVersion () {
+		long current = CycleCache.getVersion();
+
+		if (current != version) {
+			synchronized (this) {
+				if (current != version) {
+					results.clear();
+					version = current;
+				}
+			}
+		}
+	}
+
+	private static final class Health {
+		private final boolean ok;
+		private final long checkedAt;
+		private final long ttl;
+
+		private Health (boolean ok) {
+			this(ok, System.currentTimeMillis());
+		}
+
+		private Health (boolean ok, long checkedAt) {
+			this(ok, checkedAt, TimeUnit.MINUTES.toMillis(ok ? Config.getURLHealthPositiveTTL() : Config.getURLHealthNegativeTTL()));
+		}
+
+		private Health (boolean ok, long checkedAt, long ttl) {
+			this.ok = ok;
+			this.checkedAt = checkedAt;
+			this.ttl = ttl;
+		}
+
+		private boolean isExpired () {
+			return System.currentTimeMillis() - checkedAt >= ttl;
+		}
+	}
+}
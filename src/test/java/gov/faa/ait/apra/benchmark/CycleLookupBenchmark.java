@@ -0,0 +1,149 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import gov.faa.ait.apra.cycle.ChartCycleData;
+import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+import gov.faa.ait.apra.cycle.CycleSnapshot;
+import gov.faa.ait.apra.util.ChartInfoTable;
+import gov.faa.ait.apra.util.ChartInfoTableKey;
+
+/**
+ * Measures the per request cost of a chart cycle lookup. The scan and key benchmarks reproduce the 
+ * lookups used before the cycle data was indexed; the indexed benchmarks use the snapshot and table 
+ * indexes. Run with the -prof gc option to see the allocation per lookup.
+ * 
+ * @author FAA
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CycleLookupBenchmark {
+	private static final String [] CITIES = {
+		"Albuquerque", "Anchorage", "Atlanta", "Bethel", "Billings", "Brownsville", "Cape Lisburne", "Charlotte", 
+		"Cheyenne", "Chicago", "Cincinnati", "Cold Bay", "Dallas-Ft Worth", "Dawson", "Denver", "Detroit", 
+		"Dutch Harbor", "El Paso", "Fairbanks", "Great Falls", "Green Bay", "Halifax", "Hawaiian Islands", 
+		"Houston", "Jacksonville", "Juneau", "Kansas City", "Ketchikan", "Klamath Falls", "Kodiak", 
+		"Lake Huron", "Las Vegas", "Los Angeles", "McGrath", "Memphis", "Miami", "Montreal", "New Orleans", 
+		"New York", "Nome", "Omaha", "Phoenix", "Point Barrow", "Salt Lake City", "San Antonio", 
+		"San Francisco", "Seattle", "Seward", "St Louis", "Twin Cities", "Washington", "Wichita"
+	};
+	
+	private ChartCycleElementsJson [] elements;
+	private CycleSnapshot snapshot;
+	private ChartInfoTable table;
+	
+	@Setup
+	public void setup() {
+		List <ChartCycleElementsJson> list = new ArrayList <> ();
+		
+		for (String city : CITIES) {
+			list.add(getElement("CURRENT", "SECTIONAL", "98", city.toUpperCase(Locale.ENGLISH)));
+			list.add(getElement("NEXT", "SECTIONAL", "99", city.toUpperCase(Locale.ENGLISH)));
+		}
+		
+		// The cycle type entries come last in the denodo response, the worst case for a scan
+		list.add(getElement("CURRENT", "56 DAY", "4", "ALL"));
+		list.add(getElement("NEXT", "56 DAY", "5", "ALL"));
+		list.add(getElement("CURRENT", "28 DAY", "1607", "ALL"));
+		list.add(getElement("NEXT", "28 DAY", "1608", "ALL"));
+		
+		elements = list.toArray(new ChartCycleElementsJson [list.size()]);
+		ChartCycleData data = new ChartCycleData("chart_cycle", elements);
+		snapshot = new CycleSnapshot(data, new Date());
+		table = new ChartInfoTable(data);
+	}
+	
+	@Benchmark
+	public ChartCycleElementsJson cycleByScan() {
+		for (int i = 0; i < elements.length; i++) {
+			if ("NEXT".equalsIgnoreCase(elements[i].getChart_cycle_period_code()) && 
+					"28 DAY".equalsIgnoreCase(elements[i].getChart_cycle_type_code())) {
+				return elements[i];
+			}
+		}
+		return null;
+	}
+	
+	@Benchmark
+	public ChartCycleElementsJson cycleByIndex() {
+		return snapshot.getCycle("NEXT", "28 DAY");
+	}
+	
+	@Benchmark
+	public ChartCycleElementsJson cityByKey() {
+		ChartInfoTableKey key = new ChartInfoTableKey(
+			"Salt Lake City".toUpperCase(Locale.ENGLISH), "next".toUpperCase(), "SECTIONAL");
+		return table.get(key);
+	}
+	
+	@Benchmark
+	public ChartCycleElementsJson cityByIndex() {
+		return table.get("Salt Lake City", "next", "SECTIONAL");
+	}
+	
+	@Benchmark
+	public int allCitiesByStream() {
+		return (int) table.entrySet().stream().filter( entry -> entry.getKey().getChartType().equals("SECTIONAL")
+				&& entry.getKey().getPeriodCode().equals("CURRENT"))
+			.sorted((entry1, entry2) -> entry1.getKey().getCityRegion().compareTo(entry2.getKey().getCityRegion()))
+			.count();
+	}
+	
+	@Benchmark
+	public int allCitiesByIndex() {
+		return table.getCharts("CURRENT", "SECTIONAL").size();
+	}
+	
+	private static ChartCycleElementsJson getElement(String period, String type, String number, String city) {
+		ChartCycleElementsJson element = new ChartCycleElementsJson();
+		element.setChart_cycle_period_code(period);
+		element.setChart_cycle_type_code(type);
+		element.setChart_cycle_number(number);
+		element.setChart_city_name(city);
+		return element;
+	}
+	
+	public static void main(String [] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+			.include(CycleLookupBenchmark.class.getSimpleName())
+			.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import gov.faa.ait.apra.bootstrap.Config;
+import gov.faa.ait.apra.util.ExecutionMode;
+
+/**
+ * Measures the time to answer a burst of concurrent requests that each block on a slow upstream call, 
+ * as a request does while it waits on denodo or a HEAD check. The platform mode uses the configured 
+ * number of request threads, so the burst is answered in waves. The virtual mode runs every request on 
+ * its own virtual thread and needs a Java 21 runtime; on an older runtime it measures the platform 
+ * fallback.
+ * 
+ * @author FAA
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionModeBenchmark {
+	@Param({"PLATFORM", "VIRTUAL"})
+	private ExecutionMode mode;
+	
+	@Param({"2000"})
+	private int requests;
+	
+	@Param({"50"})
+	private long latency;
+	
+	private ExecutorService executor;
+	
+	@Setup
+	public void setup() {
+		executor = mode.newExecutor("apra-benchmark-", Config.getRequestThreads());
+	}
+	
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+	
+	@Benchmark
+	public int burst() throws InterruptedException, ExecutionException {
+		List <Callable <Integer>> calls = new ArrayList <> (requests);
+		
+		for (int i = 0; i < requests; i++) {
+			calls.add(this::upstreamCall);
+		}
+		
+		int answered = 0;
+		for (Future <Integer> result : executor.invokeAll(calls)) {
+			answered += result.get();
+		}
+		
+		return answered;
+	}
+	
+	/*
+	 * A blocking call to an upstream service with a fixed latency
+	 */
+	private int upstreamCall() throws InterruptedException {
+		TimeUnit.MILLISECONDS.sleep(latency);
+		return 1;
+	}
+	
+	public static void main(String [] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+			.include(ExecutionModeBenchmark.class.getSimpleName())
+			.build();
+		new Runner(options).run();
+	}
+}
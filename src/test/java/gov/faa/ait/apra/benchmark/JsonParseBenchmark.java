@@ -0,0 +1,124 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import gov.faa.ait.apra.json.TPPChartMetadata;
+import gov.faa.ait.apra.json.TPPMetadata;
+import gov.faa.ait.apra.util.JsonUtil;
+
+/**
+ * Measures parsing a denodo TPP metadata response of 20,000 charts. The string benchmark reproduces 
+ * the previous clients, which read the body into a string, copied it into a byte array and parsed 
+ * it with a new mapper. The stream benchmark parses the body directly with the shared reader. Run 
+ * with the -prof gc option to compare the allocation of each.
+ * 
+ * @author FAA
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonParseBenchmark {
+	private static final int ROWS = 20000;
+	private static final String [] STATES = { "Texas", "California", "Alaska", "Florida", "New York", "Colorado" };
+	private static final String [] VOLUMES = { "SC-2", "SW-4", "AK-1", "SE-3", "NE-2", "SW-2" };
+	private static final String [] CHARTS = { "AIRPORT DIAGRAM", "ILS OR LOC RWY 17C", "RNAV (GPS) RWY 35L", "TAKEOFF MINIMUMS", "VOR RWY 13" };
+	
+	private byte [] body;
+	
+	@Setup
+	public void setup() throws IOException {
+		TPPMetadata [] elements = new TPPMetadata [ROWS];
+		
+		for (int i = 0; i < ROWS; i++) {
+			TPPMetadata element = new TPPMetadata();
+			int airport = i / 8;
+			element.setChart_cycle_period_code("CURRENT");
+			element.setChart_edition("1607");
+			element.setCycle(1607);
+			element.setFrom_edate("0901Z  06/23/16");
+			element.setTo_edate("0901Z  07/21/16");
+			element.setState_fullname(STATES[airport % STATES.length]);
+			element.setVolume(VOLUMES[airport % VOLUMES.length]);
+			element.setCity_name("CITY "+airport);
+			element.setAirport_name("MUNICIPAL AIRPORT "+airport);
+			element.setAirport_identifier(String.format("A%03d", airport % 1000));
+			element.setAirport_icao_identifier(String.format("KA%03d", airport % 1000));
+			element.setMilitary("N");
+			element.setChartseq(Integer.toString(10100 + i % 8));
+			element.setChart_code(i % 8 == 0 ? "APD" : "IAP");
+			element.setChart_name(CHARTS[i % CHARTS.length]);
+			element.setPdf_name(String.format("%05d%s.PDF", airport, i % 8 == 0 ? "AD" : "IL" + i % 8));
+			element.setUseraction(i % 20 == 0 ? "C" : "");
+			element.setCivil("");
+			element.setFaanfd15("");
+			element.setFaanfd18("");
+			element.setCopter("");
+			elements[i] = element;
+		}
+		
+		TPPChartMetadata metadata = new TPPChartMetadata();
+		metadata.setName("dtpp_chart_metadata");
+		metadata.setElements(elements);
+		body = new ObjectMapper().writeValueAsBytes(metadata);
+	}
+	
+	@Benchmark
+	public TPPChartMetadata parseFromString() throws IOException {
+		String unbound = new String(body, StandardCharsets.UTF_8);
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		mapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
+		return mapper.readValue(unbound.getBytes("UTF-8"), TPPChartMetadata.class);
+	}
+	
+	@Benchmark
+	public TPPChartMetadata parseFromStream() throws IOException {
+		return JsonUtil.readValue(new ByteArrayInputStream(body), TPPChartMetadata.class);
+	}
+	
+	public static void main(String [] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+			.include(JsonParseBenchmark.class.getSimpleName())
+			.build();
+		new Runner(options).run();
+	}
+}
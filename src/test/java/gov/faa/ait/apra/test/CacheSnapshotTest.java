@@ -0,0 +1,88 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.Test;
+
+import gov.faa.ait.apra.bootstrap.CacheSnapshotStore;
+import gov.faa.ait.apra.cycle.ChartCycleData;
+import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.cycle.CycleSnapshot;
+import gov.faa.ait.apra.util.URLHealthRegistry;
+
+public class CacheSnapshotTest {
+	private static final String FOUND = "https://aeronav.faa.gov/upload_313-d/terminal/DDTPPA_saved.zip";
+	private static final String MISSING = "https://aeronav.faa.gov/upload_313-d/terminal/DDTPPB_saved.zip";
+
+	@Test
+	public void restoredSnapshotKeepsLoadTime() {
+		Date loadedAt = new Date(System.currentTimeMillis() - 3600000L);
+		CycleSnapshot snapshot = new CycleSnapshot(getData(), new Date(), loadedAt);
+
+		assertEquals(loadedAt, snapshot.getLoadedAt());
+		assertEquals("1607", snapshot.getCycle("CURRENT", "28 DAY").getChart_cycle_number());
+	}
+
+	@Test
+	public void cachesAreRestored() {
+		CycleCache.restore("saved test cycle", new CycleSnapshot(getData(), new Date()));
+		URLHealthRegistry registry = URLHealthRegistry.getInstance();
+		registry.flush();
+		registry.record(FOUND, true);
+		registry.record(MISSING, false);
+
+		CacheSnapshotStore.save();
+		registry.flush();
+		assertNull(registry.get(FOUND));
+
+		CacheSnapshotStore.restore();
+		assertEquals(Boolean.TRUE, registry.get(FOUND));
+		assertEquals(Boolean.FALSE, registry.get(MISSING));
+
+		Map <String, CycleSnapshot> snapshots = CycleCache.getSnapshots();
+		assertEquals("1607", snapshots.get("saved test cycle").getCycle("CURRENT").getChart_cycle_number());
+	}
+
+	@Test
+	public void restoredResultsSurviveCacheCreation() {
+		CycleCache.restore("late test cycle", new CycleSnapshot(getData(), new Date()));
+		URLHealthRegistry registry = URLHealthRegistry.getInstance();
+		registry.restore(FOUND, true, System.currentTimeMillis());
+		long version = CycleCache.getVersion();
+		long dataVersion = CycleCache.getDataVersion();
+
+		// The cache is created after the snapshot file was read, when its service is first used
+		CycleCache cache = new CycleCache("late test cycle", null, null);
+
+		assertNotNull(cache.peek());
+		assertEquals(version, CycleCache.getVersion());
+		assertTrue(CycleCache.getDataVersion() > dataVersion);
+		assertEquals(Boolean.TRUE, registry.get(FOUND));
+	}
+
+	private static ChartCycleData getData() {
+		ChartCycleElementsJson element = new ChartCycleElementsJson();
+		element.setChart_cycle_period_code("CURRENT");
+		element.setChart_cycle_type_code("28 DAY");
+		element.setChart_cycle_number("1607");
+		element.setChart_effective_date(new Date());
+		return new ChartCycleData("test", new ChartCycleElementsJson [] { element });
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+import gov.faa.ait.apra.util.ChartPager;
+import gov.faa.ait.apra.util.CycleDateUtil;
+
+public class ChartPagerTest {
+	private static final String SCOPE = "TPP|TEXAS|false";
+	private static final Function <String, String> KEY = Function.identity();
+	private static final long DAY = 86400000L;
+	private final List <ChartCycleElementsJson> published = Arrays.asList(getCycle("CURRENT", "1913"), getCycle("NEXT", "1914"));
+
+	@Test
+	public void unpagedListingIsUnchanged() {
+		List <String> rows = Arrays.asList("c", "a", "b");
+		ChartPager pager = ChartPager.create(SCOPE, null, null, published);
+
+		assertFalse(pager.isPaged());
+		assertSame(rows, pager.page(rows, KEY, getCycle("CURRENT", "1913")));
+		assertNull(pager.getNextCursor());
+	}
+
+	@Test
+	public void pageThroughListing() {
+		List <String> rows = Arrays.asList("e", "b", "d", "a", "c");
+		ChartCycleElementsJson current = getCycle("CURRENT", "1913");
+		List <String> seen = new ArrayList <> ();
+
+		ChartPager pager = ChartPager.create(SCOPE, "2", null, published);
+		seen.addAll(pager.page(rows, KEY, current));
+		assertEquals(Arrays.asList("a", "b"), seen);
+
+		// The limit is carried by the cursor
+		pager = ChartPager.create(SCOPE, null, pager.getNextCursor(), published);
+		seen.addAll(pager.page(rows, KEY, current));
+
+		pager = ChartPager.create(SCOPE, null, pager.getNextCursor(), published);
+		seen.addAll(pager.page(rows, KEY, current));
+
+		assertEquals(Arrays.asList("a", "b", "c", "d", "e"), seen);
+		assertNull(pager.getNextCursor());
+	}
+
+	@Test
+	public void cursorPinsCycle() {
+		ChartCycleElementsJson current = getCycle("CURRENT", "1913");
+		ChartPager pager = ChartPager.create(SCOPE, "1", null, published);
+		pager.page(Arrays.asList("a", "b"), KEY, current);
+
+		pager = ChartPager.create(SCOPE, null, pager.getNextCursor(), published);
+		ChartCycleElementsJson pinned = pager.getCycle(getCycle("CURRENT", "1914"));
+
+		assertEquals("1913", pinned.getChart_cycle_number());
+		assertEquals("CURRENT", pinned.getChart_cycle_period_code());
+		assertEquals(current.getChart_effective_date(), pinned.getChart_effective_date());
+		assertEquals(Arrays.asList("b"), pager.page(Arrays.asList("a", "b", "aa"), KEY, current));
+	}
+
+	@Test
+	public void rejectInvalidParameters() {
+		ChartPager pager = ChartPager.create(SCOPE, "1", null, published);
+		pager.page(Arrays.asList("a", "b"), KEY, getCycle("CURRENT", "1913"));
+
+		assertInvalid(SCOPE, "0", null);
+		assertInvalid(SCOPE, "ten", null);
+		assertInvalid(SCOPE, null, "not a cursor");
+		assertInvalid("TPP|OHIO|false", null, pager.getNextCursor());
+	}
+
+	@Test
+	public void rejectUnpublishedCycle() {
+		ChartCycleElementsJson forged = getCycle("CURRENT", "1999");
+		forged.setChart_effective_date(new Date(1700000000000L + 280 * DAY));
+		ChartPager pager = ChartPager.create(SCOPE, "1", null, published);
+		pager.page(Arrays.asList("a", "b"), KEY, forged);
+
+		assertInvalid(SCOPE, null, pager.getNextCursor());
+	}
+
+	@Test
+	public void acceptCycleBeforeRollover() {
+		Date effective = CycleDateUtil.getCycleEffectiveDate(new Date(1700000000000L), 28, 0);
+		ChartCycleElementsJson previous = getCycle("CURRENT", "1913");
+		previous.setChart_effective_date(effective);
+		previous.setChart_cycle_number(String.format("%02d", CycleDateUtil.getCycleNumber(effective, 28)));
+
+		ChartPager pager = ChartPager.create(SCOPE, "1", null, published);
+		pager.page(Arrays.asList("a", "b"), KEY, previous);
+
+		// The cycle has rolled over, so the pinned cycle is now the one before the current cycle
+		ChartCycleElementsJson current = getCycle("CURRENT", "1914");
+		current.setChart_effective_date(CycleDateUtil.getCycleEffectiveDate(effective, 28, 1));
+		List <ChartCycleElementsJson> rolledOver = ChartPager.getPublishedCycles(current, null, 28);
+		ChartCycleElementsJson pinned = ChartPager.create(SCOPE, null, pager.getNextCursor(), rolledOver).getCycle(current);
+
+		assertEquals(previous.getChart_cycle_number(), pinned.getChart_cycle_number());
+		assertEquals(effective, pinned.getChart_effective_date());
+	}
+
+	private void assertInvalid(String scope, String limit, String cursor) {
+		try {
+			ChartPager.create(scope, limit, cursor, published);
+			fail("Expected the paging parameters to be rejected");
+		}
+		catch (IllegalArgumentException iae) {
+			assertNotNull(iae.getMessage());
+		}
+	}
+
+	private ChartCycleElementsJson getCycle(String period, String number) {
+		ChartCycleElementsJson cycle = new ChartCycleElementsJson();
+		cycle.setChart_cycle_period_code(period);
+		cycle.setChart_cycle_type_code("28");
+		cycle.setChart_cycle_number(number);
+		cycle.setChart_effective_date(new Date(1700000000000L));
+		return cycle;
+	}
+}
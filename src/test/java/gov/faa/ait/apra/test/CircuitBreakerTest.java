@@ -0,0 +1,79 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import gov.faa.ait.apra.bootstrap.Config;
+import gov.faa.ait.apra.util.CircuitBreaker;
+
+public class CircuitBreakerTest {
+
+	@Test
+	public void opensOnFailures() throws IOException {
+		CircuitBreaker breaker = new CircuitBreaker("test", 1000);
+
+		for (int i = 0; i < Config.getBreakerMinimumCalls(); i++) {
+			assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+			try {
+				breaker.execute(() -> { throw new IOException("unavailable"); });
+				fail("The call should have failed");
+			}
+			catch (CircuitBreaker.OpenException eopen) {
+				fail("The breaker opened before the minimum number of calls");
+			}
+			catch (IOException eio) {
+				// expected
+			}
+		}
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+		try {
+			breaker.execute(() -> "called");
+			fail("An open breaker should refuse the call");
+		}
+		catch (CircuitBreaker.OpenException eopen) {
+			assertTrue(breaker.getStatus().contains("1 calls refused"));
+		}
+	}
+
+	@Test
+	public void staysClosedOnSuccess() throws IOException {
+		CircuitBreaker breaker = new CircuitBreaker("test", 1000);
+
+		for (int i = 0; i < Config.getBreakerWindowSize() * 2; i++) {
+			assertEquals("called", breaker.execute(() -> "called"));
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	public void opensOnSlowCalls() {
+		CircuitBreaker breaker = new CircuitBreaker("test", 1000);
+
+		for (int i = 0; i < Config.getBreakerMinimumCalls(); i++) {
+			assertTrue(breaker.tryAcquire());
+			breaker.onResult(false, 5000);
+		}
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire());
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import gov.faa.ait.apra.cycle.ComputedCycleSource;
+import gov.faa.ait.apra.cycle.CycleSnapshot;
+
+@RunWith(Parameterized.class)
+public class ComputedCycleTest {
+	private Date checkDate;
+	private Integer expected56DayCycle;
+	private String expected28DayCycle;
+	private String expected56DayDate;
+	
+	public ComputedCycleTest (Date date, Integer cycle56, String cycle28, String date56) {
+		this.checkDate = new Date(date.getTime());
+		this.expected56DayCycle = cycle56;
+		this.expected28DayCycle = cycle28;
+		this.expected56DayDate = date56;
+	}
+	
+	@Parameterized.Parameters
+	public static List<Object[]> cycleNumbers () throws ParseException {
+		SimpleDateFormat formatter = new SimpleDateFormat("MM/dd/yyyy");
+		
+		// The 56 day cycle numbers match the denodo values used in ChartCycleTest
+		Object [] [] params = new Object [] [] {
+			{formatter.parse("06/17/2016"), Integer.valueOf(3), "06", "05/26/2016"},
+			{formatter.parse("10/13/2016"), Integer.valueOf(5), "11", "09/15/2016"},
+			{formatter.parse("11/10/2016"), Integer.valueOf(6), "12", "11/10/2016"},
+			{formatter.parse("01/01/2017"), Integer.valueOf(6), "13", "11/10/2016"},
+			{formatter.parse("12/25/2016"), Integer.valueOf(6), "13", "11/10/2016"},
+			{formatter.parse("01/05/2017"), Integer.valueOf(1), "01", "01/05/2017"},
+			{formatter.parse("02/03/2017"), Integer.valueOf(1), "02", "01/05/2017"},
+			{formatter.parse("06/14/2017"), Integer.valueOf(3), "06", "04/27/2017"},
+			{formatter.parse("09/15/2017"), Integer.valueOf(5), "10", "08/17/2017"},
+			{formatter.parse("11/09/2017"), Integer.valueOf(6), "12", "10/12/2017"}
+		};
+
+		return Arrays.asList(params);
+	}
+	
+	@Test
+	public void computedCycle() {
+		SimpleDateFormat formatter = new SimpleDateFormat("MM/dd/yyyy");
+		CycleSnapshot snapshot = new CycleSnapshot(new ComputedCycleSource().getChartCycle(checkDate), checkDate);
+		
+		assertEquals(expected56DayCycle.intValue(), Integer.parseInt(snapshot.getCycle("CURRENT", "56 DAY").getChart_cycle_number()));
+		assertEquals(expected56DayDate, formatter.format(snapshot.getCycle("CURRENT", "56 DAY").getChart_effective_date()));
+		assertEquals(expected28DayCycle, snapshot.getCycle("CURRENT", "28 DAY").getChart_cycle_number());
+		assertEquals(snapshot.getCycle("NEXT", "28 DAY").getChart_effective_date(), snapshot.getNextEffectiveDate());
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gov.faa.ait.apra.api.BaseService;
+import gov.faa.ait.apra.api.ConditionalRequestFilter;
+import gov.faa.ait.apra.api.GzipEncodingFilter;
+import gov.faa.ait.apra.cycle.ChartCycleData;
+import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.cycle.CycleSnapshot;
+import gov.faa.ait.apra.cycle.CycleSource;
+import gov.faa.ait.apra.jaxb.ProductSet;
+
+public class ConditionalRequestTest {
+	private static final AtomicInteger builds = new AtomicInteger();
+	private static ApplicationHandler handler;
+
+	@BeforeClass
+	public static void setUp() {
+		ChartCycleElementsJson current = new ChartCycleElementsJson();
+		current.setChart_cycle_period_code("CURRENT");
+		current.setChart_cycle_type_code("28 DAY");
+		current.setChart_cycle_number("1607");
+		current.setChart_effective_date(new Date(System.currentTimeMillis() - 86400000L));
+		ChartCycleData data = new ChartCycleData("chart_cycle", new ChartCycleElementsJson [] { current });
+
+		new CycleCache("conditional request test", new CycleSource() {
+			@Override
+			public ChartCycleData getChartCycle(Date queryDate) {
+				return data;
+			}
+
+			@Override
+			public String getKey(Date queryDate) {
+				return "conditional request test";
+			}
+		}, null).publish(new CycleSnapshot(data, new Date()));
+
+		handler = new ApplicationHandler(new ResourceConfig(ProbeService.class, ConditionalRequestFilter.class, GzipEncodingFilter.class));
+	}
+
+	@Test
+	public void gzipTagIsAnsweredWithNotModified() throws Exception {
+		ContainerResponse first = get("gzip", null);
+		String tag = first.getHeaderString(HttpHeaders.ETAG);
+
+		assertEquals(200, first.getStatus());
+		assertEquals("gzip", first.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+		assertNotNull(tag);
+		assertTrue(tag.endsWith("-gzip\""));
+
+		int built = builds.get();
+		ContainerResponse second = get("gzip", tag);
+
+		assertEquals(304, second.getStatus());
+		assertEquals(tag, second.getHeaderString(HttpHeaders.ETAG));
+		assertEquals(built, builds.get());
+	}
+
+	@Test
+	public void gzipAndIdentityHaveDifferentTags() throws Exception {
+		String gzipTag = get("gzip", null).getHeaderString(HttpHeaders.ETAG);
+		ContainerResponse identity = get(null, null);
+		String identityTag = identity.getHeaderString(HttpHeaders.ETAG);
+
+		assertNull(identity.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+		assertNotNull(identityTag);
+		assertNotEquals(gzipTag, identityTag);
+
+		// A tag of the other representation does not match
+		assertEquals(200, get(null, gzipTag).getStatus());
+		assertEquals(304, get(null, identityTag).getStatus());
+	}
+
+	private static ContainerResponse get(String acceptEncoding, String ifNoneMatch) throws Exception {
+		ContainerRequest request = new ContainerRequest(URI.create("http://localhost/"), URI.create("http://localhost/probe"),
+				"GET", null, new MapPropertiesDelegate());
+
+		if (acceptEncoding != null) {
+			request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+
+		if (ifNoneMatch != null) {
+			request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+
+		return handler.apply(request).get();
+	}
+
+	@Path("probe")
+	public static class ProbeService extends BaseService {
+		@GET
+		@Produces(MediaType.TEXT_PLAIN)
+		public String getProbe() {
+			builds.incrementAndGet();
+			return "probe";
+		}
+
+		@Override
+		protected ProductSet buildResponse(ChartCycleElementsJson cycle) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+
+import java.util.Date;
+
+import org.junit.Test;
+
+import gov.faa.ait.apra.cycle.ChartCycleData;
+import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.cycle.CycleSnapshot;
+
+public class CycleSnapshotTest {
+
+	@Test
+	public void lookupByPeriodAndType() {
+		CycleSnapshot snapshot = new CycleSnapshot(getData(), new Date());
+		
+		assertEquals("1607", snapshot.getCycle("CURRENT", "28 DAY").getChart_cycle_number());
+		assertEquals("1608", snapshot.getCycle("next", "28 day").getChart_cycle_number());
+		assertEquals("4", snapshot.getCycle("CURRENT", "56 DAY").getChart_cycle_number());
+		assertNull(snapshot.getCycle("NEXT", "56 DAY"));
+		assertNull(snapshot.getCycle("PREVIOUS", "28 DAY"));
+	}
+	
+	@Test
+	public void lookupByPeriodAndCity() {
+		CycleSnapshot snapshot = new CycleSnapshot(getData(), new Date());
+		
+		assertEquals("91", snapshot.getCityCycle("CURRENT", "Atlanta").getChart_cycle_number());
+		assertEquals("91", snapshot.getCityCycle("current", "ATLANTA").getChart_cycle_number());
+		assertNull(snapshot.getCityCycle("NEXT", "Atlanta"));
+	}
+	
+	@Test
+	public void lookupByPeriod() {
+		CycleSnapshot snapshot = new CycleSnapshot(getData(), new Date());
+		
+		assertEquals("1607", snapshot.getCycle("CURRENT").getChart_cycle_number());
+		assertEquals("1608", snapshot.getCycle("NEXT").getChart_cycle_number());
+	}
+	
+	@Test
+	public void nextEffectiveDate() {
+		Date queryDate = new Date(1000000000000L);
+		ChartCycleElementsJson next28 = getElement("NEXT", "28 DAY", "1608", null);
+		next28.setChart_effective_date(new Date(queryDate.getTime() + 86400000L * 10));
+		ChartCycleElementsJson next56 = getElement("NEXT", "56 DAY", "5", null);
+		next56.setChart_effective_date(new Date(queryDate.getTime() + 86400000L * 38));
+		
+		CycleSnapshot snapshot = new CycleSnapshot(new ChartCycleData("chart_cycle", new ChartCycleElementsJson [] { next56, next28 }), queryDate);
+		assertEquals(next28.getChart_effective_date(), snapshot.getNextEffectiveDate());
+		
+		snapshot = new CycleSnapshot(getData(), queryDate);
+		assertNull(snapshot.getNextEffectiveDate());
+	}
+	
+	@Test
+	public void digestOfCycles() {
+		CycleSnapshot first = new CycleSnapshot(getData(), new Date(1000000000000L));
+		CycleSnapshot reloaded = new CycleSnapshot(getData(), new Date());
+		assertEquals(first.getDigest(), reloaded.getDigest());
+		
+		ChartCycleData changed = getData();
+		changed.getElements()[0].setChart_cycle_number("1608");
+		assertNotEquals(first.getDigest(), new CycleSnapshot(changed, new Date()).getDigest());
+	}
+	
+	@Test
+	public void referenceDataChangesDataVersion() {
+		CycleCache.setReferenceData("test table", "1607");
+		long cycles = CycleCache.getVersion();
+		long data = CycleCache.getDataVersion();
+		
+		CycleCache.setReferenceData("test table", new StringBuilder("1607"));
+		assertEquals(data, CycleCache.getDataVersion());
+		
+		CycleCache.setReferenceData("test table", "1608");
+		assertEquals(data + 1, CycleCache.getDataVersion());
+		assertEquals(cycles, CycleCache.getVersion());
+		
+		CycleCache.setReferenceData("test table", null);
+	}
+	
+	private ChartCycleData getData() {
+		ChartCycleElementsJson [] elements = new ChartCycleElementsJson [] {
+				getElement("CURRENT", "28 DAY", "1607", null),
+				getElement("NEXT", "28 DAY", "1608", null),
+				getElement("CURRENT", "56 DAY", "4", null),
+				getElement("CURRENT", "TAC", "91", "Atlanta")
+		};
+		
+		return new ChartCycleData("chart_cycle", elements);
+	}
+	
+	private ChartCycleElementsJson getElement(String period, String type, String number, String city) {
+		ChartCycleElementsJson element = new ChartCycleElementsJson();
+		element.setChart_cycle_period_code(period);
+		element.setChart_cycle_type_code(type);
+		element.setChart_cycle_number(number);
+		element.setChart_city_name(city);
+		return element;
+	}
+}
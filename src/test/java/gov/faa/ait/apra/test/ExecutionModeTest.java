@@ -0,0 +1,99 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import gov.faa.ait.apra.util.ExecutionMode;
+
+public class ExecutionModeTest {
+	private static final int REQUESTS = 400;
+	private static final int THREADS = 16;
+	private static final long LATENCY = 50;
+
+	@Test
+	public void platformThreads() throws Exception {
+		ExecutorService executor = ExecutionMode.PLATFORM.newExecutor("apra-test-", THREADS);
+
+		try {
+			Thread thread = executor.submit(Thread::currentThread).get();
+			assertTrue(thread.getName().startsWith("apra-test-"));
+			assertTrue(thread.isDaemon());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void virtualFallsBackToPlatform() throws Exception {
+		assumeFalse(ExecutionMode.isVirtualAvailable());
+		ExecutorService executor = ExecutionMode.VIRTUAL.newExecutor("apra-test-", THREADS);
+
+		try {
+			assertTrue(executor.submit(Thread::currentThread).get().getName().startsWith("apra-test-"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void virtualThreadsAnswerBurstSooner() throws Exception {
+		assumeTrue(ExecutionMode.isVirtualAvailable());
+
+		long platform = burst(ExecutionMode.PLATFORM);
+		long virtual = burst(ExecutionMode.VIRTUAL);
+
+		// The platform pool answers the burst in waves of THREADS requests, the virtual threads all at once
+		assertTrue("Platform "+platform+" ms, virtual "+virtual+" ms", virtual < platform);
+		assertTrue(platform >= LATENCY * REQUESTS / THREADS);
+	}
+
+	/*
+	 * Answer a burst of requests that each block on an upstream call with a fixed latency
+	 */
+	private static long burst(ExecutionMode mode) throws Exception {
+		ExecutorService executor = mode.newExecutor("apra-test-", THREADS);
+		List <Callable <Boolean>> calls = new ArrayList <> ();
+
+		for (int i = 0; i < REQUESTS; i++) {
+			calls.add(() -> {
+				TimeUnit.MILLISECONDS.sleep(LATENCY);
+				return true;
+			});
+		}
+
+		try {
+			long start = System.nanoTime();
+			for (Future <Boolean> result : executor.invokeAll(calls)) {
+				assertTrue(result.get());
+			}
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.junit.Test;
+
+import gov.faa.ait.apra.cycle.ChartCycleData;
+import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+import gov.faa.ait.apra.cycle.CycleSnapshot;
+import gov.faa.ait.apra.cycle.DenodoCycleSource;
+import gov.faa.ait.apra.cycle.ExtrapolatedCycleSource;
+
+public class ExtrapolatedCycleTest {
+	private final SimpleDateFormat formatter = new SimpleDateFormat("MM/dd/yyyy");
+
+	@Test
+	public void lastMinuteBeforeEditionKeepsCurrent() throws Exception {
+		// Fifty five days and almost a whole day after the seed NEXT edition, which used to round up to the 56 day cycle
+		Date queryDate = new Date(formatter.parse("10/13/2016").getTime() - 60000L);
+		CycleSnapshot snapshot = getSnapshot(queryDate);
+
+		assertEquals("96", snapshot.getCycle("CURRENT", "56 DAY").getChart_cycle_number());
+		assertEquals("08/18/2016", formatter.format(snapshot.getCycle("CURRENT", "56 DAY").getChart_effective_date()));
+		assertEquals("97", snapshot.getCycle("NEXT", "56 DAY").getChart_cycle_number());
+	}
+
+	@Test
+	public void editionStartsOnItsEffectiveDate() throws Exception {
+		CycleSnapshot snapshot = getSnapshot(formatter.parse("10/13/2016"));
+
+		assertEquals("97", snapshot.getCycle("CURRENT", "56 DAY").getChart_cycle_number());
+		assertEquals("10/13/2016", formatter.format(snapshot.getCycle("CURRENT", "56 DAY").getChart_effective_date()));
+		assertEquals("12/08/2016", formatter.format(snapshot.getCycle("NEXT", "56 DAY").getChart_effective_date()));
+	}
+
+	private CycleSnapshot getSnapshot(Date queryDate) throws Exception {
+		ExtrapolatedCycleSource source = new ExtrapolatedCycleSource(new DenodoCycleSource("extrapolated test", date -> "http://localhost/unused"));
+		source.reseed(new ChartCycleData("vfr_chart_cycle", new ChartCycleElementsJson [] {
+			getElement("CURRENT", "95", "06/23/2016"),
+			getElement("NEXT", "96", "08/18/2016")
+		}));
+
+		return new CycleSnapshot(source.getChartCycle(queryDate), queryDate);
+	}
+
+	private ChartCycleElementsJson getElement(String period, String number, String effective) throws Exception {
+		ChartCycleElementsJson element = new ChartCycleElementsJson();
+		element.setChart_cycle_period_code(period);
+		element.setChart_cycle_type_code("56 DAY");
+		element.setChart_city_name("Seattle");
+		element.setChart_cycle_number(number);
+		element.setChart_effective_date(formatter.parse(effective));
+		return element;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import gov.faa.ait.apra.util.ResponseCache;
+
+public class ResponseCacheTest {
+	private static long nextVersion = 1000;
+	private long version;
+
+	@Before
+	public void flush() {
+		ResponseCache.getInstance().flush();
+		version = nextVersion;
+		nextVersion += 2;
+	}
+
+	@Test
+	public void keyIgnoresParameterOrder() {
+		Map <String, List <String>> first = new LinkedHashMap <> ();
+		first.put("edition", Arrays.asList("current"));
+		first.put("geoname", Arrays.asList("US"));
+
+		Map <String, List <String>> second = new LinkedHashMap <> ();
+		second.put("geoname", Arrays.asList("US"));
+		second.put("edition", Arrays.asList("current"));
+
+		assertEquals(ResponseCache.getKey("cifp/chart", first, "application/json"), ResponseCache.getKey("cifp/chart", second, " Application/JSON"));
+		assertNotEquals(ResponseCache.getKey("cifp/chart", first, "application/json"), ResponseCache.getKey("cifp/chart", first, "application/xml"));
+	}
+
+	@Test
+	public void cycleChangeClearsCache() {
+		ResponseCache cache = ResponseCache.getInstance();
+		cache.put("cifp/chart?|application/json", version, getEntry());
+
+		assertNotNull(cache.get("cifp/chart?|application/json", version));
+		assertEquals("1", cache.get("cifp/chart?|application/json", version).getHeaders().get("X-APRA-Test"));
+		assertNull(cache.get("cifp/chart?|application/json", version + 1));
+		assertEquals(0, cache.size());
+
+		// A response built from the previous cycles is not held
+		cache.put("cifp/chart?|application/json", version, getEntry());
+		assertEquals(0, cache.size());
+	}
+
+	private ResponseCache.Entry getEntry() {
+		return new ResponseCache.Entry("{}".getBytes(), "application/json", Collections.singletonMap("X-APRA-Test", "1"));
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import gov.faa.ait.apra.util.Revalidator;
+import gov.faa.ait.apra.util.StaleData;
+
+public class RevalidatorTest {
+
+	@Test
+	public void backsOffAfterFailure() {
+		Revalidator revalidator = new Revalidator("test");
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertFalse(revalidator.revalidateNow(() -> attempts.incrementAndGet() < 0));
+		assertFalse(revalidator.isDue());
+		assertFalse(revalidator.revalidateNow(() -> attempts.incrementAndGet() > 0));
+		assertEquals(1, attempts.get());
+
+		revalidator.record(true);
+		assertTrue(revalidator.isDue());
+		assertTrue(revalidator.revalidateNow(() -> attempts.incrementAndGet() > 0));
+		assertEquals(2, attempts.get());
+	}
+
+	@Test
+	public void marksStaleData() {
+		StaleData.clear();
+		StaleData.mark(new Date(System.currentTimeMillis() + 60000));
+		assertEquals(-1, StaleData.getAge());
+
+		StaleData.mark(new Date(System.currentTimeMillis() - 120000));
+		StaleData.mark(new Date(System.currentTimeMillis() - 60000));
+		assertTrue(StaleData.getAge() >= 120);
+
+		StaleData.clear();
+		assertEquals(-1, StaleData.getAge());
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.ws.rs.core.GenericEntity;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.MarshallerProperties;
+import org.junit.Test;
+
+import gov.faa.ait.apra.api.StreamingProductSet;
+import gov.faa.ait.apra.jaxb.FormatCodeList;
+import gov.faa.ait.apra.jaxb.ObjectFactory;
+import gov.faa.ait.apra.jaxb.ProductCodeList;
+import gov.faa.ait.apra.jaxb.ProductSet;
+import gov.faa.ait.apra.jaxb.ProductSet.Edition;
+import gov.faa.ait.apra.jaxb.ProductSet.Edition.Product;
+import gov.faa.ait.apra.jaxb.ProductSet.Status;
+
+public class StreamingProductSetTest {
+	private static final List <String> charts = Arrays.asList("00001AD.PDF", "00002AD.PDF", "00003AD.PDF");
+
+	@Test
+	public void jsonMatchesProductSet() throws Exception {
+		assertEquals(marshal(getProductSet(), "application/json"), marshal(getStreamingProductSet(), "application/json"));
+	}
+
+	@Test
+	public void xmlMatchesProductSet() throws Exception {
+		String expected = marshal(getProductSet(), "application/xml");
+
+		assertTrue(expected.contains("00003AD.PDF"));
+		assertEquals(expected, marshal(getStreamingProductSet(), "application/xml"));
+	}
+
+	private ProductSet getProductSet() {
+		ProductSet ps = getTemplate();
+
+		for (String chart : charts) {
+			ps.getEdition().add(getEdition(chart));
+		}
+
+		return ps;
+	}
+
+	private Object getStreamingProductSet() {
+		ProductSet ps = StreamingProductSet.create(getTemplate());
+		StreamingProductSet.setEditions(ps, charts, this::getEdition);
+
+		// The entity is written the way the resource returns it
+		Object entity = StreamingProductSet.toEntity(ps);
+		return entity instanceof GenericEntity ? ((GenericEntity <?>) entity).getEntity() : entity;
+	}
+
+	private ProductSet getTemplate() {
+		ObjectFactory of = new ObjectFactory();
+		Status status = of.createProductSetStatus();
+		status.setCode(200);
+		status.setMessage("OK");
+		ProductSet ps = of.createProductSet();
+		ps.setStatus(status);
+		return ps;
+	}
+
+	private Edition getEdition(String chart) {
+		ObjectFactory of = new ObjectFactory();
+		Edition ed = of.createProductSetEdition();
+		ed.setEditionDate("07/21/2016");
+		ed.setEditionNumber(1608);
+		ed.setFormat(FormatCodeList.PDF);
+		ed.setGeoname("Alaska");
+
+		Product product = of.createProductSetEditionProduct();
+		product.setProductName(ProductCodeList.TPP);
+		product.setChartName(chart);
+		product.setUrl("http://aeronav.faa.gov/d-tpp/1608/"+chart);
+		ed.setProduct(product);
+		return ed;
+	}
+
+	private String marshal(Object ps, String mediaType) throws Exception {
+		JAXBContext context = JAXBContextFactory.createContext(new Class [] { ProductSet.class }, null);
+		Marshaller marshaller = context.createMarshaller();
+		marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, mediaType);
+		StringWriter writer = new StringWriter();
+		marshaller.marshal(ps, writer);
+		return writer.toString();
+	}
+}
@@ -66,7 +66,7 @@ public class SupplementFunctionalTest {
 	public void testProductReleseDefault() {
 
 		for (String city : cities) {
-			ProductSet ps = (ProductSet) supplement.getSupplementRelease("", city).getEntity();
+			ProductSet ps = (ProductSet) supplement.getSupplementRelease("", city, null, null).getEntity();
 
 			if ((ps.getEdition() != null && !ps.getEdition().isEmpty() && ps
 					.getEdition().get(0).getEditionDate() != null)
@@ -96,7 +96,7 @@ public class SupplementFunctionalTest {
 	public void testProductReleseDefaultUS() {
 
 		supplement = new SupplementCharts();
-		ProductSet ps = (ProductSet) supplement.getSupplementRelease("", "").getEntity();
+		ProductSet ps = (ProductSet) supplement.getSupplementRelease("", "", null, null).getEntity();
 
 		if ((ps.getEdition() != null && !ps.getEdition().isEmpty() && ps
 				.getEdition().get(0).getEditionDate() != null)
@@ -123,7 +123,7 @@ public class SupplementFunctionalTest {
 	public void testProductReleseVOLTypo() {
 
 		supplement = new SupplementCharts();
-		ProductSet ps = (ProductSet) supplement.getSupplementRelease("", "Typo").getEntity();
+		ProductSet ps = (ProductSet) supplement.getSupplementRelease("", "Typo", null, null).getEntity();
 		int code = ps.getStatus().getCode().intValue();
 		assertEquals(code, 404);
 	}
@@ -142,7 +142,7 @@ public class SupplementFunctionalTest {
 	public void testProductReleseEDTypo() {
 
 		supplement = new SupplementCharts();
-		ProductSet ps = (ProductSet) supplement.getSupplementRelease("TYPO", "Typo").getEntity();
+		ProductSet ps = (ProductSet) supplement.getSupplementRelease("TYPO", "Typo", null, null).getEntity();
 		int code = ps.getStatus().getCode().intValue();
 		assertEquals(code, 400);
 	}
@@ -0,0 +1,75 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import gov.faa.ait.apra.json.TPPMetadata;
+import gov.faa.ait.apra.util.TPPMetadataIndex;
+
+public class TPPMetadataIndexTest {
+
+	@Test
+	public void lookupByState() {
+		TPPMetadataIndex index = new TPPMetadataIndex(getData());
+		
+		assertEquals(4, index.size());
+		assertEquals(3, index.getByState("Texas").size());
+		assertEquals(3, index.getByState("TEXAS").size());
+		assertEquals("00001AD.PDF", index.getByState("Texas").get(0).getPdf_name());
+		assertEquals(1, index.getByState("Alaska").size());
+		assertTrue(index.getByState("Ohio").isEmpty());
+		assertTrue(index.getByState(null).isEmpty());
+	}
+	
+	@Test
+	public void lookupByVolumeAndAirport() {
+		TPPMetadataIndex index = new TPPMetadataIndex(getData());
+		
+		assertEquals(3, index.getByVolume("sc-2").size());
+		assertEquals(2, index.getByAirport("DFW").size());
+		assertEquals(2, index.getByIcao("kdfw").size());
+		assertEquals(1, index.getByAirport("ANC").size());
+		assertTrue(index.getByIcao("KAUS").isEmpty());
+	}
+	
+	@Test
+	public void skipMissingElements() {
+		TPPMetadataIndex index = new TPPMetadataIndex(new TPPMetadata [1]);
+		
+		assertEquals(0, index.size());
+		assertTrue(index.getByState("Texas").isEmpty());
+	}
+	
+	private TPPMetadata [] getData() {
+		return new TPPMetadata [] {
+				getElement("Texas", "SC-2", "DFW", "KDFW", "00001AD.PDF"),
+				getElement("Texas", "SC-2", "DFW", "KDFW", "00001ILS17C.PDF"),
+				getElement("Texas", "SC-2", "F05", "", "00002AD.PDF"),
+				getElement("Alaska", "AK-1", "ANC", "PANC", "00003AD.PDF")
+		};
+	}
+	
+	private TPPMetadata getElement(String state, String volume, String airport, String icao, String pdf) {
+		TPPMetadata element = new TPPMetadata();
+		element.setState_fullname(state);
+		element.setVolume(volume);
+		element.setAirport_identifier(airport);
+		element.setAirport_icao_identifier(icao);
+		element.setPdf_name(pdf);
+		return element;
+	}
+}
@@ -51,7 +51,7 @@ public class TPPTest {
 	
 	@Test 
 	public  void testRelease() {
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "US").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "US", null, null).getEntity();
 		
 		for (int i = 0; i < 5; i++) {
 			logger.info("TPP test for entire US digital product set "+ps.getEdition().get(i).getProduct().getUrl());
@@ -62,7 +62,7 @@ public class TPPTest {
 	@Test 
 	public  void testNextRelease() {
 		tpp = new TerminalProcedureCharts();
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("next",  "US").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("next",  "US", null, null).getEntity();
 		
 		for (int i = 0; i < 5; i++) {
 			logger.info("TPP test for entire US digital product set "+ps.getEdition().get(i).getProduct().getUrl());
@@ -72,7 +72,7 @@ public class TPPTest {
 	@Test 
 	public  void testAlaskaRelease() {
 		logger.info("Start testAlaskaRelease()");
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "Alaska").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "Alaska", null, null).getEntity();
 		assertNotNull(ps.getEdition());
 		logger.info("Alaska has "+ps.getEdition().size()+" charts as a response.");
 		if (ps.getEdition().size() < 1)
@@ -81,7 +81,7 @@ public class TPPTest {
 	
 	@Test 
 	public void testUSChangesetRelease() {
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("changeset",  "US").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("changeset",  "US", null, null).getEntity();
 		assertNotNull(ps.getEdition());
 		logger.info("US has "+ps.getEdition().size()+" changed charts as a response.");
 		if (ps.getEdition().size() < 1)
@@ -91,7 +91,7 @@ public class TPPTest {
 	@Test 
 	public  void testNewYorkRelease() {
 		logger.info("Start testNewYorkRelease()");
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "new york").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "new york", null, null).getEntity();
 		assertNotNull(ps.getEdition());
 		logger.info("new york has "+ps.getEdition().size()+" charts as a response.");
 		if (ps.getEdition().size() < 1)
@@ -101,7 +101,7 @@ public class TPPTest {
 	@Test 
 	public  void testCaliforniaRelease() {
 		logger.info("Start testCaliforniaRelease()");
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "california").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "california", null, null).getEntity();
 		assertNotNull(ps.getEdition());
 		logger.info("California has "+ps.getEdition().size()+" charts as a response.");
 		if (ps.getEdition().size() < 1)
@@ -112,7 +112,7 @@ public class TPPTest {
 	@Test 
 	public  void testCaliforniaChangeRelease() {
 		logger.info("Start testCaliforniaChangeRelease()");
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("changeset",  "california").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("changeset",  "california", null, null).getEntity();
 		assertNotNull(ps.getEdition());
 		logger.info("California change set has "+ps.getEdition().size()+" charts as a response.");
 		if (ps.getEdition().size() < 1)
@@ -122,7 +122,7 @@ public class TPPTest {
 	@Test 
 	public  void testMixedCaseRelease() {
 		logger.info("Start testMixedCasekRelease()");
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "neW yOrk").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "neW yOrk", null, null).getEntity();
 		assertNotNull(ps.getEdition());
 		logger.info("neW yOrk has "+ps.getEdition().size()+" charts as a response.");
 		if (ps.getEdition().size() < 1) {
@@ -133,7 +133,7 @@ public class TPPTest {
 	
 	@Test 
 	public void testAmpersandStateRelease() {
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "&nebraska").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "&nebraska", null, null).getEntity();
 		assertNotNull(ps.getEdition());
 		if (ps.getEdition().size() > 0)
 			fail();
@@ -141,7 +141,7 @@ public class TPPTest {
 
 	@Test 
 	public void testJunkStateRelease() {
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "@*?$(*@#$*))=@#&foo=$%20+\\&").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "@*?$(*@#$*))=@#&foo=$%20+\\&", null, null).getEntity();
 		assertNotNull(ps.getEdition());
 		if (ps.getEdition().size() > 0)
 			fail();
@@ -149,7 +149,7 @@ public class TPPTest {
 	
 	@Test 
 	public  void testPlusSignStateRelease() {
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "+california").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "+california", null, null).getEntity();
 		assertNotNull(ps.getEdition());
 		if (ps.getEdition().size() > 0)
 			fail();
@@ -157,7 +157,7 @@ public class TPPTest {
 
 	@Test 
 	public  void testEncodedStateRelease() {
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "&+california++").getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("current",  "&+california++", null, null).getEntity();
 		assertNotNull(ps.getEdition());
 		logger.info("&+california++ has "+ps.getEdition().size()+" charts as a response.");
 		if (ps.getEdition().size() > 0)
@@ -167,7 +167,7 @@ public class TPPTest {
 	@Test 
 	public  void testReleaseDefaultValues() {
 		tpp = new TerminalProcedureCharts();
-		ProductSet ps = (ProductSet) tpp.getTPPRelease(null, null).getEntity();
+		ProductSet ps = (ProductSet) tpp.getTPPRelease(null, null, null, null).getEntity();
 		
 		for (int i = 0; i < 5; i++) {
 			logger.info("TPP test for entire US digital product set "+ps.getEdition().get(i).getProduct().getUrl());
@@ -178,28 +178,28 @@ public class TPPTest {
 	@Test
 	public  void testReleaseBadGeoname () {
 		tpp = new TerminalProcedureCharts();
-		ProductSet ps = (ProductSet) tpp.getTPPRelease(null, "BAD").getEntity();		
+		ProductSet ps = (ProductSet) tpp.getTPPRelease(null, "BAD", null, null).getEntity();		
 		assertEquals (400, ps.getStatus().getCode().intValue());
 	}
 	
 	@Test
 	public  void testReleaseFubarNext () {
 		tpp = new TerminalProcedureCharts();
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("next", "fubar").getEntity();		
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("next", "fubar", null, null).getEntity();		
 		assertEquals (400, ps.getStatus().getCode().intValue());
 	}
 
 	@Test
 	public  void testReleaseFubarCurrent () {
 		tpp = new TerminalProcedureCharts();
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("current", "fubar").getEntity();		
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("current", "fubar", null, null).getEntity();		
 		assertEquals (400, ps.getStatus().getCode().intValue());
 	}
 	
 	@Test
 	public void testReleaseBadEdition () {
 		tpp = new TerminalProcedureCharts();
-		ProductSet ps = (ProductSet) tpp.getTPPRelease("NoSuchEdition", "US").getEntity();		
+		ProductSet ps = (ProductSet) tpp.getTPPRelease("NoSuchEdition", "US", null, null).getEntity();		
 		assertEquals (400, ps.getStatus().getCode().intValue());
 	}
 	
@@ -0,0 +1,129 @@
+/*
+ * Federal Aviation Administration (FAA) public work 
+ * 
+ * As a work of the United States Government, this project is in the 
+ * public domain within the United States. Additionally, we waive copyright 
+ * and related rights in the work worldwide 
+ * through the Creative Commons 0 (CC0) 1.0 Universal public domain dedication
+ * 
+ * APRA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ */
+package gov.faa.ait.apra.test;
+
+import static org.junit.Assert.*;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import gov.faa.ait.apra.cycle.ChartCycleData;
+import gov.faa.ait.apra.cycle.ChartCycleElementsJson;
+import gov.faa.ait.apra.cycle.CycleCache;
+import gov.faa.ait.apra.cycle.CycleSnapshot;
+import gov.faa.ait.apra.util.URLHealthRegistry;
+
+public class URLHealthRegistryTest {
+	private static final String URL = "https://aeronav.faa.gov/upload_313-d/terminal/DDTPPA_test.zip";
+	private static final Date EFFECTIVE = new Date(System.currentTimeMillis() - 86400000L);
+
+	@Before
+	public void flush() {
+		URLHealthRegistry.getInstance().flush();
+	}
+
+	@Test
+	public void resultIsReused() {
+		URLHealthRegistry registry = URLHealthRegistry.getInstance();
+		AtomicInteger heads = new AtomicInteger();
+
+		assertNull(registry.get(URL));
+		assertTrue(registry.check(URL, () -> heads.incrementAndGet() > 0));
+		assertTrue(registry.check(URL, () -> heads.incrementAndGet() > 0));
+		assertEquals(1, heads.get());
+		assertEquals(Boolean.TRUE, registry.get(URL));
+	}
+
+	@Test
+	public void negativeResultIsRecorded() {
+		URLHealthRegistry registry = URLHealthRegistry.getInstance();
+		registry.record(URL, false);
+
+		assertEquals(Boolean.FALSE, registry.get(URL));
+		assertFalse(registry.check(URL, () -> true));
+	}
+
+	@Test
+	public void resultKeepsItsTTL() {
+		URLHealthRegistry registry = URLHealthRegistry.getInstance();
+		registry.record(URL, false, 0);
+		assertNull(registry.get(URL));
+
+		registry.record(URL, false, 720);
+		assertEquals(Boolean.FALSE, registry.get(URL));
+	}
+
+	@Test
+	public void identicalReloadKeepsResults() {
+		URLHealthRegistry registry = URLHealthRegistry.getInstance();
+		CycleCache cache = new CycleCache("url health test", null, null);
+		cache.publish(new CycleSnapshot(getData(), new Date()));
+		registry.record(URL, false);
+
+		// The same cycles loaded again do not change the version the results are kept for
+		cache.publish(new CycleSnapshot(getData(), new Date()));
+		assertEquals(Boolean.FALSE, registry.get(URL));
+	}
+
+	@Test
+	public void failedCheckIsNotFound() {
+		assertFalse(URLHealthRegistry.getInstance().check(URL, () -> { throw new IllegalStateException("unreachable"); }));
+	}
+
+	@Test
+	public void concurrentChecksShareOneHead() throws Exception {
+		URLHealthRegistry registry = URLHealthRegistry.getInstance();
+		AtomicInteger heads = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+
+		try {
+			Future <Boolean> first = pool.submit(() -> registry.check(URL, () -> {
+				heads.incrementAndGet();
+				started.countDown();
+				release.await();
+				return true;
+			}));
+			started.await(5, TimeUnit.SECONDS);
+			Future <Boolean> second = pool.submit(() -> registry.check(URL, () -> heads.incrementAndGet() > 0));
+			Thread.sleep(100);
+			release.countDown();
+
+			assertTrue(first.get(5, TimeUnit.SECONDS));
+			assertTrue(second.get(5, TimeUnit.SECONDS));
+			assertEquals(1, heads.get());
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static ChartCycleData getData() {
+		ChartCycleElementsJson element = new ChartCycleElementsJson();
+		element.setChart_cycle_period_code("CURRENT");
+		element.setChart_cycle_type_code("28 DAY");
+		element.setChart_cycle_number("1607");
+		element.setChart_effective_date(EFFECTIVE);
+		return new ChartCycleData("test", new ChartCycleElementsJson [] { element });
+	}
+}